@@ -20,23 +20,76 @@ import {
   ResponsiveContainer,
 } from "recharts";
 
+// Metriken in Anzeige-Reihenfolge (Namen wie im Backend)
+const METRICS = [
+  "WEIGHT",
+  "BMI",
+  "BODY_FAT",
+  "MUSCLE_MASS",
+  "BONE_MASS",
+  "METABOLIC_AGE",
+  "WATER_PERCENTAGE",
+  "VISCERAL_FAT",
+];
+
+// Gewichts-Metriken, die in lbs umgerechnet werden
+const WEIGHT_METRICS = ["WEIGHT", "MUSCLE_MASS", "BONE_MASS"];
+
+// Max. Punkte pro Chart – das Backend reduziert per LTTB
+const CHART_POINTS = 150;
+
 function WeightStatistics() {
   const { user } = useAuth();
   const userId = user?.id;
-  const [measurements, setMeasurements] = useState([]);
+  const [statistics, setStatistics] = useState({});
   const [userPreferences, setUserPreferences] = useState(null);
   const [dateRange, setDateRange] = useState("1month");
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
-    loadMeasurements();
     loadUserPreferences();
   }, []);
 
-  const loadMeasurements = async () => {
+  useEffect(() => {
+    loadStatistics();
+  }, [dateRange]);
+
+  // Startdatum des gewählten Zeitraums (null = alle)
+  const getStartDate = () => {
+    let daysToSubtract;
+
+    switch (dateRange) {
+      case "1month":
+        daysToSubtract = DAYS_IN_MONTH;
+        break;
+      case "3months":
+        daysToSubtract = DAYS_IN_3_MONTHS;
+        break;
+      case "6months":
+        daysToSubtract = DAYS_IN_6_MONTHS;
+        break;
+      default:
+        return null;
+    }
+
+    const start = new Date(Date.now() - daysToSubtract * MS_PER_DAY);
+    // Lokale Zeit als ISO-String ohne Zeitzone (wie im Backend gespeichert)
+    return new Date(start.getTime() - start.getTimezoneOffset() * 60000)
+      .toISOString()
+      .slice(0, 19);
+  };
+
+  const loadStatistics = async () => {
     try {
-      const response = await weightApi.getUserMeasurements(userId);
-      setMeasurements(response.data);
+      const from = getStartDate();
+      const response = await weightApi.getStatistics(userId, {
+        metrics: METRICS.join(","),
+        points: CHART_POINTS,
+        ...(from && { from }),
+      });
+      const byMetric = {};
+      response.data.forEach((s) => (byMetric[s.metric] = s));
+      setStatistics(byMetric);
     } catch (error) {
       console.error("Fehler beim Laden:", error);
       alert("Fehler beim Laden der Messungen!");
@@ -55,58 +108,26 @@ function WeightStatistics() {
     }
   };
 
-  // Helper: Gefilterte Messungen basierend auf Datumsbereich
-  const getFilteredMeasurements = () => {
-    if (dateRange === "all") return measurements;
-
-    const now = new Date();
-    let daysToSubtract;
-
-    switch (dateRange) {
-      case "1month":
-        daysToSubtract = DAYS_IN_MONTH;
-        break;
-      case "3months":
-        daysToSubtract = DAYS_IN_3_MONTHS;
-        break;
-      case "6months":
-        daysToSubtract = DAYS_IN_6_MONTHS;
-        break;
-      default:
-        return measurements;
-    }
-
-    const startDate = new Date(now.getTime() - daysToSubtract * MS_PER_DAY);
-    return measurements.filter((m) => new Date(m.date) >= startDate);
-  };
+  const hasData = Object.values(statistics).some((s) => s.count > 0);
 
   // Daten für Chart vorbereiten
-  const prepareChartData = (field) => {
+  const prepareChartData = (metric) => {
     const unit = userPreferences?.weightUnit || "kg";
-    return getFilteredMeasurements()
-      .filter((m) => m[field] != null)
-      .map((m) => {
-        let value = m[field];
-        // Gewichts-Felder umrechnen
-        if (
-          (field === "weight" ||
-            field === "muscleMass" ||
-            field === "boneMass") &&
-          unit === "lbs"
-        ) {
-          value = displayWeight(value, "lbs");
-        }
-        return {
-          date: formatShortDate(m.date),
-          value: value,
-        };
-      })
-      .reverse(); // Älteste Daten zuerst
+    const convert = (value) =>
+      value != null && WEIGHT_METRICS.includes(metric) && unit === "lbs"
+        ? displayWeight(value, "lbs")
+        : value;
+
+    return (statistics[metric]?.points || []).map((p) => ({
+      date: formatShortDate(p.date),
+      value: convert(p.value),
+      average7Days: convert(p.average7Days),
+    }));
   };
 
   // Chart-Komponente
-  const StatChart = ({ title, field, unit, color = "#3b82f6" }) => {
-    const data = prepareChartData(field);
+  const StatChart = ({ title, metric, unit, color = "#3b82f6" }) => {
+    const data = prepareChartData(metric);
 
     if (data.length === 0) return null; // Keine Daten = Chart nicht anzeigen
 
@@ -123,7 +144,7 @@ function WeightStatistics() {
               domain={["auto", "auto"]}
             />
             <Tooltip
-              formatter={(value) => [`${value} ${unit}`, title]}
+              formatter={(value, name) => [`${value} ${unit}`, name]}
               contentStyle={{
                 backgroundColor: "white",
                 border: "1px solid #e5e7eb",
@@ -133,11 +154,21 @@ function WeightStatistics() {
             <Line
               type="monotone"
               dataKey="value"
+              name={title}
               stroke={color}
               strokeWidth={2}
               dot={{ fill: color, r: 4 }}
               activeDot={{ r: 6 }}
             />
+            <Line
+              type="monotone"
+              dataKey="average7Days"
+              name="Ø 7 Tage"
+              stroke={color}
+              strokeOpacity={0.5}
+              strokeDasharray="5 5"
+              dot={false}
+            />
           </LineChart>
         </ResponsiveContainer>
       </div>
@@ -171,11 +202,11 @@ function WeightStatistics() {
             </select>
           </div>
 
-          {measurements.length === 0 ? (
+          {!hasData && dateRange === "all" ? (
             <p className="text-center text-gray-500 py-8">
               Noch keine Messungen vorhanden.
             </p>
-          ) : getFilteredMeasurements().length === 0 ? (
+          ) : !hasData ? (
             <p className="text-center text-gray-500 py-8">
               Keine Messungen im gewählten Zeitraum.
             </p>
@@ -183,44 +214,44 @@ function WeightStatistics() {
             <>
               <StatChart
                 title="Gewicht"
-                field="weight"
+                metric="WEIGHT"
                 unit={userPreferences?.weightUnit || "kg"}
                 color="#3b82f6"
               />
-              <StatChart title="BMI" field="bmi" unit="" color="#8b5cf6" />
+              <StatChart title="BMI" metric="BMI" unit="" color="#8b5cf6" />
               <StatChart
                 title="Körperfett"
-                field="bodyFat"
+                metric="BODY_FAT"
                 unit="%"
                 color="#ef4444"
               />
               <StatChart
                 title="Muskelmasse"
-                field="muscleMass"
+                metric="MUSCLE_MASS"
                 unit={userPreferences?.weightUnit || "kg"}
                 color="#10b981"
               />
               <StatChart
                 title="Knochenmasse"
-                field="boneMass"
+                metric="BONE_MASS"
                 unit={userPreferences?.weightUnit || "kg"}
                 color="#f59e0b"
               />
               <StatChart
                 title="Stoffwechselalter"
-                field="metabolicAge"
+                metric="METABOLIC_AGE"
                 unit="Jahre"
                 color="#ec4899"
               />
               <StatChart
                 title="Wasseranteil"
-                field="waterPercentage"
+                metric="WATER_PERCENTAGE"
                 unit="%"
                 color="#06b6d4"
               />
               <StatChart
                 title="Viszerales Fett"
-                field="visceralFat"
+                metric="VISCERAL_FAT"
                 unit=""
                 color="#f97316"
               />
@@ -17,16 +17,53 @@ function WorkoutHistory() {
   const [timeFilter, setTimeFilter] = useState("recent"); // 'recent', '1month', '3months', '6months', 'all'
   const [loading, setLoading] = useState(true);
 
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
   useEffect(() => {
-    loadWorkouts();
     loadUserPreferences();
   }, []);
 
+  useEffect(() => {
+    loadWorkouts();
+  }, [timeFilter]);
+
+  // Zeitraum wird serverseitig gefiltert, "Alle" wird seitenweise geladen
+  const getHistoryParams = (cursor) => {
+    if (timeFilter === "recent") {
+      return { limit: 6 };
+    }
+
+    const params = { limit: 20 };
+    if (cursor) {
+      params.cursor = cursor;
+    }
+
+    const months = { "1month": 1, "3months": 3, "6months": 6 }[timeFilter];
+    if (months) {
+      const startDate = new Date();
+      startDate.setMonth(startDate.getMonth() - months);
+      params.from = new Date(
+        startDate.getTime() - startDate.getTimezoneOffset() * 60000,
+      )
+        .toISOString()
+        .slice(0, 19);
+    }
+
+    return params;
+  };
+
   const loadWorkouts = async () => {
     try {
       setLoading(true);
-      const response = await workoutApi.getUserWorkouts(userId);
-      setWorkouts(response.data);
+      const response = await workoutApi.getHistory(
+        userId,
+        getHistoryParams(null),
+      );
+      setWorkouts(response.data.workouts);
+      setNextCursor(
+        timeFilter === "recent" ? null : response.data.nextCursor,
+      );
     } catch (error) {
       console.error("Fehler beim Laden:", error);
       alert("Fehler beim Laden der Trainings!");
@@ -35,6 +72,23 @@ function WorkoutHistory() {
     }
   };
 
+  const loadMoreWorkouts = async () => {
+    try {
+      setLoadingMore(true);
+      const response = await workoutApi.getHistory(
+        userId,
+        getHistoryParams(nextCursor),
+      );
+      setWorkouts((prev) => [...prev, ...response.data.workouts]);
+      setNextCursor(response.data.nextCursor);
+    } catch (error) {
+      console.error("Fehler beim Laden:", error);
+      alert("Fehler beim Laden der Trainings!");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const loadUserPreferences = async () => {
     try {
       const response = await preferencesApi.getUserPreferences(userId);
@@ -63,35 +117,6 @@ function WorkoutHistory() {
     return `${mins}min`;
   };
 
-  const getFilteredWorkouts = () => {
-    if (timeFilter === "recent") {
-      return workouts.slice(0, 6);
-    }
-
-    if (timeFilter === "all") {
-      return workouts;
-    }
-
-    const now = new Date();
-    let startDate = new Date();
-
-    switch (timeFilter) {
-      case "1month":
-        startDate.setMonth(now.getMonth() - 1);
-        break;
-      case "3months":
-        startDate.setMonth(now.getMonth() - 3);
-        break;
-      case "6months":
-        startDate.setMonth(now.getMonth() - 6);
-        break;
-      default:
-        return workouts;
-    }
-
-    return workouts.filter((w) => new Date(w.startTime) >= startDate);
-  };
-
   const toggleWorkout = (workoutId) => {
     if (expandedWorkout === workoutId) {
       setExpandedWorkout(null);
@@ -100,8 +125,6 @@ function WorkoutHistory() {
     }
   };
 
-  const filteredWorkouts = getFilteredWorkouts();
-
   return (
     <div className="min-h-screen bg-gray-50 dark:bg-gray-900">
       <PageHeader title="Trainings-Historie" showBack backTo="/" />
@@ -128,10 +151,10 @@ function WorkoutHistory() {
         {/* Workouts */}
         {loading ? (
           <LoadingSpinner text="Lade Trainings..." />
-        ) : filteredWorkouts.length === 0 ? (
+        ) : workouts.length === 0 ? (
           <EmptyState message="Noch keine Trainings vorhanden." icon="💪" />
         ) : (
-          filteredWorkouts.map((workout) => {
+          workouts.map((workout) => {
             const isExpanded = expandedWorkout === workout.id;
             const duration = calculateDuration(
               workout.startTime,
@@ -261,6 +284,17 @@ function WorkoutHistory() {
             );
           })
         )}
+
+        {/* Weitere Seite nachladen */}
+        {!loading && nextCursor && (
+          <button
+            onClick={loadMoreWorkouts}
+            disabled={loadingMore}
+            className="w-full bg-white dark:bg-gray-800 text-blue-600 dark:text-blue-400 py-3 rounded-lg shadow font-medium disabled:opacity-50"
+          >
+            {loadingMore ? "Lade..." : "Mehr laden"}
+          </button>
+        )}
       </div>
     </div>
   );
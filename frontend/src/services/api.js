@@ -60,6 +60,8 @@ export const adminApi = {
 export const weightApi = {
   create: (measurementData) => api.post("/weight", measurementData),
   getUserMeasurements: (userId) => api.get(`/weight/user/${userId}`),
+  getStatistics: (userId, params) =>
+    api.get(`/weight/user/${userId}/statistics`, { params }),
 };
 
 // Exercise API
@@ -73,6 +75,8 @@ export const exerciseApi = {
 export const workoutApi = {
   create: (workoutData) => api.post("/workouts", workoutData),
   getUserWorkouts: (userId) => api.get(`/workouts/user/${userId}`),
+  getHistory: (userId, params) =>
+    api.get(`/workouts/user/${userId}/history`, { params }),
   getById: (id) => api.get(`/workouts/${id}`),
   addExercise: (workoutId, workoutExerciseData) =>
     api.post(`/workouts/${workoutId}/exercises`, workoutExerciseData),
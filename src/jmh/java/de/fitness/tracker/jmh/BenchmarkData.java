@@ -0,0 +1,73 @@
+package de.fitness.tracker.jmh;
+
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.EquipmentType;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.MuscleGroup;
+import de.fitness.tracker.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Realistische Eingaben für die Benchmarks, ohne Spring-Kontext und Datenbank.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("bench");
+        user.setRole("USER");
+        user.setHeight(180);
+        return user;
+    }
+
+    static Map<Long, Exercise> exercises(int count) {
+        Map<Long, Exercise> exercises = new LinkedHashMap<>();
+        for (long id = 1; id <= count; id++) {
+            Exercise exercise = new Exercise();
+            exercise.setId(id);
+            exercise.setName("Exercise " + id);
+            exercise.setEquipmentType(EquipmentType.BARBELL);
+            exercise.setPrimaryMuscleGroup(MuscleGroup.values()[(int) id % MuscleGroup.values().length]);
+            exercises.put(id, exercise);
+        }
+        return exercises;
+    }
+
+    static WorkoutSaveRequest saveRequest(Map<Long, Exercise> exercises, int setsPerExercise) {
+        WorkoutSaveRequest request = new WorkoutSaveRequest();
+        request.setUserId(1L);
+        request.setName("Push Day");
+        request.setStartTime(LocalDateTime.of(2024, 6, 1, 18, 0));
+        request.setEndTime(LocalDateTime.of(2024, 6, 1, 19, 15));
+
+        List<WorkoutSaveRequest.ExerciseData> exerciseData = new ArrayList<>();
+        int order = 1;
+        for (Long exerciseId : exercises.keySet()) {
+            WorkoutSaveRequest.ExerciseData data = new WorkoutSaveRequest.ExerciseData();
+            data.setExerciseId(exerciseId);
+            data.setOrderIndex(order++);
+
+            List<WorkoutSaveRequest.SetData> sets = new ArrayList<>();
+            for (int s = 1; s <= setsPerExercise; s++) {
+                WorkoutSaveRequest.SetData set = new WorkoutSaveRequest.SetData();
+                set.setSetNumber(s);
+                set.setWeight(60.0 + s * 2.5);
+                set.setReps(12 - s);
+                sets.add(set);
+            }
+            data.setSets(sets);
+            exerciseData.add(data);
+        }
+        request.setExercises(exerciseData);
+        return request;
+    }
+}
@@ -0,0 +1,32 @@
+package de.fitness.tracker.jmh;
+
+import de.fitness.tracker.util.BodyMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BMI-Berechnung beim Speichern einer Gewichtsmessung (inkl. Boxing der
+ * Double/Integer-Felder aus den Entities).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BmiBenchmark {
+
+    private Double weightKg;
+    private Integer heightCm;
+
+    @Setup
+    public void setUp() {
+        weightKg = 82.4;
+        heightCm = 181;
+    }
+
+    @Benchmark
+    public Double bmi() {
+        return BodyMetrics.bmi(weightKg, heightCm);
+    }
+}
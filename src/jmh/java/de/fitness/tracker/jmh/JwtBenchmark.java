@@ -0,0 +1,44 @@
+package de.fitness.tracker.jmh;
+
+import de.fitness.tracker.util.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token erzeugen, Signatur prüfen (ohne Cache) und verify() mit Cache-Treffer,
+ * wie im JwtAuthenticationFilter bei jedem Request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken("bench", 1L, "USER");
+        jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("bench", 1L, "USER");
+    }
+
+    @Benchmark
+    public Object parseAndVerifySignature() {
+        return jwtUtil.extractClaims(token);
+    }
+
+    @Benchmark
+    public Optional<JwtUtil.VerifiedToken> verifyCached() {
+        return jwtUtil.verify(token);
+    }
+}
@@ -0,0 +1,46 @@
+package de.fitness.tracker.jmh;
+
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.Workout;
+import de.fitness.tracker.service.WorkoutSaveService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkoutSaveRequest -> Entity-Graph (WorkoutSaveService.buildWorkout), der
+ * CPU-Anteil von save-complete ohne Datenbank.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SaveMappingBenchmark {
+
+    @Param({ "1", "6", "12" })
+    public int exercises;
+
+    @Param({ "5" })
+    public int setsPerExercise;
+
+    private final WorkoutSaveService saveService = new WorkoutSaveService();
+    private User user;
+    private Map<Long, Exercise> catalog;
+    private WorkoutSaveRequest request;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user();
+        catalog = BenchmarkData.exercises(exercises);
+        request = BenchmarkData.saveRequest(catalog, setsPerExercise);
+    }
+
+    @Benchmark
+    public Workout buildWorkout() {
+        return saveService.buildWorkout(user, request, catalog);
+    }
+}
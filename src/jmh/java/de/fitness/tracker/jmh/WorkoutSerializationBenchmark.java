@@ -0,0 +1,57 @@
+package de.fitness.tracker.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.Workout;
+import de.fitness.tracker.model.WorkoutExercise;
+import de.fitness.tracker.service.WorkoutSaveService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson-Serialisierung eines Workout -> WorkoutExercise -> ExerciseSet-Graphen
+ * mit derselben ObjectMapper-Konfiguration wie in Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WorkoutSerializationBenchmark {
+
+    @Param({ "6" })
+    public int exercises;
+
+    @Param({ "5" })
+    public int setsPerExercise;
+
+    private ObjectMapper objectMapper;
+    private Workout workout;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Map<Long, Exercise> catalog = BenchmarkData.exercises(exercises);
+        workout = new WorkoutSaveService().buildWorkout(BenchmarkData.user(),
+                BenchmarkData.saveRequest(catalog, setsPerExercise), catalog);
+
+        // IDs wie nach dem Speichern
+        long id = 1;
+        workout.setId(id++);
+        for (WorkoutExercise we : workout.getExercises()) {
+            we.setId(id++);
+            for (var set : we.getSets()) {
+                set.setId(id++);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(workout);
+    }
+}
@@ -2,8 +2,10 @@ package de.fitness.tracker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FitnessTrackerApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package de.fitness.tracker.config;
+
+// Principal aus dem verifizierten JWT – Controller lesen User-ID und Rolle ohne Datenbankzugriff
+public record AuthenticatedUser(Long userId, String username, String role) {
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    // Darf die Daten dieses Users lesen: eigene oder als Admin
+    public boolean canRead(Long userId) {
+        return this.userId.equals(userId) || isAdmin();
+    }
+
+    // Darf Übungen anlegen
+    public boolean isTrusted() {
+        return "TRUSTED_USER".equals(role) || isAdmin();
+    }
+}
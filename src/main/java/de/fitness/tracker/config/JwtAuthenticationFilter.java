@@ -0,0 +1,59 @@
+package de.fitness.tracker.config;
+
+import de.fitness.tracker.util.JwtUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Prüft den Bearer-Token einmal pro Request (über den Cache in JwtUtil) und
+ * legt User-ID und Rolle als {@link AuthenticatedUser} in den SecurityContext.
+ * Die Rolle kommt aus dem {@link UserRoleCache}, nicht aus dem Token, damit
+ * entzogene Rechte und gelöschte User nicht bis zum Token-Ablauf gelten.
+ * Ohne gültigen Token oder ohne User bleibt der Request anonym.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtUtil jwtUtil;
+    private final UserRoleCache roleCache;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRoleCache roleCache) {
+        this.jwtUtil = jwtUtil;
+        this.roleCache = roleCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            jwtUtil.verify(header.substring(7)).flatMap(this::toPrincipal).ifPresent(principal -> {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            });
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Auch bei Async-Dispatches (StreamingResponseBody) authentifizieren – der Token kommt aus dem Cache
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private Optional<AuthenticatedUser> toPrincipal(JwtUtil.VerifiedToken token) {
+        return roleCache.role(token.userId()).map(role -> new AuthenticatedUser(token.userId(), token.username(),
+                role));
+    }
+}
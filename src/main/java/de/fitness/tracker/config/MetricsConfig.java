@@ -0,0 +1,38 @@
+package de.fitness.tracker.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    // Statement-Zähler für die Request-Metriken; gilt für alle Sessions der SessionFactory
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    // DataSource für den SqlTracer in einen datasource-proxy wickeln (app.sql-trace.enabled=false schaltet ab)
+    @Bean
+    @ConditionalOnProperty(name = "app.sql-trace.enabled", matchIfMissing = true)
+    public static BeanPostProcessor sqlTracingDataSourcePostProcessor(ObjectProvider<SqlTracer> sqlTracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource).name("traced").listener(sqlTracer.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
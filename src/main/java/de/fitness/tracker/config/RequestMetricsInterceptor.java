@@ -0,0 +1,43 @@
+package de.fitness.tracker.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * SQL-Statements pro Request als Histogramm je Endpunkt
+ * ({@code http.server.requests.statements}, gleiche uri-Tags wie die
+ * Latenz-Metrik {@code http.server.requests}). Macht N+1-Rückfälle im Betrieb
+ * sichtbar, nicht nur in den Query-Count-Tests. Bei asynchronen Requests zählt
+ * nur der Dispatch-Thread.
+ */
+@Component
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("SQL statements prepared while handling the request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(SqlStatementCounter.current());
+    }
+}
@@ -0,0 +1,27 @@
+package de.fitness.tracker.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Zählt die von Hibernate vorbereiteten SQL-Statements pro Thread. Der
+ * {@link RequestMetricsInterceptor} setzt den Zähler zu Beginn eines Requests
+ * zurück und meldet ihn am Ende als Metrik; das SQL selbst bleibt unverändert.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
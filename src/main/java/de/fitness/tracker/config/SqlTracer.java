@@ -0,0 +1,179 @@
+package de.fitness.tracker.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Ersetzt show-sql: misst jede JDBC-Ausführung (über datasource-proxy, siehe
+ * {@link MetricsConfig}) und schreibt Statements über dem Schwellwert immer,
+ * die übrigen nur als Stichprobe als strukturierte Log-Einträge (Logger
+ * "sql.trace", Key-Values durationMs, endpoint, params, batch). Pro Statement
+ * werden Anzahl, Gesamt-/Maximaldauer und aufrufende Endpunkte aggregiert;
+ * abrufbar unter /api/admin/sql-stats. Parameterwerte werden nie geloggt, nur
+ * ihre Typen.
+ */
+@Component
+public class SqlTracer implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("sql.trace");
+
+    // IN-Listen unterschiedlicher Länge als ein Statement zählen
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final String OTHER = "(other)";
+
+    private static final int MAX_ENDPOINTS = 10;
+
+    @Value("${app.sql-trace.slow-threshold-ms:200}")
+    private long slowThresholdMs;
+
+    // Anteil der schnellen Statements, die trotzdem geloggt werden (0..1)
+    @Value("${app.sql-trace.sample-rate:0.01}")
+    private double sampleRate;
+
+    // Obergrenze für verschiedene Statements in der Statistik, weitere landen unter "(other)"
+    @Value("${app.sql-trace.max-statements:500}")
+    private int maxStatements;
+
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    public record StatementStats(String sql, long count, long slow, long errors, double totalMillis,
+            double averageMillis, long maxMillis, String params, Set<String> endpoints) {
+    }
+
+    private static class Aggregate {
+        final LongAdder count = new LongAdder();
+        final LongAdder slow = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalMillis = new LongAdder();
+        final AtomicLong maxMillis = new AtomicLong();
+        final Set<String> endpoints = ConcurrentHashMap.newKeySet();
+        volatile String params;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long millis = execInfo.getElapsedTime();
+        boolean slow = millis >= slowThresholdMs;
+        boolean sampled = !slow && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        String endpoint = currentEndpoint();
+
+        for (QueryInfo query : queryInfoList) {
+            String params = parameterShape(query);
+            Aggregate aggregate = aggregate(normalize(query.getQuery()));
+            aggregate.count.increment();
+            aggregate.totalMillis.add(millis);
+            aggregate.maxMillis.accumulateAndGet(millis, Math::max);
+            aggregate.params = params;
+            if (aggregate.endpoints.size() < MAX_ENDPOINTS) {
+                aggregate.endpoints.add(endpoint);
+            }
+            if (slow) {
+                aggregate.slow.increment();
+            }
+            if (!execInfo.isSuccess()) {
+                aggregate.errors.increment();
+            }
+
+            if (slow || sampled) {
+                LoggingEventBuilder event = slow ? log.atWarn() : log.atInfo();
+                event.addKeyValue("durationMs", millis).addKeyValue("endpoint", endpoint)
+                        .addKeyValue("params", params).addKeyValue("batch", execInfo.getBatchSize())
+                        .addKeyValue("success", execInfo.isSuccess())
+                        .log("{} sql {} ms [{}] {}", slow ? "slow" : "sampled", millis, endpoint, query.getQuery());
+            }
+        }
+    }
+
+    // Nach Gesamtdauer absteigend – die teuersten Statements zuerst
+    public List<StatementStats> stats(int limit) {
+        return aggregates.entrySet().stream().map(e -> {
+            Aggregate a = e.getValue();
+            long count = a.count.sum();
+            long total = a.totalMillis.sum();
+            return new StatementStats(e.getKey(), count, a.slow.sum(), a.errors.sum(), total,
+                    count == 0 ? 0 : (double) total / count, a.maxMillis.get(), a.params, Set.copyOf(a.endpoints));
+        }).sorted(Comparator.comparingDouble(StatementStats::totalMillis).reversed()).limit(limit).toList();
+    }
+
+    public void reset() {
+        aggregates.clear();
+    }
+
+    private Aggregate aggregate(String sql) {
+        Aggregate existing = aggregates.get(sql);
+        if (existing != null) {
+            return existing;
+        }
+        return aggregates.computeIfAbsent(aggregates.size() < maxStatements ? sql : OTHER, k -> new Aggregate());
+    }
+
+    private static String normalize(String sql) {
+        return IN_LIST.matcher(sql.trim()).replaceAll("(?, ...)");
+    }
+
+    // Typen der gebundenen Parameter, z.B. "Long,Timestamp,null"; bei Batches die des ersten Eintrags mit Anzahl
+    private static String parameterShape(QueryInfo query) {
+        List<List<ParameterSetOperation>> parameters = query.getParametersList();
+        if (parameters.isEmpty()) {
+            return "";
+        }
+        String shape = parameters.get(0).stream().sorted(Comparator.comparingInt(SqlTracer::parameterIndex))
+                .map(SqlTracer::parameterType).collect(Collectors.joining(","));
+        return parameters.size() > 1 ? shape + " x" + parameters.size() : shape;
+    }
+
+    private static int parameterIndex(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        return args.length > 0 && args[0] instanceof Integer index ? index : 0;
+    }
+
+    private static String parameterType(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 || args[1] == null) {
+            return "null";
+        }
+        return args[1].getClass().getSimpleName();
+    }
+
+    // "GET /api/workouts/{id}" für Requests, "background" für Hintergrund-Threads (Import, Export-Streams)
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return "background";
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (request.getMethod() == null || request.getMethod().isEmpty()) {
+            return "background";
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "UNKNOWN");
+    }
+}
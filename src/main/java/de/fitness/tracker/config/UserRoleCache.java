@@ -0,0 +1,68 @@
+package de.fitness.tracker.config;
+
+import de.fitness.tracker.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aktuelle Rolle pro User für den JWT-Filter. Der role-Claim im Token wird
+ * nicht vertraut: Rollenwechsel und gelöschte User greifen spätestens nach
+ * ttl-seconds, auf diesem Knoten sofort über {@link #evict(Long)}. Gelöschte
+ * User werden ebenfalls gecacht, damit ihre Tokens nicht bei jedem Request
+ * die Datenbank treffen.
+ */
+@Component
+public class UserRoleCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.auth.role-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    // role ist null, wenn der User nicht (mehr) existiert
+    private record Entry(String role, long expiresAtMillis) {
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    // Leer, wenn der User nicht existiert
+    public Optional<String> role(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.expiresAtMillis() <= now) {
+            entry = new Entry(userRepository.findRoleById(userId).orElse(null), now + ttlSeconds * 1000);
+            if (entries.size() >= MAX_ENTRIES) {
+                evictExpired(now);
+            }
+            entries.put(userId, entry);
+        }
+        return Optional.ofNullable(entry.role());
+    }
+
+    // Nach Rollenwechsel oder Löschen: nächster Request liest neu
+    public void evict(Long userId) {
+        entries.remove(userId);
+    }
+
+    // Erst abgelaufene Einträge entfernen; reicht das nicht, beliebige (sie werden beim nächsten Request neu gelesen)
+    private void evictExpired(long now) {
+        entries.values().removeIf(e -> e.expiresAtMillis() <= now);
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() > MAX_ENTRIES * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package de.fitness.tracker.controller;
 
+import de.fitness.tracker.config.SqlTracer;
+import de.fitness.tracker.config.UserRoleCache;
 import de.fitness.tracker.model.User;
 import de.fitness.tracker.repository.UserRepository;
+import de.fitness.tracker.service.DerivedDataRebuildJob;
+import de.fitness.tracker.service.PasswordHashingService;
+import de.fitness.tracker.service.PersonalRecordService;
+import de.fitness.tracker.service.VolumeRollupService;
+import de.fitness.tracker.service.WorkoutArchiveJob;
+import de.fitness.tracker.service.WorkoutArchiveService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+// Admin-Rolle prüft die SecurityConfig (hasRole ADMIN), ein adminId im Request wird ignoriert
 @RestController
 @RequestMapping("/api/admin")
 public class AdminController {
@@ -19,18 +33,36 @@ public class AdminController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private SqlTracer sqlTracer;
+
+    @Autowired
+    private VolumeRollupService volumeRollupService;
+
+    @Autowired
+    private WorkoutArchiveJob workoutArchiveJob;
+
+    @Autowired
+    private WorkoutArchiveService workoutArchiveService;
+
+    @Autowired
+    private DerivedDataRebuildJob rebuildJob;
+
+    @Autowired
+    private UserRoleCache roleCache;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor taskExecutor;
 
     // Alle User auflisten (nur für ADMIN)
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers(@RequestParam
-    Long adminId) {
-        // Prüfen ob Admin
-        Optional<User> admin = userRepository.findById(adminId);
-        if (admin.isEmpty() || !"ADMIN".equals(admin.get().getRole())) {
-            return ResponseEntity.status(403).body("Not authorized");
-        }
-
+    public ResponseEntity<?> getAllUsers() {
         List<User> users = userRepository.findAll();
         // Passwörter nicht mitsenden
         users.forEach(u -> u.setPassword(null));
@@ -42,15 +74,8 @@ public class AdminController {
     public ResponseEntity<?> updateUserRole(@PathVariable
     Long userId, @RequestBody
     Map<String, Object> data) {
-        Long adminId = ((Number) data.get("adminId")).longValue();
         String newRole = (String) data.get("role");
 
-        // Prüfen ob Admin
-        Optional<User> admin = userRepository.findById(adminId);
-        if (admin.isEmpty() || !"ADMIN".equals(admin.get().getRole())) {
-            return ResponseEntity.status(403).body("Not authorized");
-        }
-
         // User finden
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) {
@@ -66,35 +91,125 @@ public class AdminController {
 
         user.setRole(newRole);
         userRepository.save(user);
+        // Gilt ab dem nächsten Request, nicht erst nach Ablauf des Tokens
+        roleCache.evict(userId);
 
         user.setPassword(null); // Passwort nicht mitsenden
         return ResponseEntity.ok(user);
     }
 
-    // Passwort zurücksetzen (nur ADMIN)
+    // Passwort zurücksetzen (nur ADMIN), gehasht auf dem PasswordHashingService-Pool, gespeichert auf dem
+    // applicationTaskExecutor
     @PutMapping("/users/{userId}/reset-password")
-    public ResponseEntity<?> resetPassword(@PathVariable
+    public CompletableFuture<ResponseEntity<?>> resetPassword(@PathVariable
     Long userId, @RequestBody
     Map<String, Object> data) {
-        Long adminId = ((Number) data.get("adminId")).longValue();
         String newPassword = (String) data.get("newPassword");
 
-        // Prüfen ob Admin
-        Optional<User> admin = userRepository.findById(adminId);
-        if (admin.isEmpty() || !"ADMIN".equals(admin.get().getRole())) {
-            return ResponseEntity.status(403).body("Not authorized");
+        // User finden
+        if (!userRepository.existsById(userId)) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
-        // User finden
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.notFound().build();
+        CompletableFuture<String> hash;
+        try {
+            hash = passwordHashingService.encode(newPassword);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(AuthController.busy());
         }
 
-        User user = userOpt.get();
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        return hash.thenApplyAsync(encoded -> {
+            userRepository.updatePassword(userId, encoded);
+            return ResponseEntity.ok(Map.of("message", "Password reset successfully"));
+        }, taskExecutor);
+    }
+
+    // Auslastung des Passwort-Hash-Pools
+    @GetMapping("/password-hashing")
+    public ResponseEntity<?> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.stats());
+    }
+
+    // Teuerste SQL-Statements seit Start bzw. letztem Reset (nur ADMIN), nach Gesamtdauer sortiert
+    @GetMapping("/sql-stats")
+    public ResponseEntity<?> getSqlStats(@RequestParam(defaultValue = "50")
+    int limit) {
+        return ResponseEntity.ok(sqlTracer.stats(limit));
+    }
+
+    @DeleteMapping("/sql-stats")
+    public ResponseEntity<?> resetSqlStats() {
+        sqlTracer.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    // Bestwerte aus der Historie neu berechnen (nur ADMIN): mit userId sofort, ohne userId für alle User im
+    // Hintergrund (202, Fortschritt per GET)
+    @PostMapping("/records/rebuild")
+    public ResponseEntity<?> rebuildPersonalRecords(@RequestBody(required = false)
+    Map<String, Object> data) {
+
+        if (data != null && data.get("userId") != null) {
+            int records = personalRecordService.rebuild(((Number) data.get("userId")).longValue());
+            return ResponseEntity.ok(Map.of("users", 1, "records", records));
+        }
+
+        return startRebuild(DerivedDataRebuildJob.Target.RECORDS);
+    }
+
+    @GetMapping("/records/rebuild")
+    public ResponseEntity<?> getPersonalRecordsRebuild() {
+        return rebuildJob.status(DerivedDataRebuildJob.Target.RECORDS).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Volumen-Rollups aus der Historie neu berechnen (nur ADMIN): mit userId sofort, ohne userId für alle User im
+    // Hintergrund (202, Fortschritt per GET)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<?> rebuildVolumeRollups(@RequestBody(required = false)
+    Map<String, Object> data) {
+
+        if (data != null && data.get("userId") != null) {
+            int rows = volumeRollupService.rebuild(((Number) data.get("userId")).longValue());
+            return ResponseEntity.ok(Map.of("users", 1, "rows", rows));
+        }
+
+        return startRebuild(DerivedDataRebuildJob.Target.ROLLUPS);
+    }
+
+    @GetMapping("/rollups/rebuild")
+    public ResponseEntity<?> getVolumeRollupsRebuild() {
+        return rebuildJob.status(DerivedDataRebuildJob.Target.ROLLUPS).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Alte Workouts sofort archivieren (nur ADMIN), minAgeDays optional. Mit userId synchron, ohne für alle User
+    // im Hintergrund (202, Fortschritt per GET)
+    @PostMapping("/archive/run")
+    public ResponseEntity<?> runWorkoutArchive(@RequestBody(required = false)
+    Map<String, Object> data) {
+
+        Integer minAgeDays = data != null && data.get("minAgeDays") != null ? ((Number) data.get("minAgeDays")).intValue()
+                : null;
+
+        if (data != null && data.get("userId") != null) {
+            int workouts = workoutArchiveService.archiveUser(((Number) data.get("userId")).longValue(),
+                    workoutArchiveService.cutoff(minAgeDays));
+            return ResponseEntity.ok(Map.of("users", 1, "workouts", workouts));
+        }
+
+        return workoutArchiveJob.start(minAgeDays)
+                .<ResponseEntity<?>> map(status -> ResponseEntity.accepted().body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body("Archive run already running"));
+    }
+
+    @GetMapping("/archive/run")
+    public ResponseEntity<?> getWorkoutArchiveRun() {
+        return workoutArchiveJob.status().map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
 
-        return ResponseEntity.ok(Map.of("message", "Password reset successfully"));
+    private ResponseEntity<?> startRebuild(DerivedDataRebuildJob.Target target) {
+        return rebuildJob.start(target).<ResponseEntity<?>> map(status -> ResponseEntity.accepted().body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body("Rebuild already running"));
     }
-}
\ No newline at end of file
+}
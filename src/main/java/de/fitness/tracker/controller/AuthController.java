@@ -1,18 +1,25 @@
 package de.fitness.tracker.controller;
 
+import de.fitness.tracker.config.UserRoleCache;
 import de.fitness.tracker.dto.AuthResponse;
 import de.fitness.tracker.dto.LoginRequest;
 import de.fitness.tracker.dto.RegisterRequest;
 import de.fitness.tracker.model.User;
 import de.fitness.tracker.repository.UserRepository;
+import de.fitness.tracker.service.PasswordHashingService;
 import de.fitness.tracker.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -22,62 +29,94 @@ public class AuthController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UserRoleCache roleCache;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private Executor taskExecutor;
+
+    // Hashen läuft auf dem PasswordHashingService-Pool, der Tomcat-Thread ist währenddessen frei; JDBC danach auf
+    // dem applicationTaskExecutor, damit der kleine Hash-Pool nicht auf Datenbank-Verbindungen wartet
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody
     RegisterRequest request) {
         // Validierung
         if (userRepository.existsByUsername(request.getUsername())) {
-            return ResponseEntity.badRequest().body("Username already exists");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Username already exists"));
         }
 
-        // User erstellen
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setHeight(request.getHeight());
-
-        // Erster User = ADMIN
-        long userCount = userRepository.count();
-        if (userCount == 0) {
-            user.setRole("ADMIN");
-        } else {
-            user.setRole("USER");
+        CompletableFuture<String> hash;
+        try {
+            hash = passwordHashingService.encode(request.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
         }
 
-        User savedUser = userRepository.save(user);
+        return hash.thenApplyAsync(encoded -> {
+            // User erstellen
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setPassword(encoded);
+            user.setHeight(request.getHeight());
+
+            // Erster User = ADMIN
+            long userCount = userRepository.count();
+            if (userCount == 0) {
+                user.setRole("ADMIN");
+            } else {
+                user.setRole("USER");
+            }
+
+            User savedUser = userRepository.save(user);
 
-        // Token generieren
-        String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId());
+            // Token generieren
+            String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId(), savedUser.getRole());
 
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new AuthResponse(token, savedUser.getId(), savedUser.getUsername(), savedUser.getRole()));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new AuthResponse(token, savedUser.getId(), savedUser.getUsername(), savedUser.getRole()));
+        }, taskExecutor);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody
     LoginRequest request) {
         Optional<User> userOpt = userRepository.findByUsername(request.getUsername());
 
         if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+            return CompletableFuture
+                    .completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials"));
         }
 
         User user = userOpt.get();
 
-        // Passwort prüfen
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+        // Passwort prüfen (und bei veraltetem Work-Factor neu hashen)
+        CompletableFuture<PasswordHashingService.Verification> verification;
+        try {
+            verification = passwordHashingService.verify(request.getPassword(), user.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busy());
         }
 
-        // Token generieren
-        String token = jwtUtil.generateToken(user.getUsername(), user.getId());
+        // Rehash schreibt in die Datenbank: nicht mehr auf dem Hash-Pool
+        return verification.thenApplyAsync(result -> {
+            if (!result.matches()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+            }
+            if (result.rehashed() != null) {
+                userRepository.updatePassword(user.getId(), result.rehashed());
+            }
+
+            // Token generieren
+            String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole());
 
-        return ResponseEntity.ok(new AuthResponse(token, user.getId(), user.getUsername(), user.getRole()));
+            return ResponseEntity.ok(new AuthResponse(token, user.getId(), user.getUsername(), user.getRole()));
+        }, taskExecutor);
     }
 
     @GetMapping("/validate")
@@ -89,20 +128,24 @@ public class AuthController {
 
         String token = authHeader.substring(7);
 
-        if (jwtUtil.isTokenValid(token)) {
-            Long userId = jwtUtil.extractUserId(token);
-            String username = jwtUtil.extractUsername(token);
-
-            // User laden um role zu holen
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
-            }
+        // Einmal geparst bzw. aus dem Cache; Rolle wie im JWT-Filter aktuell aus dem UserRoleCache
+        Optional<JwtUtil.VerifiedToken> verified = jwtUtil.verify(token);
+        if (verified.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        }
 
-            String role = userOpt.get().getRole();
-            return ResponseEntity.ok(new AuthResponse(token, userId, username, role));
+        JwtUtil.VerifiedToken claims = verified.get();
+        Optional<String> role = roleCache.role(claims.userId());
+        if (role.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
         }
 
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
+        return ResponseEntity.ok(new AuthResponse(token, claims.userId(), claims.username(), role.get()));
+    }
+
+    // Hash-Pool ausgelastet: sofort ablehnen statt Threads zu blockieren
+    static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many login attempts, please retry");
     }
 }
\ No newline at end of file
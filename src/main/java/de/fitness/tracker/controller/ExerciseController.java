@@ -1,50 +1,51 @@
 package de.fitness.tracker.controller;
 
-import de.fitness.tracker.model.User;
-import de.fitness.tracker.repository.UserRepository;
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.dto.ExerciseView;
 import de.fitness.tracker.model.Exercise;
 import de.fitness.tracker.model.ExerciseType;
 import de.fitness.tracker.model.EquipmentType;
 import de.fitness.tracker.model.MuscleGroup;
 import de.fitness.tracker.repository.ExerciseRepository;
+import de.fitness.tracker.service.ExerciseCatalog;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/exercises")
 public class ExerciseController {
 
     @Autowired
-    private UserRepository userRepository;
+    private ExerciseRepository exerciseRepository;
 
     @Autowired
-    private ExerciseRepository exerciseRepository;
+    private ExerciseCatalog exerciseCatalog;
 
+    // Aus dem Snapshot; mit passendem If-None-Match nur 304 ohne Body
     @GetMapping
-    public ResponseEntity<List<Exercise>> getAllExercises() {
-        List<Exercise> exercises = exerciseRepository.findAll();
-        return ResponseEntity.ok(exercises);
+    public ResponseEntity<List<ExerciseView>> getAllExercises(WebRequest request) {
+        ExerciseCatalog.Snapshot catalog = exerciseCatalog.current();
+        if (request.checkNotModified(catalog.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(catalog.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(catalog.etag()).cacheControl(CacheControl.noCache())
+                .body(catalog.exercises());
     }
 
     @PostMapping
-    public ResponseEntity<?> createExercise(@RequestBody
+    public ResponseEntity<?> createExercise(@AuthenticationPrincipal
+    AuthenticatedUser principal, @RequestBody
     Map<String, Object> data) {
-        // Rolle prüfen
-        Long userId = ((Number) data.get("userId")).longValue();
-        Optional<User> userOpt = userRepository.findById(userId);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
-        }
-
-        User user = userOpt.get();
-        if (!"TRUSTED_USER".equals(user.getRole()) && !"ADMIN".equals(user.getRole())) {
+        // Rolle aus dem Token prüfen
+        if (!principal.isTrusted()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized to create exercises");
         }
 
@@ -96,12 +97,13 @@ public class ExerciseController {
         }
 
         Exercise saved = exerciseRepository.save(exercise);
+        exerciseCatalog.refresh();
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Exercise> getExercise(@PathVariable
+    public ResponseEntity<ExerciseView> getExercise(@PathVariable
     Long id) {
-        return exerciseRepository.findById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        return exerciseCatalog.find(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package de.fitness.tracker.controller;
+
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    @Autowired
+    private ExportService exportService;
+
+    // Komplette Trainingshistorie, wird beim Lesen aus der Datenbank direkt gestreamt
+    @GetMapping("/user/{userId}/workouts")
+    public ResponseEntity<StreamingResponseBody> exportWorkouts(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @RequestParam(defaultValue = "CSV")
+    ExportService.Format format) {
+        if (!principal.canRead(userId)) {
+            return forbidden();
+        }
+        StreamingResponseBody body = out -> exportService.exportWorkouts(userId, format, out);
+        return download("workouts", format, body);
+    }
+
+    // Alle Körpermessungen
+    @GetMapping("/user/{userId}/weights")
+    public ResponseEntity<StreamingResponseBody> exportWeights(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @RequestParam(defaultValue = "CSV")
+    ExportService.Format format) {
+        if (!principal.canRead(userId)) {
+            return forbidden();
+        }
+        StreamingResponseBody body = out -> exportService.exportWeights(userId, format, out);
+        return download("weights", format, body);
+    }
+
+    // Ohne Text-Body: der Rückgabetyp muss StreamingResponseBody bleiben, sonst wird nicht gestreamt
+    private static ResponseEntity<StreamingResponseBody> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, ExportService.Format format,
+            StreamingResponseBody body) {
+        boolean csv = format == ExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (csv ? ".csv" : ".json") + "\"")
+                .body(body);
+    }
+}
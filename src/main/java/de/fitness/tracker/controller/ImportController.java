@@ -0,0 +1,74 @@
+package de.fitness.tracker.controller;
+
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.model.ImportJob;
+import de.fitness.tracker.repository.UserRepository;
+import de.fitness.tracker.service.WorkoutImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    // Ein RUNNING-Job ohne Fortschritt seit dieser Zeit gilt als abgebrochen und darf fortgesetzt werden
+    private static final long STALE_MINUTES = 5;
+
+    @Autowired
+    private WorkoutImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Historie importieren (Body: CSV oder JSON im Exportformat). Gleicher importKey = Import fortsetzen
+    @PostMapping("/user/{userId}/workouts")
+    public ResponseEntity<?> importWorkouts(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @RequestParam
+    String importKey, @RequestParam(defaultValue = "CSV")
+    WorkoutImportService.Format format, InputStream body) {
+
+        if (importKey.isBlank() || importKey.length() > 60) {
+            return ResponseEntity.badRequest().body("importKey must be 1-60 characters");
+        }
+
+        if (!principal.userId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
+        Optional<ImportJob> existing = importService.find(userId, importKey);
+        if (existing.isPresent() && existing.get().getStatus() == ImportJob.Status.RUNNING
+                && existing.get().getUpdatedAt().isAfter(LocalDateTime.now().minusMinutes(STALE_MINUTES))) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Import already running");
+        }
+
+        ImportJob job = importService.run(userRepository.getReferenceById(userId), importKey, format, body);
+        if (job.getStatus() == ImportJob.Status.FAILED) {
+            return ResponseEntity.badRequest().body(job);
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    // Fortschritt abfragen (wird nach jedem Batch aktualisiert)
+    @GetMapping("/user/{userId}/jobs/{importKey}")
+    public ResponseEntity<?> getImportJob(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @PathVariable
+    String importKey) {
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+        Optional<ImportJob> job = importService.find(userId, importKey);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job.get());
+    }
+}
@@ -0,0 +1,47 @@
+package de.fitness.tracker.controller;
+
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.model.PersonalRecord;
+import de.fitness.tracker.repository.PersonalRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/records")
+public class PersonalRecordController {
+
+    @Autowired
+    private PersonalRecordRepository recordRepository;
+
+    // Alle Bestwerte eines Users (eine Zeile pro Übung)
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserRecords(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId) {
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+        return ResponseEntity.ok(recordRepository.findByUserId(userId));
+    }
+
+    // Bestwerte für eine Übung (für PR-Badges beim Training)
+    @GetMapping("/user/{userId}/exercises/{exerciseId}")
+    public ResponseEntity<?> getExerciseRecord(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @PathVariable
+    Long exerciseId) {
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+        Optional<PersonalRecord> record = recordRepository.findByUserIdAndExerciseId(userId, exerciseId);
+        if (record.isEmpty()) {
+            return ResponseEntity.ok().body(null);
+        }
+        return ResponseEntity.ok(record.get());
+    }
+}
@@ -0,0 +1,47 @@
+package de.fitness.tracker.controller;
+
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.service.ProgressService;
+import de.fitness.tracker.util.TimeBounds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/progress")
+public class ProgressController {
+
+    private static final int MAX_POINTS = 1000;
+
+    @Autowired
+    private ProgressService progressService;
+
+    // Zeitreihe 1RM / Top-Satz / Volumen einer Übung, gebündelt und auf "points" reduziert
+    @GetMapping("/user/{userId}/exercises/{exerciseId}")
+    public ResponseEntity<?> getExerciseProgress(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @PathVariable
+    Long exerciseId, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime from, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime to, @RequestParam(defaultValue = "DAY")
+    ProgressService.Bucket bucket, @RequestParam(defaultValue = "ONE_REP_MAX")
+    ProgressService.Metric metric, @RequestParam(defaultValue = "200")
+    int points) {
+
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
+        if (points < 3 || points > MAX_POINTS) {
+            return ResponseEntity.badRequest().body("points must be between 3 and " + MAX_POINTS);
+        }
+
+        return ResponseEntity.ok(progressService.exerciseProgress(userId, exerciseId, TimeBounds.from(from),
+                TimeBounds.to(to), bucket, metric, points));
+    }
+}
@@ -1,16 +1,20 @@
 package de.fitness.tracker.controller;
 
-import de.fitness.tracker.model.User;
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.dto.UserPreferencesView;
 import de.fitness.tracker.model.UserPreferences;
 import de.fitness.tracker.repository.UserPreferencesRepository;
 import de.fitness.tracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.Optional;
 
+// Nur die eigenen Einstellungen: userId im Pfad muss zum Token passen
 @RestController
 @RequestMapping("/api/preferences")
 public class UserPreferencesController {
@@ -22,46 +26,41 @@ public class UserPreferencesController {
     private UserRepository userRepository;
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getUserPreferences(@PathVariable
+    public ResponseEntity<?> getUserPreferences(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long userId) {
+        if (!principal.userId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
         Optional<UserPreferences> prefs = preferencesRepository.findByUserId(userId);
 
         if (prefs.isEmpty()) {
-            // Wenn keine Preferences existieren, Default-Werte erstellen
-            Optional<User> user = userRepository.findById(userId);
-            if (user.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            UserPreferences newPrefs = new UserPreferences();
-            newPrefs.setUser(user.get());
-            newPrefs.setDefaultRestTime(60);
-            newPrefs.setWeightUnit("kg");
-
-            UserPreferences saved = preferencesRepository.save(newPrefs);
-            return ResponseEntity.ok(saved);
+            // Wenn keine Preferences existieren, Default-Werte liefern (angelegt wird erst beim PUT)
+            UserPreferences defaults = new UserPreferences();
+            defaults.setUser(userRepository.getReferenceById(userId));
+            return ResponseEntity.ok(UserPreferencesView.from(defaults));
         }
 
-        return ResponseEntity.ok(prefs.get());
+        return ResponseEntity.ok(UserPreferencesView.from(prefs.get()));
     }
 
     @PutMapping("/user/{userId}")
-    public ResponseEntity<?> updateUserPreferences(@PathVariable
+    public ResponseEntity<?> updateUserPreferences(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long userId, @RequestBody
     Map<String, Object> updates) {
+        if (!principal.userId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
 
         Optional<UserPreferences> prefsOpt = preferencesRepository.findByUserId(userId);
         UserPreferences prefs;
 
         if (prefsOpt.isEmpty()) {
-            // Erstellen falls nicht vorhanden
-            Optional<User> user = userRepository.findById(userId);
-            if (user.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
+            // Erstellen falls nicht vorhanden; User aus dem Token, Referenz ohne SELECT
             prefs = new UserPreferences();
-            prefs.setUser(user.get());
+            prefs.setUser(userRepository.getReferenceById(userId));
         } else {
             prefs = prefsOpt.get();
         }
@@ -78,6 +77,6 @@ public class UserPreferencesController {
         }
 
         UserPreferences saved = preferencesRepository.save(prefs);
-        return ResponseEntity.ok(saved);
+        return ResponseEntity.ok(UserPreferencesView.from(saved));
     }
-}
\ No newline at end of file
+}
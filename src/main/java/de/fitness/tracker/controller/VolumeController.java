@@ -0,0 +1,41 @@
+package de.fitness.tracker.controller;
+
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.model.RollupPeriod;
+import de.fitness.tracker.service.VolumeRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/volume")
+public class VolumeController {
+
+    @Autowired
+    private VolumeRollupService volumeRollupService;
+
+    // Vorberechnetes Volumen pro Muskelgruppe und Woche/Monat (Standard: letzte 12 Wochen bzw. Monate)
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getVolume(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @RequestParam(defaultValue = "WEEK")
+    RollupPeriod period, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate from, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate to) {
+
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from
+                : period == RollupPeriod.WEEK ? end.minusWeeks(11) : end.minusMonths(11);
+
+        return ResponseEntity.ok(volumeRollupService.find(userId, period, start, end));
+    }
+}
@@ -1,12 +1,22 @@
 package de.fitness.tracker.controller;
 
+import de.fitness.tracker.config.AuthenticatedUser;
 import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.UserCollection;
 import de.fitness.tracker.model.WeightMeasurement;
 import de.fitness.tracker.repository.UserRepository;
 import de.fitness.tracker.repository.WeightMeasurementRepository;
+import de.fitness.tracker.service.CollectionVersionService;
+import de.fitness.tracker.service.WeightStatisticsService;
+import de.fitness.tracker.util.BodyMetrics;
+import de.fitness.tracker.util.TimeBounds;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,16 +27,30 @@ import java.time.LocalDateTime;
 @RequestMapping("/api/weight")
 public class WeightMeasurementController {
 
+    private static final int MAX_POINTS = 1000;
+
     @Autowired
     private WeightMeasurementRepository weightRepository;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private WeightStatisticsService weightStatisticsService;
+
+    @Autowired
+    private CollectionVersionService versionService;
+
     @PostMapping
-    public ResponseEntity<?> createMeasurement(@RequestBody
+    public ResponseEntity<?> createMeasurement(@AuthenticationPrincipal
+    AuthenticatedUser principal, @RequestBody
     Map<String, Object> data) {
-        Long userId = ((Number) data.get("userId")).longValue();
+        Long userId = principal.userId();
+        if (data.get("userId") != null && ((Number) data.get("userId")).longValue() != userId) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
+        // Laden bleibt nötig: die Körpergröße wird für den BMI gebraucht
         Optional<User> user = userRepository.findById(userId);
         if (user.isEmpty()) {
             return ResponseEntity.badRequest().body("User not found");
@@ -59,20 +83,44 @@ public class WeightMeasurementController {
             measurement.setVisceralFat(((Number) data.get("visceralFat")).intValue());
 
         // BMI berechnen
-        if (measurement.getWeight() != null && user.get().getHeight() != null) {
-            double heightInMeters = user.get().getHeight() / 100.0;
-            double bmi = measurement.getWeight() / (heightInMeters * heightInMeters);
-            measurement.setBmi(Math.round(bmi * 10.0) / 10.0);
-        }
+        measurement.setBmi(BodyMetrics.bmi(measurement.getWeight(), user.get().getHeight()));
 
         WeightMeasurement saved = weightRepository.save(measurement);
+        versionService.bump(userId, UserCollection.WEIGHTS);
         return ResponseEntity.ok(saved);
     }
 
+    // 304, solange keine neue Messung dazugekommen ist
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<WeightMeasurement>> getUserMeasurements(@PathVariable
-    Long userId) {
-        List<WeightMeasurement> measurements = weightRepository.findByUserIdOrderByDateDesc(userId);
-        return ResponseEntity.ok(measurements);
+    public ResponseEntity<?> getUserMeasurements(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, WebRequest request) {
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+        return versionService.conditional(request, userId, UserCollection.WEIGHTS,
+                () -> weightRepository.findByUserIdOrderByDateDesc(userId));
+    }
+
+    // Zeitreihen mit 7/30-Tage-Durchschnitt und Min/Max/Delta, z.B. ?metrics=WEIGHT,BMI
+    @GetMapping("/user/{userId}/statistics")
+    public ResponseEntity<?> getStatistics(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime from, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime to, @RequestParam(defaultValue = "WEIGHT")
+    List<WeightStatisticsService.Metric> metrics, @RequestParam(defaultValue = "200")
+    int points) {
+
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
+        if (points < 3 || points > MAX_POINTS) {
+            return ResponseEntity.badRequest().body("points must be between 3 and " + MAX_POINTS);
+        }
+
+        return ResponseEntity.ok(weightStatisticsService.statistics(userId, TimeBounds.from(from),
+                TimeBounds.to(to), metrics.stream().distinct().toList(), points));
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,33 @@
 package de.fitness.tracker.controller;
 
+import de.fitness.tracker.config.AuthenticatedUser;
+import de.fitness.tracker.dto.ExerciseSetView;
+import de.fitness.tracker.dto.SyncItemResult;
+import de.fitness.tracker.dto.WorkoutExerciseView;
 import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.dto.WorkoutView;
 import de.fitness.tracker.model.*;
 import de.fitness.tracker.repository.*;
+import de.fitness.tracker.service.CollectionVersionService;
+import de.fitness.tracker.service.LastPerformanceService;
+import de.fitness.tracker.service.WorkoutReadService;
+import de.fitness.tracker.service.WorkoutSaveService;
+import de.fitness.tracker.service.WorkoutSyncService;
+import de.fitness.tracker.util.KeysetCursor;
+import de.fitness.tracker.util.TimeBounds;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -16,6 +36,8 @@ import java.util.Map;
 @RequestMapping("/api/workouts")
 public class WorkoutController {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private WorkoutRepository workoutRepository;
 
@@ -31,11 +53,32 @@ public class WorkoutController {
     @Autowired
     private ExerciseRepository exerciseRepository;
 
+    @Autowired
+    private LastPerformanceService lastPerformanceService;
+
+    @Autowired
+    private WorkoutSaveService workoutSaveService;
+
+    @Autowired
+    private WorkoutSyncService workoutSyncService;
+
+    @Autowired
+    private WorkoutReadService workoutReadService;
+
+    @Autowired
+    private CollectionVersionService versionService;
+
     // Neues Workout starten
     @PostMapping
-    public ResponseEntity<?> createWorkout(@RequestBody
+    public ResponseEntity<?> createWorkout(@AuthenticationPrincipal
+    AuthenticatedUser principal, @RequestBody
     Workout workout) {
-        Optional<User> user = userRepository.findById(workout.getUser().getId());
+        if (workout.getUser() != null && !principal.userId().equals(workout.getUser().getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
+        // Vollständiger User, weil er in der Antwort mit serialisiert wird
+        Optional<User> user = userRepository.findById(principal.userId());
         if (user.isEmpty()) {
             return ResponseEntity.badRequest().body("User not found");
         }
@@ -43,27 +86,79 @@ public class WorkoutController {
         workout.setUser(user.get());
 
         Workout saved = workoutRepository.save(workout);
+        versionService.bump(user.get().getId(), UserCollection.WORKOUTS);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
-    // Alle Workouts eines Users
+    // Alle Workouts eines Users (304, solange sich nichts geändert hat)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Workout>> getUserWorkouts(@PathVariable
-    Long userId) {
-        List<Workout> workouts = workoutRepository.findByUserIdOrderByDateDesc(userId);
-        return ResponseEntity.ok(workouts);
+    public ResponseEntity<?> getUserWorkouts(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, WebRequest request) {
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+        return versionService.conditional(request, userId, UserCollection.WORKOUTS,
+                () -> workoutReadService.findByUser(userId));
+    }
+
+    // Trainings-Historie seitenweise (Keyset über startTime + id, neueste zuerst)
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<?> getUserWorkoutHistory(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
+    Long userId, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime from, @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime to, @RequestParam(required = false)
+    String cursor, @RequestParam(defaultValue = "20")
+    int limit, WebRequest request) {
+
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
+
+        if (limit < 1 || limit > MAX_HISTORY_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
+        }
+
+        // Erste Seite startet bei "to" (inklusive), Folgeseiten direkt hinter dem Cursor
+        LocalDateTime beforeTime = TimeBounds.to(to);
+        Long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                KeysetCursor position = KeysetCursor.decode(cursor);
+                beforeTime = position.time();
+                beforeId = position.id();
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+        }
+
+        LocalDateTime lowerBound = TimeBounds.from(from);
+        LocalDateTime upperBound = beforeTime;
+        Long upperId = beforeId;
+        return versionService.conditional(request, userId, UserCollection.WORKOUTS,
+                () -> workoutReadService.findHistoryPage(userId, lowerBound, upperBound, upperId, limit));
     }
 
     // Einzelnes Workout mit Details
     @GetMapping("/{id}")
-    public ResponseEntity<Workout> getWorkout(@PathVariable
+    public ResponseEntity<?> getWorkout(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long id) {
-        return workoutRepository.findById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+        Optional<WorkoutView> workout = workoutReadService.findById(id);
+        if (workout.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!principal.canRead(workout.get().getUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Workout belongs to another user");
+        }
+        return ResponseEntity.ok(workout.get());
     }
 
     // Übung zu Workout hinzufügen
     @PostMapping("/{workoutId}/exercises")
-    public ResponseEntity<?> addExerciseToWorkout(@PathVariable
+    public ResponseEntity<?> addExerciseToWorkout(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long workoutId, @RequestBody
     WorkoutExercise workoutExercise) {
 
@@ -71,6 +166,9 @@ public class WorkoutController {
         if (workout.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        if (!principal.userId().equals(workout.get().getUser().getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Workout belongs to another user");
+        }
 
         Optional<Exercise> exercise = exerciseRepository.findById(workoutExercise.getExercise().getId());
         if (exercise.isEmpty()) {
@@ -81,12 +179,15 @@ public class WorkoutController {
         workoutExercise.setExercise(exercise.get());
 
         WorkoutExercise saved = workoutExerciseRepository.save(workoutExercise);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        versionService.bump(workout.get().getUser().getId(), UserCollection.WORKOUTS);
+        return ResponseEntity.status(HttpStatus.CREATED).body(WorkoutExerciseView.from(saved));
     }
 
     // Satz zu WorkoutExercise hinzufügen
     @PostMapping("/exercises/{workoutExerciseId}/sets")
-    public ResponseEntity<?> addSetToExercise(@PathVariable
+    @Transactional
+    public ResponseEntity<?> addSetToExercise(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long workoutExerciseId, @RequestBody
     ExerciseSet exerciseSet) {
 
@@ -95,85 +196,73 @@ public class WorkoutController {
             return ResponseEntity.notFound().build();
         }
 
-        exerciseSet.setWorkoutExercise(workoutExercise.get());
+        WorkoutExercise we = workoutExercise.get();
+        if (!principal.userId().equals(we.getWorkout().getUser().getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Workout belongs to another user");
+        }
+        exerciseSet.setWorkoutExercise(we);
         ExerciseSet saved = exerciseSetRepository.save(exerciseSet);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        // Auch in die Sammlung aufnehmen, sonst sehen "Letztes Mal" und Bestwerte den neuen Satz nicht
+        we.getSets().add(saved);
+
+        // "Letztes Mal"-Projektion, Bestwerte und Volumen aktualisieren
+        workoutSaveService.recordAddedSet(we.getWorkout().getUser().getId(), we.getWorkout().getStartTime(), we,
+                saved);
+        versionService.bump(we.getWorkout().getUser().getId(), UserCollection.WORKOUTS);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ExerciseSetView.from(saved));
     }
 
     // Letzte Werte für eine Übung abrufen (für "Letztes Mal"-Anzeige)
     @GetMapping("/exercises/{exerciseId}/last")
-    public ResponseEntity<?> getLastExercisePerformance(@PathVariable
+    public ResponseEntity<?> getLastExercisePerformance(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long exerciseId, @RequestParam
     Long userId) {
 
-        // Alle WorkoutExercises für diese Übung holen
-        List<WorkoutExercise> allPerformances = workoutExerciseRepository
-                .findByExerciseIdOrderByWorkoutDateDesc(exerciseId);
-
-        // Nur die vom aktuellen User filtern
-        List<WorkoutExercise> userPerformances = allPerformances.stream()
-                .filter(we -> we.getWorkout().getUser().getId().equals(userId)).toList();
+        if (!principal.canRead(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
+        }
 
-        if (userPerformances.isEmpty()) {
+        // Über die Projektion pro (User, Übung) – eine Zeile statt der ganzen Historie
+        Optional<WorkoutExerciseView> lastPerformance = lastPerformanceService.findLast(userId, exerciseId);
+        if (lastPerformance.isEmpty()) {
             return ResponseEntity.ok().body(null);
         }
 
-        // Nimm die letzte Ausführung dieses Users
-        WorkoutExercise lastPerformance = userPerformances.get(0);
-        return ResponseEntity.ok(lastPerformance);
+        return ResponseEntity.ok(lastPerformance.get());
     }
 
     @PostMapping("/save-complete")
-    public ResponseEntity<?> saveCompleteWorkout(@RequestBody
+    public ResponseEntity<?> saveCompleteWorkout(@AuthenticationPrincipal
+    AuthenticatedUser principal, @RequestBody
     WorkoutSaveRequest request) {
 
-        Optional<User> user = userRepository.findById(request.getUserId());
-        if (user.isEmpty()) {
-            return ResponseEntity.badRequest().body("User not found");
+        if (request.getUserId() != null && !principal.userId().equals(request.getUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
         }
 
-        // Workout erstellen
-        Workout workout = new Workout();
-        workout.setUser(user.get());
-        workout.setName(request.getName());
-        workout.setStartTime(request.getStartTime());
-        workout.setEndTime(request.getEndTime());
-
-        Workout savedWorkout = workoutRepository.save(workout);
-
-        // Übungen + Sätze speichern
-        for (WorkoutSaveRequest.ExerciseData exerciseData : request.getExercises()) {
-            Optional<Exercise> exercise = exerciseRepository.findById(exerciseData.getExerciseId());
-            if (exercise.isEmpty())
-                continue;
+        // User aus dem Token: Referenz ohne SELECT, es wird nur die ID als Fremdschlüssel gebraucht
+        User user = userRepository.getReferenceById(principal.userId());
 
-            WorkoutExercise workoutExercise = new WorkoutExercise();
-            workoutExercise.setWorkout(savedWorkout);
-            workoutExercise.setExercise(exercise.get());
-            workoutExercise.setOrderIndex(exerciseData.getOrderIndex());
-            workoutExercise.setComment(exerciseData.getComment());
+        // Workout inkl. Übungen und Sätze in einer Transaktion speichern
+        Workout savedWorkout = workoutSaveService.saveComplete(user, request);
 
-            WorkoutExercise savedWE = workoutExerciseRepository.save(workoutExercise);
-
-            // Sätze speichern
-            for (WorkoutSaveRequest.SetData setData : exerciseData.getSets()) {
-                ExerciseSet set = new ExerciseSet();
-                set.setWorkoutExercise(savedWE);
-                set.setSetNumber(setData.getSetNumber());
-
-                // STRENGTH Felder
-                set.setWeight(setData.getWeight());
-                set.setReps(setData.getReps());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(Map.of("id", savedWorkout.getId(), "message", "Workout saved successfully"));
+    }
 
-                // CARDIO Felder
-                set.setDurationSeconds(setData.getDurationSeconds());
-                set.setDistanceKm(setData.getDistanceKm());
+    // Offline-Sync: viele Workouts als NDJSON (eine Zeile pro WorkoutSaveRequest)
+    @PostMapping(value = "/sync", consumes = { MediaType.APPLICATION_NDJSON_VALUE, "application/x-ndjson" })
+    public ResponseEntity<?> syncWorkouts(@AuthenticationPrincipal
+    AuthenticatedUser principal, @RequestParam(required = false)
+    Long userId, InputStream body) throws IOException {
 
-                exerciseSetRepository.save(set);
-            }
+        if (userId != null && !principal.userId().equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
         }
 
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(Map.of("id", savedWorkout.getId(), "message", "Workout saved successfully"));
+        List<SyncItemResult> results = workoutSyncService.sync(userRepository.getReferenceById(principal.userId()),
+                body);
+        return ResponseEntity.ok(Map.of("results", results));
     }
 }
\ No newline at end of file
@@ -1,12 +1,19 @@
 package de.fitness.tracker.controller;
 
+import de.fitness.tracker.config.AuthenticatedUser;
 import de.fitness.tracker.dto.TemplateSaveRequest;
+import de.fitness.tracker.dto.TemplateView;
 import de.fitness.tracker.model.*;
 import de.fitness.tracker.repository.*;
+import de.fitness.tracker.service.CollectionVersionService;
+import de.fitness.tracker.service.TemplateReadService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -28,16 +35,23 @@ public class WorkoutTemplateController {
     @Autowired
     private ExerciseRepository exerciseRepository;
 
+    @Autowired
+    private TemplateReadService templateReadService;
+
+    @Autowired
+    private CollectionVersionService versionService;
+
     @PostMapping
-    public ResponseEntity<?> createTemplate(@RequestBody
+    public ResponseEntity<?> createTemplate(@AuthenticationPrincipal
+    AuthenticatedUser principal, @RequestBody
     TemplateSaveRequest request) {
-        Optional<User> user = userRepository.findById(request.getUserId());
-        if (user.isEmpty()) {
-            return ResponseEntity.badRequest().body("User not found");
+        if (request.getUserId() != null && !principal.userId().equals(request.getUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("userId does not match token");
         }
 
+        // User aus dem Token, Referenz ohne SELECT
         WorkoutTemplate template = new WorkoutTemplate();
-        template.setUser(user.get());
+        template.setUser(userRepository.getReferenceById(principal.userId()));
         template.setName(request.getName());
 
         WorkoutTemplate savedTemplate = templateRepository.save(template);
@@ -59,21 +73,23 @@ public class WorkoutTemplateController {
             templateExerciseRepository.save(te);
         }
 
+        versionService.bump(principal.userId(), UserCollection.TEMPLATES);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(Map.of("id", savedTemplate.getId(), "message", "Template created successfully"));
     }
 
+    // 304, solange sich an den Vorlagen des Users nichts geändert hat
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<WorkoutTemplate>> getUserTemplates(@PathVariable
-    Long userId) {
-        List<WorkoutTemplate> templates = templateRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return ResponseEntity.ok(templates);
+    public ResponseEntity<List<TemplateView>> getUserTemplates(@PathVariable
+    Long userId, WebRequest request) {
+        return versionService.conditional(request, userId, UserCollection.TEMPLATES,
+                () -> templateReadService.findByUser(userId));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getTemplate(@PathVariable
     Long id) {
-        Optional<WorkoutTemplate> template = templateRepository.findById(id);
+        Optional<TemplateView> template = templateReadService.findById(id);
         if (template.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -81,7 +97,9 @@ public class WorkoutTemplateController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateTemplate(@PathVariable
+    @Transactional
+    public ResponseEntity<?> updateTemplate(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long id, @RequestBody
     TemplateSaveRequest request) {
         Optional<WorkoutTemplate> templateOpt = templateRepository.findById(id);
@@ -90,6 +108,9 @@ public class WorkoutTemplateController {
         }
 
         WorkoutTemplate template = templateOpt.get();
+        if (!principal.userId().equals(template.getUser().getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Template belongs to another user");
+        }
         template.setName(request.getName());
 
         // Alte Übungen löschen
@@ -114,17 +135,24 @@ public class WorkoutTemplateController {
         }
 
         templateRepository.save(template);
+        versionService.bump(template.getUser().getId(), UserCollection.TEMPLATES);
 
         return ResponseEntity.ok(Map.of("id", template.getId(), "message", "Template updated successfully"));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteTemplate(@PathVariable
+    public ResponseEntity<?> deleteTemplate(@AuthenticationPrincipal
+    AuthenticatedUser principal, @PathVariable
     Long id) {
-        if (!templateRepository.existsById(id)) {
+        Optional<WorkoutTemplate> template = templateRepository.findById(id);
+        if (template.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        templateRepository.deleteById(id);
+        if (!principal.userId().equals(template.get().getUser().getId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Template belongs to another user");
+        }
+        templateRepository.delete(template.get());
+        versionService.bump(template.get().getUser().getId(), UserCollection.TEMPLATES);
         return ResponseEntity.ok(Map.of("message", "Template deleted successfully"));
     }
 }
\ No newline at end of file
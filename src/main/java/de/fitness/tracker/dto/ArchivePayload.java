@@ -0,0 +1,12 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+// Gepackter Inhalt eines Archiv-Jahres ohne Entity: wird nach dem Entpacken nicht im Persistence-Context gehalten
+@Value
+public class ArchivePayload {
+
+    Integer formatVersion;
+
+    byte[] payload;
+}
@@ -0,0 +1,16 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Archiv-Jahr ohne Payload: reicht, um den Cache zu prüfen und die betroffenen Jahre auszuwählen
+@Value
+public class ArchiveRef {
+
+    Long id;
+
+    Integer year;
+
+    LocalDateTime updatedAt;
+}
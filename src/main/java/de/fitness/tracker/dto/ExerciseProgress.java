@@ -0,0 +1,18 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ExerciseProgress {
+
+    Long exerciseId;
+
+    String bucket;
+
+    // Anzahl Buckets vor dem Downsampling
+    int totalPoints;
+
+    List<ProgressPoint> points;
+}
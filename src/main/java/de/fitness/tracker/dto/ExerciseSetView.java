@@ -0,0 +1,30 @@
+package de.fitness.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.fitness.tracker.model.ExerciseSet;
+import lombok.Value;
+
+@Value
+public class ExerciseSetView {
+
+    Long id;
+
+    // Nur zum Zuordnen beim Zusammenbauen
+    @JsonIgnore
+    Long workoutExerciseId;
+
+    Integer setNumber;
+
+    Double weight;
+
+    Integer reps;
+
+    Integer durationSeconds;
+
+    Double distanceKm;
+
+    public static ExerciseSetView from(ExerciseSet set) {
+        return new ExerciseSetView(set.getId(), set.getWorkoutExercise().getId(), set.getSetNumber(), set.getWeight(),
+                set.getReps(), set.getDurationSeconds(), set.getDistanceKm());
+    }
+}
@@ -0,0 +1,28 @@
+package de.fitness.tracker.dto;
+
+import de.fitness.tracker.model.EquipmentType;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.ExerciseType;
+import de.fitness.tracker.model.MuscleGroup;
+import lombok.Value;
+
+@Value
+public class ExerciseView {
+
+    Long id;
+
+    String name;
+
+    ExerciseType exerciseType;
+
+    Boolean weightPerSide;
+
+    EquipmentType equipmentType;
+
+    MuscleGroup primaryMuscleGroup;
+
+    public static ExerciseView from(Exercise exercise) {
+        return new ExerciseView(exercise.getId(), exercise.getName(), exercise.getExerciseType(),
+                exercise.getWeightPerSide(), exercise.getEquipmentType(), exercise.getPrimaryMuscleGroup());
+    }
+}
@@ -0,0 +1,36 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Flache Export-Zeile Workout + Übung + Satz (Übung/Satz null bei leeren Workouts bzw. Übungen)
+@Value
+public class ExportSetRow {
+
+    Long workoutId;
+
+    String workoutName;
+
+    LocalDateTime startTime;
+
+    LocalDateTime endTime;
+
+    Long workoutExerciseId;
+
+    Integer orderIndex;
+
+    String exerciseName;
+
+    String comment;
+
+    Integer setNumber;
+
+    Double weight;
+
+    Integer reps;
+
+    Integer durationSeconds;
+
+    Double distanceKm;
+}
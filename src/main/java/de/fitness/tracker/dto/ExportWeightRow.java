@@ -0,0 +1,28 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Messung ohne User-Referenz, damit beim Export nichts im Persistence Context hängen bleibt
+@Value
+public class ExportWeightRow {
+
+    LocalDateTime date;
+
+    Double weight;
+
+    Double bodyFat;
+
+    Double muscleMass;
+
+    Double boneMass;
+
+    Double bmi;
+
+    Integer metabolicAge;
+
+    Double waterPercentage;
+
+    Integer visceralFat;
+}
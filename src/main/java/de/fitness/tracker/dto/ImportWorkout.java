@@ -0,0 +1,35 @@
+package de.fitness.tracker.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Workout im Import-/Exportformat: Übungen über den Namen statt über die ID
+@Data
+public class ImportWorkout {
+
+    // ID in der Quelle, Teil des Idempotency-Keys
+    private String id;
+
+    private String name;
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private List<ExerciseData> exercises = new ArrayList<>();
+
+    @Data
+    public static class ExerciseData {
+
+        private String exercise;
+
+        private Integer orderIndex;
+
+        private String comment;
+
+        private List<WorkoutSaveRequest.SetData> sets = new ArrayList<>();
+    }
+}
@@ -0,0 +1,20 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+@Value
+public class ProgressPoint {
+
+    // Beginn des Buckets (Tag, Montag der Woche, Monatserster)
+    LocalDate date;
+
+    Double estimatedOneRepMax;
+
+    Double topSetWeight;
+
+    Double totalVolume;
+
+    int sessions;
+}
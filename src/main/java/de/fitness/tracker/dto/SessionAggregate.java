@@ -0,0 +1,22 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Kennzahlen einer Übung in einem Workout, in der Datenbank aggregiert
+@Value
+public class SessionAggregate {
+
+    Long workoutId;
+
+    LocalDateTime startTime;
+
+    Double topSetWeight;
+
+    Double estimatedOneRepMax;
+
+    Double totalVolume;
+
+    Long sets;
+}
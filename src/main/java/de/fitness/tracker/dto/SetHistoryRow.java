@@ -0,0 +1,24 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Flache Zeile Satz + Workout-Zeit, für Auswertungen ohne Entity-Graph
+@Value
+public class SetHistoryRow {
+
+    Long exerciseId;
+
+    Long workoutId;
+
+    LocalDateTime startTime;
+
+    Double weight;
+
+    Integer reps;
+
+    Integer durationSeconds;
+
+    Double distanceKm;
+}
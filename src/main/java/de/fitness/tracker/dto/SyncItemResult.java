@@ -0,0 +1,24 @@
+package de.fitness.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SyncItemResult {
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+
+    // Position der Zeile im Request (0-basiert)
+    private int index;
+
+    private String idempotencyKey;
+
+    private Status status;
+
+    private Long workoutId;
+
+    private String message;
+}
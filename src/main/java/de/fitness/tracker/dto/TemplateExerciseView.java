@@ -0,0 +1,43 @@
+package de.fitness.tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.fitness.tracker.model.EquipmentType;
+import de.fitness.tracker.model.ExerciseType;
+import de.fitness.tracker.model.MuscleGroup;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class TemplateExerciseView {
+
+    Long id;
+
+    // Nur zum Zuordnen beim Zusammenbauen
+    @JsonIgnore
+    Long templateId;
+
+    ExerciseView exercise;
+
+    Integer orderIndex;
+
+    Integer setsCount;
+
+    Double targetWeight;
+
+    Integer targetReps;
+
+    Integer targetDurationSeconds;
+
+    Double targetDistanceKm;
+
+    // Für JPQL-Konstruktor-Ausdrücke (Übung per Join)
+    public TemplateExerciseView(Long id, Long templateId, Integer orderIndex, Integer setsCount, Double targetWeight,
+            Integer targetReps, Integer targetDurationSeconds, Double targetDistanceKm, Long exerciseId,
+            String exerciseName, ExerciseType exerciseType, Boolean weightPerSide, EquipmentType equipmentType,
+            MuscleGroup primaryMuscleGroup) {
+        this(id, templateId, new ExerciseView(exerciseId, exerciseName, exerciseType, weightPerSide, equipmentType,
+                primaryMuscleGroup), orderIndex, setsCount, targetWeight, targetReps, targetDurationSeconds,
+                targetDistanceKm);
+    }
+}
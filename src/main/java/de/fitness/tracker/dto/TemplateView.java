@@ -0,0 +1,29 @@
+package de.fitness.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+public class TemplateView {
+
+    Long id;
+
+    Long userId;
+
+    String name;
+
+    LocalDateTime createdAt;
+
+    @With
+    List<TemplateExerciseView> exercises;
+
+    // Für JPQL-Konstruktor-Ausdrücke, Übungen werden separat geladen
+    public TemplateView(Long id, Long userId, String name, LocalDateTime createdAt) {
+        this(id, userId, name, createdAt, List.of());
+    }
+}
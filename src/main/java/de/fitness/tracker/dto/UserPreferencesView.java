@@ -0,0 +1,24 @@
+package de.fitness.tracker.dto;
+
+import de.fitness.tracker.model.UserPreferences;
+import lombok.Value;
+
+// Ohne den User selbst, damit weder Passwort-Hash noch Rolle in der Antwort landen
+@Value
+public class UserPreferencesView {
+
+    Long id;
+
+    Long userId;
+
+    Integer defaultRestTime;
+
+    String weightUnit;
+
+    String theme;
+
+    public static UserPreferencesView from(UserPreferences prefs) {
+        return new UserPreferencesView(prefs.getId(), prefs.getUser().getId(), prefs.getDefaultRestTime(),
+                prefs.getWeightUnit(), prefs.getTheme());
+    }
+}
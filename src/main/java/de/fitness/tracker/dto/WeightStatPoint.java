@@ -0,0 +1,18 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class WeightStatPoint {
+
+    LocalDateTime date;
+
+    Double value;
+
+    // Gleitende Durchschnitte über die vorangegangenen 7 bzw. 30 Tage (inkl. dieser Messung)
+    Double average7Days;
+
+    Double average30Days;
+}
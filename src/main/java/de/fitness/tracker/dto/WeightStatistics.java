@@ -0,0 +1,27 @@
+package de.fitness.tracker.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class WeightStatistics {
+
+    String metric;
+
+    // Messungen mit Wert im Zeitraum (vor dem Downsampling)
+    int count;
+
+    Double min;
+
+    Double max;
+
+    Double first;
+
+    Double last;
+
+    // last - first
+    Double delta;
+
+    List<WeightStatPoint> points;
+}
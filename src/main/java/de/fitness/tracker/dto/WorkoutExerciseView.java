@@ -0,0 +1,45 @@
+package de.fitness.tracker.dto;
+
+import de.fitness.tracker.model.EquipmentType;
+import de.fitness.tracker.model.ExerciseType;
+import de.fitness.tracker.model.MuscleGroup;
+import de.fitness.tracker.model.WorkoutExercise;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+public class WorkoutExerciseView {
+
+    Long id;
+
+    Long workoutId;
+
+    ExerciseView exercise;
+
+    Integer orderIndex;
+
+    String comment;
+
+    @With
+    List<ExerciseSetView> sets;
+
+    // Für JPQL-Konstruktor-Ausdrücke (Übung per Join, Sätze separat)
+    public WorkoutExerciseView(Long id, Long workoutId, Integer orderIndex, String comment, Long exerciseId,
+            String exerciseName, ExerciseType exerciseType, Boolean weightPerSide, EquipmentType equipmentType,
+            MuscleGroup primaryMuscleGroup) {
+        this(id, workoutId, new ExerciseView(exerciseId, exerciseName, exerciseType, weightPerSide, equipmentType,
+                primaryMuscleGroup), orderIndex, comment, List.of());
+    }
+
+    // Nur für bereits vollständig geladene Entities aufrufen
+    public static WorkoutExerciseView from(WorkoutExercise we) {
+        return new WorkoutExerciseView(we.getId(), we.getWorkout().getId(), ExerciseView.from(we.getExercise()),
+                we.getOrderIndex(), we.getComment(), we.getSets().stream().map(ExerciseSetView::from)
+                        .sorted(Comparator.comparing(ExerciseSetView::getSetNumber)).toList());
+    }
+}
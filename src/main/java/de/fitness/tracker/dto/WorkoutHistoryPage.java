@@ -0,0 +1,16 @@
+package de.fitness.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class WorkoutHistoryPage {
+
+    private List<WorkoutView> workouts;
+
+    // null = keine weiteren Seiten
+    private String nextCursor;
+}
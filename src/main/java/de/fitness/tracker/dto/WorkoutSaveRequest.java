@@ -9,6 +9,9 @@ public class WorkoutSaveRequest {
 
     private Long userId;
 
+    // Optional: gleicher Key = gleiches Workout, Wiederholungen legen keine Duplikate an
+    private String idempotencyKey;
+
     private String name;
 
     private LocalDateTime startTime;
@@ -0,0 +1,31 @@
+package de.fitness.tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@AllArgsConstructor
+public class WorkoutView {
+
+    Long id;
+
+    Long userId;
+
+    String name;
+
+    LocalDateTime startTime;
+
+    LocalDateTime endTime;
+
+    @With
+    List<WorkoutExerciseView> exercises;
+
+    // Für JPQL-Konstruktor-Ausdrücke, Übungen werden separat geladen
+    public WorkoutView(Long id, Long userId, String name, LocalDateTime startTime, LocalDateTime endTime) {
+        this(id, userId, name, startTime, endTime, List.of());
+    }
+}
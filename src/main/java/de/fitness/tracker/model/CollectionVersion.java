@@ -0,0 +1,30 @@
+package de.fitness.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Änderungszähler pro User und Datenbereich, wird bei jedem Schreibzugriff hochgezählt
+@Entity
+@Table(name = "collection_versions", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id",
+        "collection" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "collection", nullable = false, length = 20)
+    private UserCollection collection;
+
+    @Column(nullable = false)
+    private Long version;
+}
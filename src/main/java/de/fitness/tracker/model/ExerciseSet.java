@@ -14,8 +14,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ExerciseSet {
 
+    // Sequence statt IDENTITY, damit Hibernate Inserts batchen kann
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exercise_sets_seq")
+    @SequenceGenerator(name = "exercise_sets_seq", sequenceName = "exercise_sets_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
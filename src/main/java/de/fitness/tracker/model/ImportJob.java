@@ -0,0 +1,64 @@
+package de.fitness.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Fortschritt eines Bulk-Imports; processedWorkouts wird mit jedem Batch in derselben Transaktion gespeichert
+@Entity
+@Table(name = "import_jobs", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "import_key" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJob {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Vom Client vergeben (z.B. Dateiname + Größe), gleicher Key = Import fortsetzen
+    @Column(name = "import_key", nullable = false, length = 60)
+    private String importKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Gelesene Workouts bis einschließlich des letzten gespeicherten Batches
+    @Column(nullable = false)
+    private Integer processedWorkouts = 0;
+
+    @Column(nullable = false)
+    private Integer createdWorkouts = 0;
+
+    @Column(nullable = false)
+    private Integer duplicateWorkouts = 0;
+
+    @Column(nullable = false)
+    private Integer invalidWorkouts = 0;
+
+    @Column(nullable = false)
+    private Integer skippedExercises = 0; // Übungsname unbekannt
+
+    @Column(length = 1000)
+    private String unknownExercises;
+
+    @Column(length = 500)
+    private String error;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,39 @@
+package de.fitness.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Projektion: letzte Ausführung einer Übung pro User (für "Letztes Mal"-Anzeige)
+@Entity
+@Table(name = "last_exercise_performances", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id",
+        "exercise_id" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LastExercisePerformance {
+
+    // Sequence statt IDENTITY, damit Hibernate Inserts batchen kann
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "last_exercise_performances_seq")
+    @SequenceGenerator(name = "last_exercise_performances_seq", sequenceName = "last_exercise_performances_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "exercise_id", nullable = false)
+    private Long exerciseId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "workout_exercise_id", nullable = false)
+    private WorkoutExercise workoutExercise;
+
+    // Startzeit des Workouts, damit nachträglich gespeicherte ältere Workouts nichts überschreiben
+    @Column(name = "workout_start_time", nullable = false)
+    private LocalDateTime workoutStartTime;
+}
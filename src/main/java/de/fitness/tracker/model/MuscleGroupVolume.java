@@ -0,0 +1,52 @@
+package de.fitness.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Trainingsvolumen pro User x Muskelgruppe x Woche/Monat, wird beim Speichern fortgeschrieben
+@Entity
+@Table(name = "muscle_group_volumes", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "period",
+        "period_start", "muscle_group" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MuscleGroupVolume {
+
+    // Übungen ohne primäre Muskelgruppe (z.B. Cardio)
+    public static final String UNASSIGNED = "UNASSIGNED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "muscle_group_volumes_seq")
+    @SequenceGenerator(name = "muscle_group_volumes_seq", sequenceName = "muscle_group_volumes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false)
+    private RollupPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    // MuscleGroup-Name oder UNASSIGNED (nicht null, damit der Unique-Key greift)
+    @Column(name = "muscle_group", nullable = false, length = 20)
+    private String muscleGroup;
+
+    @Column(name = "sets", nullable = false)
+    private Integer sets = 0;
+
+    @Column(name = "reps", nullable = false)
+    private Integer reps = 0;
+
+    @Column(name = "tonnage", nullable = false)
+    private Double tonnage = 0.0; // Gewicht x Wiederholungen, in kg
+
+    @Column(name = "cardio_duration_seconds", nullable = false)
+    private Integer cardioDurationSeconds = 0;
+}
@@ -0,0 +1,60 @@
+package de.fitness.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Bestwerte pro (User, Übung), werden beim Speichern von Sätzen fortgeschrieben
+@Entity
+@Table(name = "personal_records", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "exercise_id" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonalRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "personal_records_seq")
+    @SequenceGenerator(name = "personal_records_seq", sequenceName = "personal_records_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "exercise_id", nullable = false)
+    private Long exerciseId;
+
+    // STRENGTH
+    @Column(name = "max_weight")
+    private Double maxWeight; // in kg
+
+    @Column(name = "max_weight_at")
+    private LocalDateTime maxWeightAt;
+
+    @Column(name = "estimated_one_rep_max")
+    private Double estimatedOneRepMax; // Epley, in kg
+
+    @Column(name = "estimated_one_rep_max_at")
+    private LocalDateTime estimatedOneRepMaxAt;
+
+    @Column(name = "best_set_volume")
+    private Double bestSetVolume; // Gewicht x Wiederholungen
+
+    @Column(name = "best_set_volume_at")
+    private LocalDateTime bestSetVolumeAt;
+
+    // CARDIO
+    @Column(name = "longest_duration_seconds")
+    private Integer longestDurationSeconds;
+
+    @Column(name = "longest_duration_at")
+    private LocalDateTime longestDurationAt;
+
+    @Column(name = "farthest_distance_km")
+    private Double farthestDistanceKm;
+
+    @Column(name = "farthest_distance_at")
+    private LocalDateTime farthestDistanceAt;
+}
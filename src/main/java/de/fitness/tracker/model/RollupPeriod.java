@@ -0,0 +1,6 @@
+package de.fitness.tracker.model;
+
+public enum RollupPeriod {
+    WEEK, // ab Montag
+    MONTH // ab Monatsersten
+}
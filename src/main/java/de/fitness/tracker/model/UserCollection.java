@@ -0,0 +1,6 @@
+package de.fitness.tracker.model;
+
+// Datenbereiche eines Users mit eigenem Versionszähler (für ETags)
+public enum UserCollection {
+    WORKOUTS, TEMPLATES, WEIGHTS
+}
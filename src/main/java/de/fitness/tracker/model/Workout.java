@@ -11,14 +11,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "workouts")
+@Table(name = "workouts", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "client_key" }))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Workout {
 
+    // Sequence statt IDENTITY, damit Hibernate Inserts batchen kann
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workouts_seq")
+    @SequenceGenerator(name = "workouts_seq", sequenceName = "workouts_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -34,6 +36,10 @@ public class Workout {
     @Column(name = "end_time")
     private LocalDateTime endTime;
 
+    // Idempotency-Key vom Client (Offline-Sync), eindeutig pro User
+    @Column(name = "client_key", length = 100)
+    private String clientKey;
+
     @OneToMany(mappedBy = "workout", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnoreProperties({ "workout" })
     private List<WorkoutExercise> exercises = new ArrayList<>();
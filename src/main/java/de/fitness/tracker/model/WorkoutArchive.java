@@ -0,0 +1,48 @@
+package de.fitness.tracker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Archivierte Workouts eines Users aus einem Kalenderjahr, komprimiert in payload (siehe WorkoutArchiveService)
+@Entity
+@Table(name = "workout_archives", uniqueConstraints = @UniqueConstraint(columnNames = { "user_id", "archive_year" }))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "archive_year", nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Integer formatVersion;
+
+    @Column(nullable = false)
+    private Integer workoutCount;
+
+    @Column(nullable = false)
+    private Integer setCount;
+
+    @Column(nullable = false)
+    private LocalDateTime firstStartTime;
+
+    @Column(nullable = false)
+    private LocalDateTime lastStartTime;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -17,8 +17,10 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @AllArgsConstructor
 public class WorkoutExercise {
 
+    // Sequence statt IDENTITY, damit Hibernate Inserts batchen kann
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workout_exercises_seq")
+    @SequenceGenerator(name = "workout_exercises_seq", sequenceName = "workout_exercises_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
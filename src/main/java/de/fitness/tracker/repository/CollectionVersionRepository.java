@@ -0,0 +1,30 @@
+package de.fitness.tracker.repository;
+
+import de.fitness.tracker.model.CollectionVersion;
+import de.fitness.tracker.model.UserCollection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, Long> {
+
+    @Query("SELECT v.version FROM CollectionVersion v WHERE v.userId = :userId AND v.collection = :collection")
+    Optional<Long> findVersion(@Param("userId") Long userId, @Param("collection") UserCollection collection);
+
+    // Atomar in der Datenbank hochzählen, damit parallele Writes keine Version verlieren
+    @Modifying
+    @Query("UPDATE CollectionVersion v SET v.version = v.version + 1 "
+            + "WHERE v.userId = :userId AND v.collection = :collection")
+    int increment(@Param("userId") Long userId, @Param("collection") UserCollection collection);
+
+    // Erste Version anlegen; existiert die Zeile schon (paralleler Write), passiert nichts und es kommt 0 zurück
+    @Modifying
+    @Query(value = "INSERT INTO collection_versions (user_id, collection, version) VALUES (:userId, :collection, 1) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("collection") String collection);
+}
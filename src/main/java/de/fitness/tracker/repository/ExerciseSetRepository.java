@@ -1,13 +1,53 @@
 package de.fitness.tracker.repository;
 
+import de.fitness.tracker.dto.ExerciseSetView;
+import de.fitness.tracker.dto.SessionAggregate;
+import de.fitness.tracker.dto.SetHistoryRow;
 import de.fitness.tracker.model.ExerciseSet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ExerciseSetRepository extends JpaRepository<ExerciseSet, Long> {
     
-    List<ExerciseSet> findByWorkoutExerciseIdOrderBySetNumber(Long workoutExerciseId);
-}
\ No newline at end of file
+    // Explizit statt abgeleitet: ohne Join auf workout_exercises, damit der (workout_exercise_id, set_number)-Index greift
+    @Query("SELECT s FROM ExerciseSet s WHERE s.workoutExercise.id = :workoutExerciseId ORDER BY s.setNumber")
+    List<ExerciseSet> findByWorkoutExerciseIdOrderBySetNumber(@Param("workoutExerciseId") Long workoutExerciseId);
+
+    @Query("SELECT new de.fitness.tracker.dto.ExerciseSetView(s.id, s.workoutExercise.id, s.setNumber, s.weight, "
+            + "s.reps, s.durationSeconds, s.distanceKm) FROM ExerciseSet s "
+            + "WHERE s.workoutExercise.workout.id IN :workoutIds ORDER BY s.setNumber")
+    List<ExerciseSetView> findViewsByWorkoutIdIn(@Param("workoutIds") Collection<Long> workoutIds);
+
+    @Query("SELECT new de.fitness.tracker.dto.ExerciseSetView(s.id, s.workoutExercise.id, s.setNumber, s.weight, "
+            + "s.reps, s.durationSeconds, s.distanceKm) FROM ExerciseSet s "
+            + "WHERE s.workoutExercise.workout.user.id = :userId ORDER BY s.setNumber")
+    List<ExerciseSetView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new de.fitness.tracker.dto.SetHistoryRow(we.exercise.id, w.id, w.startTime, s.weight, s.reps, "
+            + "s.durationSeconds, s.distanceKm) FROM ExerciseSet s JOIN s.workoutExercise we JOIN we.workout w "
+            + "WHERE w.user.id = :userId ORDER BY w.startTime, w.id")
+    List<SetHistoryRow> findHistoryRowsByUserId(@Param("userId") Long userId);
+
+    // Pro Workout aggregiert (Top-Satz, Epley-1RM, Volumen) – eine Zeile pro Training statt pro Satz
+    @Query("SELECT new de.fitness.tracker.dto.SessionAggregate(w.id, w.startTime, MAX(s.weight), "
+            + "MAX(CASE WHEN s.reps = 1 THEN s.weight ELSE s.weight * (1 + s.reps / 30.0) END), "
+            + "SUM(s.weight * s.reps), COUNT(s)) FROM ExerciseSet s JOIN s.workoutExercise we JOIN we.workout w "
+            + "WHERE w.user.id = :userId AND we.exercise.id = :exerciseId AND w.startTime >= :from "
+            + "AND w.startTime <= :to AND s.weight IS NOT NULL AND s.reps > 0 "
+            + "GROUP BY w.id, w.startTime ORDER BY w.startTime")
+    List<SessionAggregate> aggregateSessions(@Param("userId") Long userId, @Param("exerciseId") Long exerciseId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM ExerciseSet s WHERE s.workoutExercise.id IN "
+            + "(SELECT we.id FROM WorkoutExercise we WHERE we.workout.id IN :workoutIds)")
+    int deleteByWorkoutIdIn(@Param("workoutIds") Collection<Long> workoutIds);
+}
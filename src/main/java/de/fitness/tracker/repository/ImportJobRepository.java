@@ -0,0 +1,13 @@
+package de.fitness.tracker.repository;
+
+import de.fitness.tracker.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    Optional<ImportJob> findByUserIdAndImportKey(Long userId, String importKey);
+}
@@ -0,0 +1,59 @@
+package de.fitness.tracker.repository;
+
+import de.fitness.tracker.model.LastExercisePerformance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LastExercisePerformanceRepository extends JpaRepository<LastExercisePerformance, Long> {
+
+    // Eine Zeile über den (user_id, exercise_id)-Unique-Index, inkl. allem was serialisiert wird
+    @Query("SELECT p FROM LastExercisePerformance p JOIN FETCH p.workoutExercise we JOIN FETCH we.exercise "
+            + "JOIN FETCH we.workout LEFT JOIN FETCH we.sets WHERE p.userId = :userId AND p.exerciseId = :exerciseId")
+    Optional<LastExercisePerformance> findWithDetails(@Param("userId") Long userId,
+            @Param("exerciseId") Long exerciseId);
+
+    // Gesperrt lesen, damit parallele Saves dieselbe Zeile nacheinander fortschreiben
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<LastExercisePerformance> findByUserIdAndExerciseIdIn(Long userId, Collection<Long> exerciseIds);
+
+    // Fehlende Zeilen anlegen (zeigen auf die übergebenen Übungsausführungen); bestehende bleiben unberührt,
+    // gleichzeitige Erstanlage endet nicht in einer Unique-Verletzung
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO last_exercise_performances "
+            + "(id, user_id, exercise_id, workout_exercise_id, workout_start_time) "
+            + "SELECT nextval('last_exercise_performances_seq'), :userId, we.exercise_id, we.id, :startTime "
+            + "FROM workout_exercises we WHERE we.id IN :workoutExerciseIds ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertMissing(@Param("userId") Long userId, @Param("startTime") LocalDateTime startTime,
+            @Param("workoutExerciseIds") Collection<Long> workoutExerciseIds);
+
+    // Projektion eines Users aus den heißen Workouts neu aufbauen: pro Übung die letzte Ausführung mit Sätzen
+    // (gleiche Startzeit -> höhere ID, wie beim Speichern). Dieselbe Abfrage füllt in V5 den Altbestand.
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO last_exercise_performances "
+            + "(id, user_id, exercise_id, workout_exercise_id, workout_start_time) "
+            + "SELECT nextval('last_exercise_performances_seq'), w.user_id, we.exercise_id, we.id, w.start_time "
+            + "FROM workout_exercises we JOIN workouts w ON w.id = we.workout_id WHERE w.user_id = :userId "
+            + "AND EXISTS (SELECT 1 FROM exercise_sets s WHERE s.workout_exercise_id = we.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM workout_exercises we2 JOIN workouts w2 ON w2.id = we2.workout_id "
+            + "WHERE w2.user_id = w.user_id AND we2.exercise_id = we.exercise_id "
+            + "AND EXISTS (SELECT 1 FROM exercise_sets s2 WHERE s2.workout_exercise_id = we2.id) "
+            + "AND (w2.start_time > w.start_time OR (w2.start_time = w.start_time AND we2.id > we.id))) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertLatestByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM LastExercisePerformance p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
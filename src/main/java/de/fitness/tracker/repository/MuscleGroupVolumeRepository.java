@@ -0,0 +1,23 @@
+package de.fitness.tracker.repository;
+
+import de.fitness.tracker.model.MuscleGroupVolume;
+import de.fitness.tracker.model.RollupPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MuscleGroupVolumeRepository extends JpaRepository<MuscleGroupVolume, Long> {
+
+    List<MuscleGroupVolume> findByUserIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAscMuscleGroupAsc(
+            Long userId, RollupPeriod period, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM MuscleGroupVolume v WHERE v.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,37 @@
+package de.fitness.tracker.repository;
+
+import de.fitness.tracker.model.PersonalRecord;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PersonalRecordRepository extends JpaRepository<PersonalRecord, Long> {
+
+    List<PersonalRecord> findByUserId(Long userId);
+
+    Optional<PersonalRecord> findByUserIdAndExerciseId(Long userId, Long exerciseId);
+
+    // Gesperrt lesen, damit parallele Saves denselben Bestwert nacheinander fortschreiben
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<PersonalRecord> findByUserIdAndExerciseIdIn(Long userId, Collection<Long> exerciseIds);
+
+    // Leere Zeilen für neue Übungen anlegen; bestehende bleiben, gleichzeitige Erstanlage endet nicht im Unique-Fehler
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO personal_records (id, user_id, exercise_id) "
+            + "SELECT nextval('personal_records_seq'), :userId, e.id FROM exercises e WHERE e.id IN :exerciseIds "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissing(@Param("userId") Long userId, @Param("exerciseIds") Collection<Long> exerciseIds);
+
+    @Modifying
+    @Query("DELETE FROM PersonalRecord r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -1,9 +1,15 @@
 package de.fitness.tracker.repository;
 
 import de.fitness.tracker.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +18,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    // Nur die Rolle, für die Prüfung im JWT-Filter (User ohne Rolle gelten als USER)
+    @Query("SELECT COALESCE(u.role, 'USER') FROM User u WHERE u.id = :id")
+    Optional<String> findRoleById(@Param("id") Long id);
+
+    // Seitenweise für Hintergrundläufe über alle User
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Nur den Hash schreiben (Rehash nach Login), ohne den ganzen User zu mergen
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
\ No newline at end of file
@@ -1,13 +1,36 @@
 package de.fitness.tracker.repository;
 
+import de.fitness.tracker.dto.ExportWeightRow;
 import de.fitness.tracker.model.WeightMeasurement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface WeightMeasurementRepository extends JpaRepository<WeightMeasurement, Long> {
     
-    List<WeightMeasurement> findByUserIdOrderByDateDesc(Long userId);
-}
\ No newline at end of file
+    // Explizit statt abgeleitet: abgeleitete Queries joinen users nur für die ID, das verdeckt den (user_id, date)-Index
+    @Query("SELECT m FROM WeightMeasurement m WHERE m.user.id = :userId ORDER BY m.date DESC")
+    List<WeightMeasurement> findByUserIdOrderByDateDesc(@Param("userId") Long userId);
+
+    @Query("SELECT m FROM WeightMeasurement m WHERE m.user.id = :userId AND m.date BETWEEN :from AND :to "
+            + "ORDER BY m.date ASC")
+    List<WeightMeasurement> findByUserIdAndDateBetweenOrderByDateAsc(@Param("userId") Long userId,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Export: vorwärts laufender Cursor, nur aufrufen innerhalb einer (read-only) Transaktion
+    @QueryHints({ @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT new de.fitness.tracker.dto.ExportWeightRow(m.date, m.weight, m.bodyFat, m.muscleMass, m.boneMass, "
+            + "m.bmi, m.metabolicAge, m.waterPercentage, m.visceralFat) FROM WeightMeasurement m "
+            + "WHERE m.user.id = :userId ORDER BY m.date, m.id")
+    Stream<ExportWeightRow> streamExportRows(@Param("userId") Long userId);
+}
@@ -0,0 +1,33 @@
+package de.fitness.tracker.repository;
+
+import de.fitness.tracker.dto.ArchivePayload;
+import de.fitness.tracker.dto.ArchiveRef;
+import de.fitness.tracker.model.WorkoutArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WorkoutArchiveRepository extends JpaRepository<WorkoutArchive, Long> {
+
+    Optional<WorkoutArchive> findByUserIdAndYear(Long userId, Integer year);
+
+    @Query("SELECT new de.fitness.tracker.dto.ArchiveRef(a.id, a.year, a.updatedAt) FROM WorkoutArchive a "
+            + "WHERE a.userId = :userId ORDER BY a.year")
+    List<ArchiveRef> findRefsByUserId(@Param("userId") Long userId);
+
+    // Nur Jahre, deren Zeitspanne [from, to] berührt – der Rest wird gar nicht erst geladen
+    @Query("SELECT new de.fitness.tracker.dto.ArchiveRef(a.id, a.year, a.updatedAt) FROM WorkoutArchive a "
+            + "WHERE a.userId = :userId AND a.lastStartTime >= :from AND a.firstStartTime <= :to ORDER BY a.year")
+    List<ArchiveRef> findRefsOverlapping(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    @Query("SELECT new de.fitness.tracker.dto.ArchivePayload(a.formatVersion, a.payload) FROM WorkoutArchive a "
+            + "WHERE a.id = :id")
+    Optional<ArchivePayload> findPayloadById(@Param("id") Long id);
+}
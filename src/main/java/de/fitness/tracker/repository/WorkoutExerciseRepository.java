@@ -1,11 +1,14 @@
 package de.fitness.tracker.repository;
 
+import de.fitness.tracker.dto.WorkoutExerciseView;
 import de.fitness.tracker.model.WorkoutExercise;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,6 +16,17 @@ public interface WorkoutExerciseRepository extends JpaRepository<WorkoutExercise
 
     List<WorkoutExercise> findByWorkoutIdOrderByOrderIndex(Long workoutId);
 
-    @Query("SELECT we FROM WorkoutExercise we JOIN FETCH we.sets WHERE we.exercise.id = :exerciseId ORDER BY we.workout.startTime DESC")
-    List<WorkoutExercise> findByExerciseIdOrderByWorkoutDateDesc(@Param("exerciseId") Long exerciseId);
-}
\ No newline at end of file
+    @Query("SELECT new de.fitness.tracker.dto.WorkoutExerciseView(we.id, we.workout.id, we.orderIndex, we.comment, "
+            + "e.id, e.name, e.exerciseType, e.weightPerSide, e.equipmentType, e.primaryMuscleGroup) "
+            + "FROM WorkoutExercise we JOIN we.exercise e WHERE we.workout.id IN :workoutIds ORDER BY we.orderIndex")
+    List<WorkoutExerciseView> findViewsByWorkoutIdIn(@Param("workoutIds") Collection<Long> workoutIds);
+
+    @Query("SELECT new de.fitness.tracker.dto.WorkoutExerciseView(we.id, we.workout.id, we.orderIndex, we.comment, "
+            + "e.id, e.name, e.exerciseType, e.weightPerSide, e.equipmentType, e.primaryMuscleGroup) "
+            + "FROM WorkoutExercise we JOIN we.exercise e WHERE we.workout.user.id = :userId ORDER BY we.orderIndex")
+    List<WorkoutExerciseView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM WorkoutExercise we WHERE we.workout.id IN :workoutIds")
+    int deleteByWorkoutIdIn(@Param("workoutIds") Collection<Long> workoutIds);
+}
@@ -1,16 +1,65 @@
 package de.fitness.tracker.repository;
 
+import de.fitness.tracker.dto.ExportSetRow;
+import de.fitness.tracker.dto.WorkoutView;
 import de.fitness.tracker.model.Workout;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface WorkoutRepository extends JpaRepository<Workout, Long> {
-    
-    @Query("SELECT DISTINCT w FROM Workout w LEFT JOIN FETCH w.exercises WHERE w.user.id = :userId ORDER BY w.startTime DESC")
-    List<Workout> findByUserIdOrderByDateDesc(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT new de.fitness.tracker.dto.WorkoutView(w.id, w.user.id, w.name, w.startTime, w.endTime) "
+            + "FROM Workout w WHERE w.user.id = :userId ORDER BY w.startTime DESC, w.id DESC")
+    List<WorkoutView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new de.fitness.tracker.dto.WorkoutView(w.id, w.user.id, w.name, w.startTime, w.endTime) "
+            + "FROM Workout w WHERE w.id = :id")
+    Optional<WorkoutView> findViewById(@Param("id") Long id);
+
+    // Keyset-Seite: alles ab "from", strikt vor dem Cursor (startTime, id)
+    @Query("SELECT new de.fitness.tracker.dto.WorkoutView(w.id, w.user.id, w.name, w.startTime, w.endTime) "
+            + "FROM Workout w WHERE w.user.id = :userId AND w.startTime >= :from "
+            + "AND (w.startTime < :beforeTime OR (w.startTime = :beforeTime AND w.id < :beforeId)) "
+            + "ORDER BY w.startTime DESC, w.id DESC")
+    List<WorkoutView> findHistoryPage(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+            @Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId, Limit limit);
+
+    Optional<Workout> findByUserIdAndClientKey(Long userId, String clientKey);
+
+    List<Workout> findByUserIdAndClientKeyIn(Long userId, Collection<String> clientKeys);
+
+    // Export: vorwärts laufender Cursor, nur aufrufen innerhalb einer (read-only) Transaktion
+    @QueryHints({ @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT new de.fitness.tracker.dto.ExportSetRow(w.id, w.name, w.startTime, w.endTime, we.id, "
+            + "we.orderIndex, e.name, we.comment, s.setNumber, s.weight, s.reps, s.durationSeconds, s.distanceKm) "
+            + "FROM Workout w LEFT JOIN w.exercises we LEFT JOIN we.exercise e LEFT JOIN we.sets s "
+            + "WHERE w.user.id = :userId ORDER BY w.startTime, w.id, we.orderIndex, we.id, s.setNumber, s.id")
+    Stream<ExportSetRow> streamExportRows(@Param("userId") Long userId);
+
+    // Archiv-Kandidaten: älter als cutoff und von keiner "Letztes Mal"-Projektion referenziert (die bleibt heiß)
+    @Query("SELECT new de.fitness.tracker.dto.WorkoutView(w.id, w.user.id, w.name, w.startTime, w.endTime) "
+            + "FROM Workout w WHERE w.user.id = :userId AND w.startTime < :cutoff AND NOT EXISTS "
+            + "(SELECT p.id FROM LastExercisePerformance p WHERE p.workoutExercise.workout = w) "
+            + "ORDER BY w.startTime, w.id")
+    List<WorkoutView> findArchiveCandidates(@Param("userId") Long userId, @Param("cutoff") LocalDateTime cutoff);
+
+    // Nach ExerciseSetRepository/WorkoutExerciseRepository.deleteByWorkoutIdIn aufrufen
+    @Modifying
+    @Query("DELETE FROM Workout w WHERE w.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
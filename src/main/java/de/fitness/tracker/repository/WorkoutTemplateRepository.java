@@ -1,16 +1,31 @@
 package de.fitness.tracker.repository;
 
+import de.fitness.tracker.dto.TemplateExerciseView;
+import de.fitness.tracker.dto.TemplateView;
 import de.fitness.tracker.model.WorkoutTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface WorkoutTemplateRepository extends JpaRepository<WorkoutTemplate, Long> {
 
-    @Query("SELECT DISTINCT t FROM WorkoutTemplate t LEFT JOIN FETCH t.exercises WHERE t.user.id = :userId ORDER BY t.createdAt DESC")
-    List<WorkoutTemplate> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
-}
\ No newline at end of file
+    @Query("SELECT new de.fitness.tracker.dto.TemplateView(t.id, t.user.id, t.name, t.createdAt) "
+            + "FROM WorkoutTemplate t WHERE t.user.id = :userId ORDER BY t.createdAt DESC")
+    List<TemplateView> findViewsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new de.fitness.tracker.dto.TemplateView(t.id, t.user.id, t.name, t.createdAt) "
+            + "FROM WorkoutTemplate t WHERE t.id = :id")
+    Optional<TemplateView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new de.fitness.tracker.dto.TemplateExerciseView(te.id, te.template.id, te.orderIndex, te.setsCount, "
+            + "te.targetWeight, te.targetReps, te.targetDurationSeconds, te.targetDistanceKm, "
+            + "e.id, e.name, e.exerciseType, e.weightPerSide, e.equipmentType, e.primaryMuscleGroup) "
+            + "FROM TemplateExercise te JOIN te.exercise e WHERE te.template.id IN :templateIds ORDER BY te.orderIndex")
+    List<TemplateExerciseView> findExerciseViewsByTemplateIdIn(@Param("templateIds") Collection<Long> templateIds);
+}
@@ -0,0 +1,53 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.model.UserCollection;
+import de.fitness.tracker.repository.CollectionVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Versionszähler pro User und Datenbereich. Lese-Endpunkte liefern die
+ * Version als ETag; stimmt If-None-Match, gibt es ein 304 nach einer
+ * einzigen Query statt Laden und Serialisieren der ganzen Liste.
+ */
+@Service
+public class CollectionVersionService {
+
+    @Autowired
+    private CollectionVersionRepository versionRepository;
+
+    // Innerhalb der schreibenden Transaktion aufrufen. Erster Write eines Bereichs legt die Zeile konfliktfrei an;
+    // hat ein paralleler Write sie gerade angelegt, wird stattdessen dessen Zeile hochgezählt
+    @Transactional
+    public void bump(Long userId, UserCollection collection) {
+        if (versionRepository.increment(userId, collection) == 0
+                && versionRepository.insertIfAbsent(userId, collection.name()) == 0) {
+            versionRepository.increment(userId, collection);
+        }
+    }
+
+    public long current(Long userId, UserCollection collection) {
+        return versionRepository.findVersion(userId, collection).orElse(0L);
+    }
+
+    /**
+     * Version vor den Daten lesen: ändert sich dazwischen etwas, ist der ETag
+     * höchstens zu alt und der nächste Request lädt neu – nie umgekehrt.
+     */
+    public <T> ResponseEntity<T> conditional(WebRequest request, Long userId, UserCollection collection,
+            Supplier<T> body) {
+        String etag = "\"" + collection.name().toLowerCase() + "-" + userId + "-"
+                + current(userId, collection) + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body.get());
+    }
+}
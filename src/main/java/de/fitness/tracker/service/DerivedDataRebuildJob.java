@@ -0,0 +1,112 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Neuberechnung abgeleiteter Daten für alle User im Hintergrund: User-IDs
+ * seitenweise, pro User eine eigene Transaktion, ein fehlerhafter User hält
+ * die übrigen nicht auf. Pro Ziel läuft höchstens ein Lauf gleichzeitig.
+ */
+@Component
+public class DerivedDataRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DerivedDataRebuildJob.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    public enum Target {
+        RECORDS, ROLLUPS
+    }
+
+    public record Status(Target target, boolean running, int users, int rows, int failed, LocalDateTime startedAt,
+            LocalDateTime finishedAt) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private VolumeRollupService volumeRollupService;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor taskExecutor;
+
+    private final Map<Target, Status> statuses = new ConcurrentHashMap<>();
+
+    // Startet den Lauf; leer, wenn für dieses Ziel schon einer läuft
+    public Optional<Status> start(Target target) {
+        Status started = new Status(target, true, 0, 0, 0, LocalDateTime.now(), null);
+        Status previous = statuses.get(target);
+        boolean claimed = previous == null ? statuses.putIfAbsent(target, started) == null
+                : !previous.running() && statuses.replace(target, previous, started);
+        if (!claimed) {
+            return Optional.empty();
+        }
+
+        try {
+            taskExecutor.execute(() -> run(target, rebuilder(target)));
+        } catch (RuntimeException e) {
+            statuses.put(target, new Status(target, false, 0, 0, 0, started.startedAt(), LocalDateTime.now()));
+            throw e;
+        }
+        return Optional.of(started);
+    }
+
+    public Optional<Status> status(Target target) {
+        return Optional.ofNullable(statuses.get(target));
+    }
+
+    private Function<Long, Integer> rebuilder(Target target) {
+        return switch (target) {
+            case RECORDS -> personalRecordService::rebuild;
+            case ROLLUPS -> volumeRollupService::rebuild;
+        };
+    }
+
+    private void run(Target target, Function<Long, Integer> rebuild) {
+        Status status = statuses.get(target);
+        int users = 0;
+        int rows = 0;
+        int failed = 0;
+        try {
+            List<Long> page = userRepository.findIdsAfter(0L, Limit.of(PAGE_SIZE));
+            while (!page.isEmpty()) {
+                for (Long userId : page) {
+                    try {
+                        rows += rebuild.apply(userId);
+                    } catch (RuntimeException e) {
+                        failed++;
+                        log.warn("Rebuilding {} of user {} failed", target, userId, e);
+                    }
+                    users++;
+                }
+                statuses.put(target, status = new Status(target, true, users, rows, failed, status.startedAt(),
+                        null));
+                page = userRepository.findIdsAfter(page.get(page.size() - 1), Limit.of(PAGE_SIZE));
+            }
+        } finally {
+            statuses.put(target, new Status(target, false, users, rows, failed, status.startedAt(),
+                    LocalDateTime.now()));
+            log.info("Rebuilt {} for {} users ({} rows, {} failed)", target, users, rows, failed);
+        }
+    }
+}
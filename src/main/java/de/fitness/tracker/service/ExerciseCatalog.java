@@ -0,0 +1,62 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.ExerciseView;
+import de.fitness.tracker.repository.ExerciseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Übungskatalog als unveränderlicher Snapshot im Speicher. Der Katalog ändert
+ * sich nur über {@link #refresh()} (nach createExercise), Lesezugriffe gehen
+ * nicht an die Datenbank.
+ */
+@Service
+public class ExerciseCatalog {
+
+    // Unterscheidet ETags verschiedener Starts, da die Version im Speicher bei 1 beginnt
+    private static final String INSTANCE = Long.toHexString(System.currentTimeMillis());
+
+    public record Snapshot(long version, String etag, List<ExerciseView> exercises, Map<Long, ExerciseView> byId) {
+    }
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    private volatile Snapshot snapshot;
+
+    // Lock statt synchronized: refresh() wartet auf JDBC und würde einen virtuellen Thread an den Carrier pinnen
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    public Optional<ExerciseView> find(Long id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    // Neu laden und den Snapshot in einem Schritt austauschen – Leser sehen alt oder neu, nie halb
+    public Snapshot refresh() {
+        refreshLock.lock();
+        try {
+            List<ExerciseView> exercises = exerciseRepository.findAll().stream().map(ExerciseView::from)
+                    .sorted(Comparator.comparing(ExerciseView::getId)).toList();
+            long version = snapshot != null ? snapshot.version() + 1 : 1;
+
+            snapshot = new Snapshot(version, "\"" + INSTANCE + "." + version + "\"", exercises, exercises.stream()
+                    .collect(Collectors.toUnmodifiableMap(ExerciseView::getId, Function.identity())));
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+}
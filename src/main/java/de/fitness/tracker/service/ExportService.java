@@ -0,0 +1,255 @@
+package de.fitness.tracker.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.fitness.tracker.dto.ExportSetRow;
+import de.fitness.tracker.dto.ExportWeightRow;
+import de.fitness.tracker.repository.WeightMeasurementRepository;
+import de.fitness.tracker.repository.WorkoutRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Export der kompletten Historie als CSV oder JSON. Die Zeilen kommen über
+ * einen Datenbank-Cursor (Fetch-Size 500) und werden direkt in den
+ * Response geschrieben – der Speicherbedarf hängt nicht von der Anzahl der
+ * Workouts ab.
+ */
+@Service
+public class ExportService {
+
+    private static final Comparator<ExportSetRow> WORKOUT_ORDER = Comparator.comparing(ExportSetRow::getStartTime)
+            .thenComparing(ExportSetRow::getWorkoutId);
+
+    public enum Format {
+        CSV, JSON
+    }
+
+    private static final String WORKOUT_CSV_HEADER = "workout_id,workout_name,start_time,end_time,exercise_order,"
+            + "exercise,comment,set_number,weight_kg,reps,duration_seconds,distance_km";
+
+    private static final String WEIGHT_CSV_HEADER = "date,weight_kg,body_fat,muscle_mass_kg,bone_mass_kg,bmi,"
+            + "metabolic_age,water_percentage,visceral_fat";
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WeightMeasurementRepository weightRepository;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ObjectMapper streamMapper;
+
+    @PostConstruct
+    void init() {
+        // Gleiche Module wie die API, aber kein flush() nach jedem Wert: der Generator puffert selbst
+        streamMapper = objectMapper.copy().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Eine Zeile pro Satz (CSV) bzw. verschachtelt Workout -> Übungen -> Sätze (JSON)
+    @Transactional(readOnly = true)
+    public void exportWorkouts(Long userId, Format format, OutputStream out) throws IOException {
+        try (Stream<ExportSetRow> rows = workoutRepository.streamExportRows(userId)) {
+            Iterator<ExportSetRow> it = merge(archiveService.exportRows(userId), rows.iterator());
+            if (format == Format.CSV) {
+                writeWorkoutsCsv(it, out);
+            } else {
+                writeWorkoutsJson(it, out);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportWeights(Long userId, Format format, OutputStream out) throws IOException {
+        try (Stream<ExportWeightRow> rows = weightRepository.streamExportRows(userId)) {
+            Iterator<ExportWeightRow> it = rows.iterator();
+            if (format == Format.CSV) {
+                Writer writer = csvWriter(out);
+                writer.write(WEIGHT_CSV_HEADER);
+                writer.write('\n');
+                while (it.hasNext()) {
+                    ExportWeightRow m = it.next();
+                    writeCsvLine(writer, m.getDate(), m.getWeight(), m.getBodyFat(), m.getMuscleMass(),
+                            m.getBoneMass(), m.getBmi(), m.getMetabolicAge(), m.getWaterPercentage(),
+                            m.getVisceralFat());
+                }
+                writer.flush();
+            } else {
+                JsonGenerator json = jsonGenerator(out);
+                json.writeStartArray();
+                while (it.hasNext()) {
+                    json.writeObject(it.next());
+                }
+                json.writeEndArray();
+                json.flush();
+            }
+        }
+    }
+
+    private void writeWorkoutsCsv(Iterator<ExportSetRow> rows, OutputStream out) throws IOException {
+        Writer writer = csvWriter(out);
+        writer.write(WORKOUT_CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            ExportSetRow r = rows.next();
+            writeCsvLine(writer, r.getWorkoutId(), r.getWorkoutName(), r.getStartTime(), r.getEndTime(),
+                    r.getOrderIndex(), r.getExerciseName(), r.getComment(), r.getSetNumber(), r.getWeight(),
+                    r.getReps(), r.getDurationSeconds(), r.getDistanceKm());
+        }
+        writer.flush();
+    }
+
+    // Die Zeilen sind nach Workout und Übung sortiert, daher reicht ein Gruppenwechsel
+    private void writeWorkoutsJson(Iterator<ExportSetRow> rows, OutputStream out) throws IOException {
+        JsonGenerator json = jsonGenerator(out);
+        json.writeStartArray();
+
+        Long workoutId = null;
+        Long workoutExerciseId = null;
+        while (rows.hasNext()) {
+            ExportSetRow r = rows.next();
+
+            if (!r.getWorkoutId().equals(workoutId)) {
+                if (workoutExerciseId != null) {
+                    closeExercise(json);
+                }
+                if (workoutId != null) {
+                    closeWorkout(json);
+                }
+                workoutId = r.getWorkoutId();
+                workoutExerciseId = null;
+
+                json.writeStartObject();
+                json.writeNumberField("id", r.getWorkoutId());
+                json.writeStringField("name", r.getWorkoutName());
+                json.writeObjectField("startTime", r.getStartTime());
+                json.writeObjectField("endTime", r.getEndTime());
+                json.writeArrayFieldStart("exercises");
+            }
+
+            if (r.getWorkoutExerciseId() == null) {
+                continue;
+            }
+            if (!r.getWorkoutExerciseId().equals(workoutExerciseId)) {
+                if (workoutExerciseId != null) {
+                    closeExercise(json);
+                }
+                workoutExerciseId = r.getWorkoutExerciseId();
+
+                json.writeStartObject();
+                json.writeStringField("exercise", r.getExerciseName());
+                json.writeObjectField("orderIndex", r.getOrderIndex());
+                json.writeStringField("comment", r.getComment());
+                json.writeArrayFieldStart("sets");
+            }
+
+            if (r.getSetNumber() != null) {
+                json.writeStartObject();
+                json.writeObjectField("setNumber", r.getSetNumber());
+                json.writeObjectField("weight", r.getWeight());
+                json.writeObjectField("reps", r.getReps());
+                json.writeObjectField("durationSeconds", r.getDurationSeconds());
+                json.writeObjectField("distanceKm", r.getDistanceKm());
+                json.writeEndObject();
+            }
+        }
+
+        if (workoutExerciseId != null) {
+            closeExercise(json);
+        }
+        if (workoutId != null) {
+            closeWorkout(json);
+        }
+        json.writeEndArray();
+        json.flush();
+    }
+
+    // Beide Quellen sind nach (startTime, workoutId) sortiert: reißverschlussartig zusammenführen, ohne zu puffern.
+    // Zeilen eines Workouts stammen immer aus derselben Quelle und bleiben daher zusammen
+    private static Iterator<ExportSetRow> merge(Iterator<ExportSetRow> archived, Iterator<ExportSetRow> hot) {
+        if (!archived.hasNext()) {
+            return hot;
+        }
+        return new Iterator<>() {
+            private ExportSetRow nextArchived = archived.next();
+            private ExportSetRow nextHot = hot.hasNext() ? hot.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextArchived != null || nextHot != null;
+            }
+
+            @Override
+            public ExportSetRow next() {
+                ExportSetRow row;
+                if (nextHot == null || nextArchived != null && WORKOUT_ORDER.compare(nextArchived, nextHot) <= 0) {
+                    row = nextArchived;
+                    nextArchived = archived.hasNext() ? archived.next() : null;
+                } else {
+                    row = nextHot;
+                    nextHot = hot.hasNext() ? hot.next() : null;
+                }
+                return row;
+            }
+        };
+    }
+
+    private static void closeExercise(JsonGenerator json) throws IOException {
+        json.writeEndArray(); // sets
+        json.writeEndObject();
+    }
+
+    private static void closeWorkout(JsonGenerator json) throws IOException {
+        json.writeEndArray(); // exercises
+        json.writeEndObject();
+    }
+
+    private JsonGenerator jsonGenerator(OutputStream out) throws IOException {
+        // Stream gehört dem Aufrufer, der Generator darf ihn nicht schließen
+        return streamMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static Writer csvWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    private static void writeCsvLine(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: Felder mit Komma, Anführungszeichen oder Zeilenumbruch in "..." einschließen
+    private static String csvValue(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,65 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.WorkoutExerciseView;
+import de.fitness.tracker.model.LastExercisePerformance;
+import de.fitness.tracker.model.WorkoutExercise;
+import de.fitness.tracker.repository.LastExercisePerformanceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pflegt die "Letztes Mal"-Projektion pro (User, Übung), damit der Lookup
+ * nicht die Historie aller User durchsuchen muss.
+ */
+@Service
+public class LastPerformanceService {
+
+    @Autowired
+    private LastExercisePerformanceRepository performanceRepository;
+
+    // Nach dem Speichern aufrufen: nur Übungen mit mindestens einem Satz zählen
+    @Transactional
+    public void record(Long userId, LocalDateTime workoutStartTime, Collection<WorkoutExercise> workoutExercises) {
+        Map<Long, WorkoutExercise> latestByExercise = workoutExercises.stream()
+                .filter(we -> we.getSets() != null && !we.getSets().isEmpty())
+                .collect(Collectors.toMap(we -> we.getExercise().getId(), Function.identity(), (a, b) -> b));
+        if (latestByExercise.isEmpty()) {
+            return;
+        }
+
+        // Neue Übungen per INSERT ... ON CONFLICT anlegen, danach alle Zeilen gesperrt lesen und nur fortschreiben,
+        // wenn dieses Workout nicht älter ist – so gewinnt bei parallelen Saves das neuere Workout
+        performanceRepository.insertMissing(userId, workoutStartTime,
+                latestByExercise.values().stream().map(WorkoutExercise::getId).toList());
+        for (LastExercisePerformance performance : performanceRepository.findByUserIdAndExerciseIdIn(userId,
+                latestByExercise.keySet())) {
+            WorkoutExercise we = latestByExercise.get(performance.getExerciseId());
+            if (!workoutStartTime.isBefore(performance.getWorkoutStartTime())) {
+                performance.setWorkoutExercise(we);
+                performance.setWorkoutStartTime(workoutStartTime);
+            }
+        }
+    }
+
+    // Projektion eines Users komplett neu aufbauen (z.B. nach einem Import)
+    @Transactional
+    public int rebuild(Long userId) {
+        performanceRepository.deleteByUserId(userId);
+        return performanceRepository.insertLatestByUserId(userId);
+    }
+
+    // Reiner Lesezugriff: die Projektion wird beim Speichern gepflegt und per Migration (V5) für Altdaten gefüllt
+    @Transactional(readOnly = true)
+    public Optional<WorkoutExerciseView> findLast(Long userId, Long exerciseId) {
+        return performanceRepository.findWithDetails(userId, exerciseId)
+                .map(p -> WorkoutExerciseView.from(p.getWorkoutExercise()));
+    }
+}
@@ -0,0 +1,142 @@
+package de.fitness.tracker.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt läuft auf einem eigenen, begrenzten Pool statt auf den
+ * Tomcat-Threads. Ist der Pool samt Warteschlange voll, wird sofort mit
+ * {@link RejectedExecutionException} abgelehnt (Controller antworten mit 429),
+ * damit Login-Spitzen die übrige API nicht ausbremsen. Der Pool bleibt auch
+ * mit virtuellen Threads ein Plattform-Pool, weil BCrypt CPU-gebunden ist.
+ * Auslastung und Ablehnungen werden zusätzlich als password.hashing.* Metriken
+ * exportiert.
+ */
+@Service
+public class PasswordHashingService implements MeterBinder {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // Gleichzeitige Hash-Vorgänge, Standard = Anzahl CPU-Kerne
+    @Value("${app.password-hashing.concurrency:0}")
+    private int concurrency;
+
+    // Wartende Hash-Vorgänge, danach wird abgelehnt (0 = nur freie Threads, keine Warteschlange)
+    @Value("${app.password-hashing.queue-capacity:32}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    // Ergebnis einer Prüfung; rehashed ist gesetzt, wenn der gespeicherte Hash einen zu kleinen Work-Factor hat
+    public record Verification(boolean matches, String rehashed) {
+    }
+
+    public record Stats(int concurrency, int queueCapacity, int active, int queued, long completed, long rejected,
+            long rehashed, double averageHashMillis, double maxHashMillis, double averageWaitMillis) {
+    }
+
+    @PostConstruct
+    void start() {
+        int threads = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue,
+                new CustomizableThreadFactory("password-hash-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Prüfen und bei veraltetem Work-Factor im selben Durchlauf neu hashen (das Klartext-Passwort gibt es nur hier)
+    public CompletableFuture<Verification> verify(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            if (encodedPassword == null || !passwordEncoder.matches(rawPassword, encodedPassword)) {
+                return new Verification(false, null);
+            }
+            if (!passwordEncoder.upgradeEncoding(encodedPassword)) {
+                return new Verification(true, null);
+            }
+            rehashed.increment();
+            return new Verification(true, passwordEncoder.encode(rawPassword));
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("password.hashing.active", this, s -> s.executor.getActiveCount()).register(registry);
+        Gauge.builder("password.hashing.queued", this, s -> s.executor.getQueue().size()).register(registry);
+        FunctionTimer.builder("password.hashing", this, s -> s.completed.sum(), s -> s.hashNanos.sum(),
+                TimeUnit.NANOSECONDS).register(registry);
+        FunctionTimer.builder("password.hashing.wait", this, s -> s.completed.sum(), s -> s.waitNanos.sum(),
+                TimeUnit.NANOSECONDS).register(registry);
+        FunctionCounter.builder("password.hashing.rejected", this, s -> s.rejected.sum()).register(registry);
+        FunctionCounter.builder("password.hashing.rehashed", this, s -> s.rehashed.sum()).register(registry);
+    }
+
+    public Stats stats() {
+        long count = completed.sum();
+        return new Stats(executor.getMaximumPoolSize(), queueCapacity, executor.getActiveCount(),
+                executor.getQueue().size(), count, rejected.sum(), rehashed.sum(), millis(hashNanos.sum(), count),
+                maxHashNanos.get() / 1_000_000.0, millis(waitNanos.sum(), count));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.get();
+                } finally {
+                    long took = System.nanoTime() - startedAt;
+                    completed.increment();
+                    hashNanos.add(took);
+                    waitNanos.add(startedAt - queuedAt);
+                    maxHashNanos.accumulateAndGet(took, Math::max);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private static double millis(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1_000_000.0 / count;
+    }
+}
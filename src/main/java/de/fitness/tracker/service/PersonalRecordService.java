@@ -0,0 +1,126 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.SetHistoryRow;
+import de.fitness.tracker.model.ExerciseSet;
+import de.fitness.tracker.model.PersonalRecord;
+import de.fitness.tracker.model.WorkoutExercise;
+import de.fitness.tracker.repository.ExerciseSetRepository;
+import de.fitness.tracker.repository.PersonalRecordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Persönliche Bestwerte pro (User, Übung). Wird beim Speichern von Sätzen
+ * inkrementell fortgeschrieben; {@link #rebuild(Long)} berechnet alles neu.
+ */
+@Service
+public class PersonalRecordService {
+
+    @Autowired
+    private PersonalRecordRepository recordRepository;
+
+    @Autowired
+    private ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    // Epley-Formel, bei einer Wiederholung ist das Gewicht selbst das 1RM
+    public static Double estimateOneRepMax(Double weight, Integer reps) {
+        if (weight == null || reps == null || reps < 1) {
+            return null;
+        }
+        if (reps == 1) {
+            return weight;
+        }
+        return Math.round(weight * (1 + reps / 30.0) * 10.0) / 10.0;
+    }
+
+    @Transactional
+    public void record(Long userId, LocalDateTime achievedAt, Collection<WorkoutExercise> workoutExercises) {
+        Map<Long, List<ExerciseSet>> setsByExercise = workoutExercises.stream()
+                .filter(we -> we.getSets() != null && !we.getSets().isEmpty())
+                .collect(Collectors.groupingBy(we -> we.getExercise().getId(),
+                        Collectors.flatMapping(we -> we.getSets().stream(), Collectors.toList())));
+        if (setsByExercise.isEmpty()) {
+            return;
+        }
+
+        // Fehlende Zeilen per INSERT ... ON CONFLICT anlegen, dann gesperrt lesen: parallele Saves warten
+        // aufeinander, statt sich gegenseitig zu überschreiben oder am Unique-Index zu scheitern
+        recordRepository.insertMissing(userId, setsByExercise.keySet());
+        for (PersonalRecord record : recordRepository.findByUserIdAndExerciseIdIn(userId, setsByExercise.keySet())) {
+            for (ExerciseSet set : setsByExercise.get(record.getExerciseId())) {
+                apply(record, set.getWeight(), set.getReps(), set.getDurationSeconds(), set.getDistanceKm(),
+                        achievedAt);
+            }
+        }
+    }
+
+    // Alle Bestwerte eines Users aus der Historie neu aufbauen (chronologisch, wie beim Speichern)
+    @Transactional
+    public int rebuild(Long userId) {
+        recordRepository.deleteByUserId(userId);
+
+        Map<Long, PersonalRecord> records = new HashMap<>();
+        for (SetHistoryRow row : archiveService.withArchivedHistory(userId,
+                exerciseSetRepository.findHistoryRowsByUserId(userId))) {
+            PersonalRecord record = records.computeIfAbsent(row.getExerciseId(), id -> newRecord(userId, id));
+            apply(record, row.getWeight(), row.getReps(), row.getDurationSeconds(), row.getDistanceKm(),
+                    row.getStartTime());
+        }
+
+        recordRepository.saveAll(records.values());
+        return records.size();
+    }
+
+    private static PersonalRecord newRecord(Long userId, Long exerciseId) {
+        PersonalRecord record = new PersonalRecord();
+        record.setUserId(userId);
+        record.setExerciseId(exerciseId);
+        return record;
+    }
+
+    // Nur echte Verbesserungen übernehmen, damit das Datum beim ersten Erreichen bleibt
+    private static void apply(PersonalRecord record, Double weight, Integer reps, Integer durationSeconds,
+            Double distanceKm, LocalDateTime at) {
+        if (weight != null && weight > 0 && reps != null && reps > 0) {
+            if (record.getMaxWeight() == null || weight > record.getMaxWeight()) {
+                record.setMaxWeight(weight);
+                record.setMaxWeightAt(at);
+            }
+
+            Double oneRepMax = estimateOneRepMax(weight, reps);
+            if (record.getEstimatedOneRepMax() == null || oneRepMax > record.getEstimatedOneRepMax()) {
+                record.setEstimatedOneRepMax(oneRepMax);
+                record.setEstimatedOneRepMaxAt(at);
+            }
+
+            double volume = weight * reps;
+            if (record.getBestSetVolume() == null || volume > record.getBestSetVolume()) {
+                record.setBestSetVolume(volume);
+                record.setBestSetVolumeAt(at);
+            }
+        }
+
+        if (durationSeconds != null && durationSeconds > 0
+                && (record.getLongestDurationSeconds() == null || durationSeconds > record.getLongestDurationSeconds())) {
+            record.setLongestDurationSeconds(durationSeconds);
+            record.setLongestDurationAt(at);
+        }
+
+        if (distanceKm != null && distanceKm > 0
+                && (record.getFarthestDistanceKm() == null || distanceKm > record.getFarthestDistanceKm())) {
+            record.setFarthestDistanceKm(distanceKm);
+            record.setFarthestDistanceAt(at);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.ExerciseProgress;
+import de.fitness.tracker.dto.ProgressPoint;
+import de.fitness.tracker.dto.SessionAggregate;
+import de.fitness.tracker.repository.ExerciseSetRepository;
+import de.fitness.tracker.util.Downsampling;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Fortschritt einer Übung als Zeitreihe: die Datenbank aggregiert pro Workout,
+ * hier wird nach Tag/Woche/Monat gebündelt und per LTTB auf die gewünschte
+ * Punktzahl reduziert.
+ */
+@Service
+public class ProgressService {
+
+    public enum Bucket {
+        DAY, WEEK, MONTH
+    }
+
+    public enum Metric {
+        ONE_REP_MAX, TOP_SET, VOLUME
+    }
+
+    @Autowired
+    private ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    @Transactional(readOnly = true)
+    public ExerciseProgress exerciseProgress(Long userId, Long exerciseId, LocalDateTime from, LocalDateTime to,
+            Bucket bucket, Metric metric, int maxPoints) {
+        List<SessionAggregate> sessions = exerciseSetRepository.aggregateSessions(userId, exerciseId, from, to);
+        List<SessionAggregate> archived = archiveService.aggregateSessions(userId, exerciseId, from, to);
+        if (!archived.isEmpty()) {
+            sessions = new ArrayList<>(sessions);
+            sessions.addAll(archived);
+            sessions.sort(Comparator.comparing(SessionAggregate::getStartTime)
+                    .thenComparing(SessionAggregate::getWorkoutId));
+        }
+
+        // Sessions kommen sortiert, daher reicht ein einziger Durchlauf
+        List<ProgressPoint> points = new ArrayList<>();
+        LocalDate current = null;
+        double oneRepMax = 0;
+        double topSet = 0;
+        double volume = 0;
+        int count = 0;
+        for (SessionAggregate session : sessions) {
+            LocalDate key = bucketStart(session.getStartTime().toLocalDate(), bucket);
+            if (!key.equals(current)) {
+                if (current != null) {
+                    points.add(new ProgressPoint(current, round(oneRepMax), topSet, round(volume), count));
+                }
+                current = key;
+                oneRepMax = 0;
+                topSet = 0;
+                volume = 0;
+                count = 0;
+            }
+            oneRepMax = Math.max(oneRepMax, valueOf(session.getEstimatedOneRepMax()));
+            topSet = Math.max(topSet, valueOf(session.getTopSetWeight()));
+            volume += valueOf(session.getTotalVolume());
+            count++;
+        }
+        if (current != null) {
+            points.add(new ProgressPoint(current, round(oneRepMax), topSet, round(volume), count));
+        }
+
+        List<ProgressPoint> sampled = Downsampling.lttb(points, maxPoints, p -> p.getDate().toEpochDay(),
+                metricOf(metric));
+        return new ExerciseProgress(exerciseId, bucket.name(), points.size(), sampled);
+    }
+
+    private static LocalDate bucketStart(LocalDate date, Bucket bucket) {
+        return switch (bucket) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static ToDoubleFunction<ProgressPoint> metricOf(Metric metric) {
+        return switch (metric) {
+            case ONE_REP_MAX -> ProgressPoint::getEstimatedOneRepMax;
+            case TOP_SET -> ProgressPoint::getTopSetWeight;
+            case VOLUME -> ProgressPoint::getTotalVolume;
+        };
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
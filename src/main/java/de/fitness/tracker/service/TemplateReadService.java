@@ -0,0 +1,45 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.TemplateExerciseView;
+import de.fitness.tracker.dto.TemplateView;
+import de.fitness.tracker.repository.WorkoutTemplateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Lese-Modell für Vorlagen: zwei Projektions-Queries (Vorlagen, Übungen).
+ */
+@Service
+@Transactional(readOnly = true)
+public class TemplateReadService {
+
+    @Autowired
+    private WorkoutTemplateRepository templateRepository;
+
+    public List<TemplateView> findByUser(Long userId) {
+        return withExercises(templateRepository.findViewsByUserId(userId));
+    }
+
+    public Optional<TemplateView> findById(Long id) {
+        return templateRepository.findViewById(id).map(t -> withExercises(List.of(t)).get(0));
+    }
+
+    private List<TemplateView> withExercises(List<TemplateView> templates) {
+        if (templates.isEmpty()) {
+            return templates;
+        }
+        List<Long> ids = templates.stream().map(TemplateView::getId).toList();
+        Map<Long, List<TemplateExerciseView>> exercisesByTemplate = templateRepository
+                .findExerciseViewsByTemplateIdIn(ids).stream()
+                .collect(Collectors.groupingBy(TemplateExerciseView::getTemplateId));
+
+        return templates.stream().map(t -> t.withExercises(exercisesByTemplate.getOrDefault(t.getId(), List.of())))
+                .toList();
+    }
+}
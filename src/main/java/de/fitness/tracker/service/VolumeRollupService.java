@@ -0,0 +1,154 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.ExerciseView;
+import de.fitness.tracker.dto.SetHistoryRow;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.ExerciseSet;
+import de.fitness.tracker.model.MuscleGroupVolume;
+import de.fitness.tracker.model.RollupPeriod;
+import de.fitness.tracker.repository.ExerciseSetRepository;
+import de.fitness.tracker.repository.MuscleGroupVolumeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Wochen-/Monats-Rollups (Sätze, Wiederholungen, Tonnage, Cardio-Dauer) pro
+ * Muskelgruppe. Neue Sätze werden aufaddiert, {@link #rebuild(Long)} rechnet
+ * einen User komplett neu.
+ */
+@Service
+public class VolumeRollupService {
+
+    // Zeilen, die es noch nicht gibt, mit Nullwerten anlegen; gleichzeitige Erstanlage endet nicht im Unique-Fehler
+    private static final String INSERT_MISSING = "INSERT INTO muscle_group_volumes "
+            + "(id, user_id, period, period_start, muscle_group, sets, reps, tonnage, cardio_duration_seconds) "
+            + "SELECT nextval('muscle_group_volumes_seq'), ?, ?, ?, ?, 0, 0, 0, 0 ON CONFLICT DO NOTHING";
+
+    // Addition in der Datenbank: parallele Saves desselben Users gehen nicht verloren
+    private static final String ADD = "UPDATE muscle_group_volumes SET sets = sets + ?, reps = reps + ?, "
+            + "tonnage = CAST(tonnage + ? AS NUMERIC(14, 1)), "
+            + "cardio_duration_seconds = cardio_duration_seconds + ? "
+            + "WHERE user_id = ? AND period = ? AND period_start = ? AND muscle_group = ?";
+
+    @Autowired
+    private MuscleGroupVolumeRepository volumeRepository;
+
+    @Autowired
+    private ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    @Autowired
+    private ExerciseCatalog exerciseCatalog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Nur neu gespeicherte Sätze übergeben – die Werte werden addiert
+    @Transactional
+    public void record(Long userId, LocalDateTime workoutStartTime, Map<Exercise, ? extends Collection<ExerciseSet>> setsByExercise) {
+        if (setsByExercise.values().stream().allMatch(Collection::isEmpty)) {
+            return;
+        }
+
+        // Zuwächse pro (Zeitraum, Muskelgruppe) sammeln, dann je ein Batch für fehlende Zeilen und für die Addition
+        LocalDate day = workoutStartTime.toLocalDate();
+        Map<String, MuscleGroupVolume> deltas = new HashMap<>();
+        setsByExercise.forEach((exercise, sets) -> {
+            for (ExerciseSet set : sets) {
+                add(deltas, userId, day, muscleGroupOf(exercise), set.getWeight(), set.getReps(),
+                        set.getDurationSeconds());
+            }
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_MISSING, deltas.values().stream()
+                .map(d -> new Object[] { userId, d.getPeriod().name(), d.getPeriodStart(), d.getMuscleGroup() })
+                .toList());
+        jdbcTemplate.batchUpdate(ADD, deltas.values().stream()
+                .map(d -> new Object[] { d.getSets(), d.getReps(), d.getTonnage(), d.getCardioDurationSeconds(), userId,
+                        d.getPeriod().name(), d.getPeriodStart(), d.getMuscleGroup() })
+                .toList());
+    }
+
+    @Transactional
+    public int rebuild(Long userId) {
+        volumeRepository.deleteByUserId(userId);
+
+        Map<Long, String> muscleGroups = exerciseCatalog.current().exercises().stream()
+                .collect(Collectors.toMap(ExerciseView::getId, v -> v.getPrimaryMuscleGroup() != null
+                        ? v.getPrimaryMuscleGroup().name() : MuscleGroupVolume.UNASSIGNED));
+
+        Map<String, MuscleGroupVolume> rows = new HashMap<>();
+        for (SetHistoryRow row : archiveService.withArchivedHistory(userId,
+                exerciseSetRepository.findHistoryRowsByUserId(userId))) {
+            add(rows, userId, row.getStartTime().toLocalDate(),
+                    muscleGroups.getOrDefault(row.getExerciseId(), MuscleGroupVolume.UNASSIGNED), row.getWeight(),
+                    row.getReps(), row.getDurationSeconds());
+        }
+
+        volumeRepository.saveAll(rows.values());
+        return rows.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<MuscleGroupVolume> find(Long userId, RollupPeriod period, LocalDate from, LocalDate to) {
+        return volumeRepository.findByUserIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAscMuscleGroupAsc(userId,
+                period, periodStart(from, period), to);
+    }
+
+    public static LocalDate periodStart(LocalDate day, RollupPeriod period) {
+        return switch (period) {
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    // Ein Satz zählt in die Woche und in den Monat
+    private static void add(Map<String, MuscleGroupVolume> rows, Long userId, LocalDate day, String muscleGroup,
+            Double weight, Integer reps, Integer durationSeconds) {
+        for (RollupPeriod period : RollupPeriod.values()) {
+            LocalDate start = periodStart(day, period);
+            MuscleGroupVolume row = rows.computeIfAbsent(key(period, start, muscleGroup), k -> {
+                MuscleGroupVolume v = new MuscleGroupVolume();
+                v.setUserId(userId);
+                v.setPeriod(period);
+                v.setPeriodStart(start);
+                v.setMuscleGroup(muscleGroup);
+                return v;
+            });
+
+            row.setSets(row.getSets() + 1);
+            if (reps != null && reps > 0) {
+                row.setReps(row.getReps() + reps);
+                if (weight != null && weight > 0) {
+                    row.setTonnage(Math.round((row.getTonnage() + weight * reps) * 10.0) / 10.0);
+                }
+            }
+            if (durationSeconds != null && durationSeconds > 0) {
+                row.setCardioDurationSeconds(row.getCardioDurationSeconds() + durationSeconds);
+            }
+        }
+    }
+
+    private static String muscleGroupOf(Exercise exercise) {
+        return exercise.getPrimaryMuscleGroup() != null ? exercise.getPrimaryMuscleGroup().name()
+                : MuscleGroupVolume.UNASSIGNED;
+    }
+
+    private static String key(RollupPeriod period, LocalDate start, String muscleGroup) {
+        return period + "|" + start + "|" + muscleGroup;
+    }
+}
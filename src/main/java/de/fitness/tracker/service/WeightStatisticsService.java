@@ -0,0 +1,121 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.WeightStatPoint;
+import de.fitness.tracker.dto.WeightStatistics;
+import de.fitness.tracker.model.WeightMeasurement;
+import de.fitness.tracker.repository.WeightMeasurementRepository;
+import de.fitness.tracker.util.Downsampling;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Statistiken zu Körpermessungen: Zeitraum wird in der Datenbank gefiltert,
+ * gleitende Durchschnitte in einem Durchlauf berechnet und die Reihe per LTTB
+ * auf die gewünschte Punktzahl reduziert.
+ */
+@Service
+public class WeightStatisticsService {
+
+    private static final int SHORT_WINDOW_DAYS = 7;
+    private static final int LONG_WINDOW_DAYS = 30;
+
+    public enum Metric {
+        WEIGHT(WeightMeasurement::getWeight),
+        BODY_FAT(WeightMeasurement::getBodyFat),
+        MUSCLE_MASS(WeightMeasurement::getMuscleMass),
+        BONE_MASS(WeightMeasurement::getBoneMass),
+        BMI(WeightMeasurement::getBmi),
+        METABOLIC_AGE(m -> m.getMetabolicAge() != null ? m.getMetabolicAge().doubleValue() : null),
+        WATER_PERCENTAGE(WeightMeasurement::getWaterPercentage),
+        VISCERAL_FAT(m -> m.getVisceralFat() != null ? m.getVisceralFat().doubleValue() : null);
+
+        private final Function<WeightMeasurement, Double> value;
+
+        Metric(Function<WeightMeasurement, Double> value) {
+            this.value = value;
+        }
+    }
+
+    @Autowired
+    private WeightMeasurementRepository weightRepository;
+
+    // Eine Query für alle angefragten Metriken
+    @Transactional(readOnly = true)
+    public List<WeightStatistics> statistics(Long userId, LocalDateTime from, LocalDateTime to,
+            Collection<Metric> metrics, int maxPoints) {
+        // 30 Tage Vorlauf, damit die Durchschnitte am Anfang des Zeitraums vollständig sind
+        List<WeightMeasurement> measurements = weightRepository.findByUserIdAndDateBetweenOrderByDateAsc(userId,
+                from.minusDays(LONG_WINDOW_DAYS), to);
+
+        List<WeightStatistics> result = new ArrayList<>(metrics.size());
+        for (Metric metric : metrics) {
+            result.add(series(measurements, from, metric, maxPoints));
+        }
+        return result;
+    }
+
+    private static WeightStatistics series(List<WeightMeasurement> measurements, LocalDateTime from, Metric metric,
+            int maxPoints) {
+        List<LocalDateTime> dates = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        for (WeightMeasurement m : measurements) {
+            Double value = metric.value.apply(m);
+            if (value != null) {
+                dates.add(m.getDate());
+                values.add(value);
+            }
+        }
+
+        // Zwei Fenster, die mit der Reihe mitwandern: jeder Wert wird einmal addiert und einmal abgezogen
+        List<WeightStatPoint> points = new ArrayList<>();
+        int shortStart = 0;
+        int longStart = 0;
+        double shortSum = 0;
+        double longSum = 0;
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int i = 0; i < values.size(); i++) {
+            LocalDateTime date = dates.get(i);
+            double value = values.get(i);
+            shortSum += value;
+            longSum += value;
+            while (!dates.get(shortStart).isAfter(date.minusDays(SHORT_WINDOW_DAYS))) {
+                shortSum -= values.get(shortStart++);
+            }
+            while (!dates.get(longStart).isAfter(date.minusDays(LONG_WINDOW_DAYS))) {
+                longSum -= values.get(longStart++);
+            }
+
+            if (date.isBefore(from)) {
+                continue;
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            points.add(new WeightStatPoint(date, value, round(shortSum / (i + 1 - shortStart)),
+                    round(longSum / (i + 1 - longStart))));
+        }
+
+        if (points.isEmpty()) {
+            return new WeightStatistics(metric.name(), 0, null, null, null, null, null, List.of());
+        }
+
+        double first = points.get(0).getValue();
+        double last = points.get(points.size() - 1).getValue();
+        List<WeightStatPoint> sampled = Downsampling.lttb(points, maxPoints,
+                p -> p.getDate().toEpochSecond(ZoneOffset.UTC), WeightStatPoint::getValue);
+        return new WeightStatistics(metric.name(), points.size(), min, max, first, last, round(last - first),
+                sampled);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+}
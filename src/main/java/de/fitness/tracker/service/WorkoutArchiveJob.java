@@ -0,0 +1,104 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Archivlauf über alle User im Hintergrund, nächtlich (app.archive.cron, "-"
+ * schaltet ab) oder per Admin-Endpunkt. User-IDs seitenweise, pro User eine
+ * eigene Transaktion, ein fehlerhafter User hält die übrigen nicht auf. Es
+ * läuft höchstens ein Lauf gleichzeitig.
+ */
+@Component
+public class WorkoutArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutArchiveJob.class);
+
+    private static final int PAGE_SIZE = 500;
+
+    public record Status(boolean running, int users, int workouts, int failed, LocalDateTime startedAt,
+            LocalDateTime finishedAt) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor taskExecutor;
+
+    private final AtomicReference<Status> status = new AtomicReference<>();
+
+    @Scheduled(cron = "${app.archive.cron:-}")
+    public void runScheduled() {
+        if (start(null).isEmpty()) {
+            log.info("Skipping scheduled archive run, another run is still in progress");
+        }
+    }
+
+    // Startet den Lauf (minAgeDays null = app.archive.min-age-days); leer, wenn schon einer läuft
+    public Optional<Status> start(Integer minAgeDays) {
+        Status started = new Status(true, 0, 0, 0, LocalDateTime.now(), null);
+        Status previous = status.get();
+        boolean claimed = previous == null ? status.compareAndSet(null, started)
+                : !previous.running() && status.compareAndSet(previous, started);
+        if (!claimed) {
+            return Optional.empty();
+        }
+
+        LocalDateTime cutoff = archiveService.cutoff(minAgeDays);
+        try {
+            taskExecutor.execute(() -> run(cutoff));
+        } catch (RuntimeException e) {
+            status.set(new Status(false, 0, 0, 0, started.startedAt(), LocalDateTime.now()));
+            throw e;
+        }
+        return Optional.of(started);
+    }
+
+    public Optional<Status> status() {
+        return Optional.ofNullable(status.get());
+    }
+
+    private void run(LocalDateTime cutoff) {
+        LocalDateTime startedAt = status.get().startedAt();
+        int users = 0;
+        int workouts = 0;
+        int failed = 0;
+        try {
+            List<Long> page = userRepository.findIdsAfter(0L, Limit.of(PAGE_SIZE));
+            while (!page.isEmpty()) {
+                for (Long userId : page) {
+                    try {
+                        workouts += archiveService.archiveUser(userId, cutoff);
+                    } catch (RuntimeException e) {
+                        failed++;
+                        log.warn("Archiving workouts of user {} failed", userId, e);
+                    }
+                    users++;
+                }
+                status.set(new Status(true, users, workouts, failed, startedAt, null));
+                page = userRepository.findIdsAfter(page.get(page.size() - 1), Limit.of(PAGE_SIZE));
+            }
+        } finally {
+            status.set(new Status(false, users, workouts, failed, startedAt, LocalDateTime.now()));
+            log.info("Archived {} workouts of {} users ({} failed)", workouts, users, failed);
+        }
+    }
+}
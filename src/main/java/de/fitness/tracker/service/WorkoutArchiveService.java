@@ -0,0 +1,432 @@
+package de.fitness.tracker.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.fitness.tracker.dto.ArchiveRef;
+import de.fitness.tracker.dto.ExerciseSetView;
+import de.fitness.tracker.dto.ExerciseView;
+import de.fitness.tracker.dto.ExportSetRow;
+import de.fitness.tracker.dto.SessionAggregate;
+import de.fitness.tracker.dto.SetHistoryRow;
+import de.fitness.tracker.dto.WorkoutExerciseView;
+import de.fitness.tracker.dto.WorkoutView;
+import de.fitness.tracker.model.UserCollection;
+import de.fitness.tracker.model.WorkoutArchive;
+import de.fitness.tracker.repository.ExerciseSetRepository;
+import de.fitness.tracker.repository.WorkoutArchiveRepository;
+import de.fitness.tracker.repository.WorkoutExerciseRepository;
+import de.fitness.tracker.repository.WorkoutRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Kalte Historie: Workouts, die älter als app.archive.min-age-days sind,
+ * wandern pro User und Kalenderjahr in einen komprimierten Block
+ * (workout_archives, Smile + Deflate) und verschwinden aus den heißen
+ * Tabellen. Historie, Export, Fortschritt und die Rebuilds lesen die
+ * betroffenen Jahre hier mit – ohne Archiv kostet das eine leere Query,
+ * entpackte Jahre bleiben begrenzt im Speicher.
+ * Workouts, auf die eine "Letztes Mal"-Projektion zeigt, bleiben heiß.
+ */
+@Service
+public class WorkoutArchiveService {
+
+    // Bei inkompatiblen Änderungen an den Records hochzählen und beim Lesen unterscheiden
+    static final int FORMAT_VERSION = 1;
+
+    // Workouts pro Lade-/Lösch-Schritt, hält IN-Listen und Speicher klein
+    private static final int CHUNK_SIZE = 500;
+
+    private static final TypeReference<List<ArchivedWorkout>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private static final Comparator<ArchivedWorkout> CHRONOLOGICAL = Comparator
+            .comparing(ArchivedWorkout::startTime).thenComparing(ArchivedWorkout::id);
+
+    private static final Comparator<SetHistoryRow> HISTORY_ORDER = Comparator
+            .comparing(SetHistoryRow::getStartTime).thenComparing(SetHistoryRow::getWorkoutId);
+
+    // Inhalt eines Archiv-Blocks; IDs bleiben erhalten, damit Cursor und Exporte stabil sind
+    public record ArchivedWorkout(Long id, String name, LocalDateTime startTime, LocalDateTime endTime,
+            List<ArchivedExercise> exercises) {
+    }
+
+    // Name nur als Rückfall, falls die Übung nicht mehr im Katalog ist
+    public record ArchivedExercise(Long id, Long exerciseId, String exerciseName, Integer orderIndex, String comment,
+            List<ArchivedSet> sets) {
+    }
+
+    public record ArchivedSet(Long id, Integer setNumber, Double weight, Integer reps, Integer durationSeconds,
+            Double distanceKm) {
+    }
+
+    // Entpacktes Jahr mit Stand (updated_at) und letztem Lesezugriff für die Verdrängung
+    private static final class DecodedYear {
+        private final LocalDateTime updatedAt;
+        private final List<ArchivedWorkout> workouts;
+        private volatile long lastRead = System.nanoTime();
+
+        DecodedYear(LocalDateTime updatedAt, List<ArchivedWorkout> workouts) {
+            this.updatedAt = updatedAt;
+            this.workouts = workouts;
+        }
+
+        LocalDateTime updatedAt() {
+            return updatedAt;
+        }
+
+        List<ArchivedWorkout> workouts() {
+            return workouts;
+        }
+
+        long lastRead() {
+            return lastRead;
+        }
+
+        void touch() {
+            lastRead = System.nanoTime();
+        }
+    }
+
+    @Autowired
+    private WorkoutArchiveRepository archiveRepository;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutExerciseRepository workoutExerciseRepository;
+
+    @Autowired
+    private ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    private CollectionVersionService versionService;
+
+    @Autowired
+    private ExerciseCatalog exerciseCatalog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.archive.min-age-days:365}")
+    private int minAgeDays;
+
+    // Entpackte Jahre im Speicher (0 = aus); ein Eintrag gilt nur, solange updated_at unverändert ist
+    @Value("${app.archive.cache-size:256}")
+    private int cacheSize;
+
+    private final Map<Long, DecodedYear> decodedYears = new ConcurrentHashMap<>();
+
+    private ObjectMapper smileMapper;
+
+    @PostConstruct
+    void init() {
+        // Gleiche Module wie die API (Java-Time), null-Felder weglassen
+        smileMapper = objectMapper.copyWith(new SmileFactory());
+        smileMapper.setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    public LocalDateTime cutoff(Integer minAgeDays) {
+        return LocalDate.now().minusDays(minAgeDays != null ? minAgeDays : this.minAgeDays).atStartOfDay();
+    }
+
+    // Verschiebt alle Kandidaten vor cutoff ins Archiv ihres Jahres, Rückgabe: Anzahl Workouts
+    @Transactional
+    public int archiveUser(Long userId, LocalDateTime cutoff) {
+        List<WorkoutView> candidates = workoutRepository.findArchiveCandidates(userId, cutoff);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, List<WorkoutView>> byYear = candidates.stream().collect(
+                Collectors.groupingBy(w -> w.getStartTime().getYear(), TreeMap::new, Collectors.toList()));
+        byYear.forEach((year, workouts) -> {
+            WorkoutArchive archive = archiveRepository.findByUserIdAndYear(userId, year)
+                    .orElseGet(() -> newArchive(userId, year));
+            // Bereits archivierte Workouts desselben Jahres übernehmen, nach ID dedupliziert
+            Map<Long, ArchivedWorkout> merged = new HashMap<>();
+            if (archive.getPayload() != null) {
+                decode(archive).forEach(w -> merged.put(w.id(), w));
+            }
+
+            for (int i = 0; i < workouts.size(); i += CHUNK_SIZE) {
+                List<WorkoutView> chunk = workouts.subList(i, Math.min(i + CHUNK_SIZE, workouts.size()));
+                List<Long> ids = chunk.stream().map(WorkoutView::getId).toList();
+                Map<Long, List<ArchivedExercise>> exercises = archivedExercises(ids);
+                chunk.forEach(w -> merged.put(w.getId(), new ArchivedWorkout(w.getId(), w.getName(),
+                        w.getStartTime(), w.getEndTime(), exercises.getOrDefault(w.getId(), List.of()))));
+
+                // Kinder zuerst, per Bulk-Delete ohne Entities zu laden
+                exerciseSetRepository.deleteByWorkoutIdIn(ids);
+                workoutExerciseRepository.deleteByWorkoutIdIn(ids);
+                workoutRepository.deleteByIdIn(ids);
+            }
+
+            store(archive, merged.values());
+        });
+
+        versionService.bump(userId, UserCollection.WORKOUTS);
+        return candidates.size();
+    }
+
+    // Eine Historien-Seite aus dem Archiv: höchstens limit Workouts in [from, vor (beforeTime, beforeId)], neueste
+    // zuerst. Jahre werden absteigend entpackt; sobald limit erreicht ist, bleiben ältere Jahre unberührt
+    @Transactional(readOnly = true)
+    public List<WorkoutView> findHistoryViews(Long userId, LocalDateTime from, LocalDateTime beforeTime,
+            Long beforeId, int limit) {
+        List<ArchiveRef> refs = archiveRepository.findRefsOverlapping(userId, from, beforeTime);
+        if (refs.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ExerciseView> catalog = exerciseCatalog.current().byId();
+        List<WorkoutView> views = new ArrayList<>();
+        for (ArchiveRef ref : refs.reversed()) {
+            decoded(List.of(ref)).get(0).stream()
+                    .filter(w -> !w.startTime().isBefore(from) && (w.startTime().isBefore(beforeTime)
+                            || w.startTime().equals(beforeTime) && w.id() < beforeId))
+                    .sorted(CHRONOLOGICAL.reversed()).limit(limit - views.size())
+                    .forEach(w -> views.add(toView(userId, w, catalog)));
+            if (views.size() >= limit) {
+                break;
+            }
+        }
+        return views;
+    }
+
+    @Transactional(readOnly = true)
+    public List<WorkoutView> findAllViews(Long userId) {
+        Map<Long, ExerciseView> catalog = exerciseCatalog.current().byId();
+        return workouts(archiveRepository.findRefsByUserId(userId)).sorted(CHRONOLOGICAL.reversed())
+                .map(w -> toView(userId, w, catalog)).toList();
+    }
+
+    // Export-Zeilen in derselben Reihenfolge wie WorkoutRepository.streamExportRows. Die Jahre werden erst beim
+    // Weiterlesen einzeln geladen und entpackt, am Cache vorbei: ein Export hält höchstens ein Jahr im Speicher
+    // und verdrängt nicht die Jahre, die Historie und Fortschritt gerade brauchen
+    @Transactional(readOnly = true)
+    public Iterator<ExportSetRow> exportRows(Long userId) {
+        Map<Long, ExerciseView> catalog = exerciseCatalog.current().byId();
+        return archiveRepository.findRefsByUserId(userId).stream()
+                .flatMap(ref -> archiveRepository.findPayloadById(ref.getId()).stream())
+                .flatMap(year -> decode(year.getFormatVersion(), year.getPayload()).stream())
+                .flatMap(w -> exportRows(w, catalog)).iterator();
+    }
+
+    // Wie ExerciseSetRepository.aggregateSessions, chronologisch
+    @Transactional(readOnly = true)
+    public List<SessionAggregate> aggregateSessions(Long userId, Long exerciseId, LocalDateTime from,
+            LocalDateTime to) {
+        List<SessionAggregate> sessions = new ArrayList<>();
+        workouts(archiveRepository.findRefsOverlapping(userId, from, to))
+                .filter(w -> !w.startTime().isBefore(from) && !w.startTime().isAfter(to))
+                .forEach(w -> {
+                    SessionAggregate session = aggregate(w, exerciseId);
+                    if (session != null) {
+                        sessions.add(session);
+                    }
+                });
+        return sessions;
+    }
+
+    // Heiße Satz-Historie um die archivierten Jahre ergänzen, chronologisch wie findHistoryRowsByUserId
+    @Transactional(readOnly = true)
+    public List<SetHistoryRow> withArchivedHistory(Long userId, List<SetHistoryRow> hot) {
+        List<ArchiveRef> refs = archiveRepository.findRefsByUserId(userId);
+        if (refs.isEmpty()) {
+            return hot;
+        }
+        List<SetHistoryRow> rows = new ArrayList<>(hot);
+        workouts(refs).forEach(w -> w.exercises().forEach(e -> e.sets().forEach(s -> rows.add(new SetHistoryRow(
+                e.exerciseId(), w.id(), w.startTime(), s.weight(), s.reps(), s.durationSeconds(), s.distanceKm())))));
+        rows.sort(HISTORY_ORDER);
+        return rows;
+    }
+
+    private Stream<ArchivedWorkout> workouts(List<ArchiveRef> refs) {
+        return decoded(refs).stream().flatMap(List::stream);
+    }
+
+    // Entpackte Jahre in Reihenfolge der refs: aus dem Cache, fehlende bzw. geänderte in einer Query nachladen
+    private List<List<ArchivedWorkout>> decoded(List<ArchiveRef> refs) {
+        Map<Long, List<ArchivedWorkout>> years = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (ArchiveRef ref : refs) {
+            DecodedYear cached = decodedYears.get(ref.getId());
+            if (cached != null && cached.updatedAt().equals(ref.getUpdatedAt())) {
+                cached.touch();
+                years.put(ref.getId(), cached.workouts());
+            } else {
+                missing.add(ref.getId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (WorkoutArchive archive : archiveRepository.findAllById(missing)) {
+                List<ArchivedWorkout> workouts = decode(archive);
+                cache(archive, workouts);
+                years.put(archive.getId(), workouts);
+            }
+        }
+        // Zwischen Ref- und Payload-Query gelöschte Jahre fehlen einfach
+        return refs.stream().map(ref -> years.getOrDefault(ref.getId(), List.of())).toList();
+    }
+
+    // Begrenzt auf app.archive.cache-size Jahre; beim Überlauf fliegt das am längsten nicht gelesene
+    private void cache(WorkoutArchive archive, List<ArchivedWorkout> workouts) {
+        if (cacheSize <= 0) {
+            return;
+        }
+        decodedYears.put(archive.getId(), new DecodedYear(archive.getUpdatedAt(), workouts));
+        while (decodedYears.size() > cacheSize) {
+            decodedYears.entrySet().stream().min(Comparator.comparingLong(e -> e.getValue().lastRead()))
+                    .ifPresent(e -> decodedYears.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private Map<Long, List<ArchivedExercise>> archivedExercises(List<Long> workoutIds) {
+        Map<Long, List<ArchivedSet>> setsByExercise = exerciseSetRepository.findViewsByWorkoutIdIn(workoutIds)
+                .stream().collect(Collectors.groupingBy(ExerciseSetView::getWorkoutExerciseId,
+                        Collectors.mapping(s -> new ArchivedSet(s.getId(), s.getSetNumber(), s.getWeight(),
+                                s.getReps(), s.getDurationSeconds(), s.getDistanceKm()), Collectors.toList())));
+        // Reihenfolge (orderIndex bzw. setNumber) kommt sortiert aus den Queries
+        return workoutExerciseRepository.findViewsByWorkoutIdIn(workoutIds).stream()
+                .collect(Collectors.groupingBy(WorkoutExerciseView::getWorkoutId, Collectors.mapping(
+                        we -> new ArchivedExercise(we.getId(), we.getExercise().getId(), we.getExercise().getName(),
+                                we.getOrderIndex(), we.getComment(), setsByExercise.getOrDefault(we.getId(), List.of())),
+                        Collectors.toList())));
+    }
+
+    private static WorkoutArchive newArchive(Long userId, Integer year) {
+        WorkoutArchive archive = new WorkoutArchive();
+        archive.setUserId(userId);
+        archive.setYear(year);
+        return archive;
+    }
+
+    private void store(WorkoutArchive archive, Collection<ArchivedWorkout> workouts) {
+        List<ArchivedWorkout> sorted = workouts.stream().sorted(CHRONOLOGICAL).toList();
+        archive.setFormatVersion(FORMAT_VERSION);
+        archive.setWorkoutCount(sorted.size());
+        archive.setSetCount(sorted.stream().flatMap(w -> w.exercises().stream()).mapToInt(e -> e.sets().size()).sum());
+        archive.setFirstStartTime(sorted.get(0).startTime());
+        archive.setLastStartTime(sorted.get(sorted.size() - 1).startTime());
+        archive.setPayload(encode(sorted));
+        archive.setUpdatedAt(LocalDateTime.now());
+        archiveRepository.save(archive);
+    }
+
+    private byte[] encode(List<ArchivedWorkout> workouts) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            smileMapper.writeValue(out, workouts);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<ArchivedWorkout> decode(WorkoutArchive archive) {
+        return decode(archive.getFormatVersion(), archive.getPayload());
+    }
+
+    private List<ArchivedWorkout> decode(int formatVersion, byte[] payload) {
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported archive format " + formatVersion);
+        }
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(payload))) {
+            return smileMapper.readValue(in, PAYLOAD_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static WorkoutView toView(Long userId, ArchivedWorkout w, Map<Long, ExerciseView> catalog) {
+        return new WorkoutView(w.id(), userId, w.name(), w.startTime(), w.endTime(), w.exercises().stream()
+                .map(e -> new WorkoutExerciseView(e.id(), w.id(), exerciseOf(e, catalog), e.orderIndex(), e.comment(),
+                        e.sets().stream().map(s -> new ExerciseSetView(s.id(), e.id(), s.setNumber(), s.weight(),
+                                s.reps(), s.durationSeconds(), s.distanceKm())).toList()))
+                .toList());
+    }
+
+    private static ExerciseView exerciseOf(ArchivedExercise e, Map<Long, ExerciseView> catalog) {
+        ExerciseView exercise = catalog.get(e.exerciseId());
+        return exercise != null ? exercise : new ExerciseView(e.exerciseId(), e.exerciseName(), null, null, null, null);
+    }
+
+    private static String exerciseNameOf(ArchivedExercise e, Map<Long, ExerciseView> catalog) {
+        return exerciseOf(e, catalog).getName();
+    }
+
+    // Wie der LEFT JOIN im Export: Workout ohne Übungen bzw. Übung ohne Sätze ergibt eine Zeile mit null-Feldern
+    private static Stream<ExportSetRow> exportRows(ArchivedWorkout w, Map<Long, ExerciseView> catalog) {
+        if (w.exercises().isEmpty()) {
+            return Stream.of(new ExportSetRow(w.id(), w.name(), w.startTime(), w.endTime(), null, null, null, null,
+                    null, null, null, null, null));
+        }
+        return w.exercises().stream().flatMap(e -> {
+            String exerciseName = exerciseNameOf(e, catalog);
+            if (e.sets().isEmpty()) {
+                return Stream.of(new ExportSetRow(w.id(), w.name(), w.startTime(), w.endTime(), e.id(),
+                        e.orderIndex(), exerciseName, e.comment(), null, null, null, null, null));
+            }
+            return e.sets().stream().map(s -> new ExportSetRow(w.id(), w.name(), w.startTime(), w.endTime(), e.id(),
+                    e.orderIndex(), exerciseName, e.comment(), s.setNumber(), s.weight(), s.reps(),
+                    s.durationSeconds(), s.distanceKm()));
+        });
+    }
+
+    // Gleiche Filter und Formeln wie die Aggregat-Query: nur Sätze mit Gewicht und Wiederholungen
+    private static SessionAggregate aggregate(ArchivedWorkout w, Long exerciseId) {
+        double topSet = 0;
+        double oneRepMax = 0;
+        double volume = 0;
+        long sets = 0;
+        for (ArchivedExercise e : w.exercises()) {
+            if (!exerciseId.equals(e.exerciseId())) {
+                continue;
+            }
+            for (ArchivedSet s : e.sets()) {
+                if (s.weight() == null || s.reps() == null || s.reps() <= 0) {
+                    continue;
+                }
+                topSet = sets == 0 ? s.weight() : Math.max(topSet, s.weight());
+                double estimate = s.reps() == 1 ? s.weight() : s.weight() * (1 + s.reps() / 30.0);
+                oneRepMax = sets == 0 ? estimate : Math.max(oneRepMax, estimate);
+                volume += s.weight() * s.reps();
+                sets++;
+            }
+        }
+        return sets == 0 ? null : new SessionAggregate(w.id(), w.startTime(), topSet, oneRepMax, volume, sets);
+    }
+}
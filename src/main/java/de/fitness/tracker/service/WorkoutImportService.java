@@ -0,0 +1,402 @@
+package de.fitness.tracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import de.fitness.tracker.dto.ImportWorkout;
+import de.fitness.tracker.dto.SyncItemResult;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.ImportJob;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.repository.ExerciseRepository;
+import de.fitness.tracker.repository.ImportJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk-Import einer Trainingshistorie im Exportformat (CSV: eine Zeile pro
+ * Satz, JSON: Array verschachtelter Workouts). Die Datei wird gestreamt,
+ * Übungen werden über einen Namensindex im Speicher aufgelöst und je 50
+ * Workouts per JDBC-Batch gespeichert. Der Fortschritt wird mit jedem Batch
+ * committet – wird derselbe importKey erneut hochgeladen, geht es nach dem
+ * letzten gespeicherten Batch weiter.
+ */
+@Service
+public class WorkoutImportService {
+
+    public enum Format {
+        CSV, JSON
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutImportService.class);
+
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_UNKNOWN_NAMES = 50;
+
+    // importKey (max. 60) + ":" + Quell-ID muss in die 100 Zeichen des Idempotency-Keys passen
+    private static final int MAX_SOURCE_ID_LENGTH = 39;
+
+    @Autowired
+    private WorkoutSaveService workoutSaveService;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private VolumeRollupService volumeRollupService;
+
+    @Autowired
+    private LastPerformanceService lastPerformanceService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public ImportJob run(User user, String importKey, Format format, InputStream body) {
+        ImportJob job = importJobRepository.findByUserIdAndImportKey(user.getId(), importKey).orElseGet(() -> {
+            ImportJob created = new ImportJob();
+            created.setUserId(user.getId());
+            created.setImportKey(importKey);
+            created.setStartedAt(LocalDateTime.now());
+            return created;
+        });
+        job.setStatus(ImportJob.Status.RUNNING);
+        job.setError(null);
+        job.setFinishedAt(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        job = importJobRepository.save(job);
+
+        Map<String, Exercise> exercisesByName = new HashMap<>();
+        for (Exercise exercise : exerciseRepository.findAll()) {
+            exercisesByName.putIfAbsent(normalize(exercise.getName()), exercise);
+        }
+        Map<Long, Exercise> exercisesById = exercisesByName.values().stream()
+                .collect(Collectors.toMap(Exercise::getId, Function.identity()));
+
+        Set<String> unknownNames = new LinkedHashSet<>();
+        if (job.getUnknownExercises() != null) {
+            unknownNames.addAll(List.of(job.getUnknownExercises().split(", ")));
+        }
+
+        // Alles bis processedWorkouts wurde in einem früheren Lauf schon gespeichert
+        int alreadyProcessed = job.getProcessedWorkouts();
+        int position = 0;
+        Batch batch = new Batch();
+
+        try (InputStream in = body) {
+            Iterator<ImportWorkout> workouts = format == Format.CSV ? new CsvWorkoutIterator(csvRows(in))
+                    : objectMapper.readerFor(ImportWorkout.class).readValues(in);
+
+            while (workouts.hasNext()) {
+                ImportWorkout workout = workouts.next();
+                position++;
+                if (position <= alreadyProcessed) {
+                    continue;
+                }
+
+                // Ungültige Workouts zählen und überspringen, sonst scheitert der Batch bei jedem Wiederaufnehmen
+                WorkoutSaveRequest request = toRequest(user, importKey, workout, exercisesByName, batch, unknownNames);
+                if (request == null || workoutSaveService.validate(user, request) != null) {
+                    batch.invalid++;
+                } else {
+                    batch.requests.add(request);
+                }
+
+                if (position - job.getProcessedWorkouts() == BATCH_SIZE) {
+                    job = flush(user, job, batch, position, exercisesById, unknownNames);
+                }
+            }
+            job = flush(user, job, batch, position, exercisesById, unknownNames);
+        } catch (IOException | RuntimeException e) {
+            // Zähler können aus einem zurückgerollten Batch stammen: gespeicherten Stand neu laden
+            ImportJob failed = importJobRepository.findById(job.getId()).orElse(job);
+            failed.setStatus(ImportJob.Status.FAILED);
+            // Nur eigene Meldungen zur Datei an den Client, Details aus Datenbank und Parser ins Log
+            String reason;
+            if (e instanceof InvalidFileException) {
+                reason = e.getMessage();
+            } else if (e instanceof JsonProcessingException || e.getCause() instanceof JsonProcessingException) {
+                // MappingIterator verpackt Parserfehler in RuntimeExceptions
+                reason = "file could not be parsed";
+            } else {
+                reason = "internal error";
+                log.warn("Import {} of user {} failed", importKey, user.getId(), e);
+            }
+            failed.setError(truncate("Import stopped after " + failed.getProcessedWorkouts() + " workouts: "
+                    + reason, 500));
+            failed.setUpdatedAt(LocalDateTime.now());
+            return importJobRepository.save(failed);
+        }
+
+        // Bestwerte, Volumen und "Letztes Mal" einmal für die ganze Historie statt pro Workout
+        if (job.getCreatedWorkouts() > 0) {
+            personalRecordService.rebuild(user.getId());
+            volumeRollupService.rebuild(user.getId());
+            lastPerformanceService.rebuild(user.getId());
+        }
+
+        job.setStatus(ImportJob.Status.COMPLETED);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setUpdatedAt(job.getFinishedAt());
+        return importJobRepository.save(job);
+    }
+
+    public Optional<ImportJob> find(Long userId, String importKey) {
+        return importJobRepository.findByUserIdAndImportKey(userId, importKey);
+    }
+
+    // Workouts und Fortschritt in einer Transaktion: nach einem Absturz stimmt processedWorkouts immer
+    private ImportJob flush(User user, ImportJob job, Batch batch, int position, Map<Long, Exercise> exercisesById,
+            Set<String> unknownNames) {
+        ImportJob saved = transactionTemplate.execute(tx -> {
+            List<SyncItemResult> results = batch.requests.isEmpty() ? List.of()
+                    : workoutSaveService.saveBatch(user, batch.requests, exercisesById, false);
+            for (SyncItemResult result : results) {
+                if (result.getStatus() == SyncItemResult.Status.CREATED) {
+                    job.setCreatedWorkouts(job.getCreatedWorkouts() + 1);
+                } else {
+                    job.setDuplicateWorkouts(job.getDuplicateWorkouts() + 1);
+                }
+            }
+            job.setInvalidWorkouts(job.getInvalidWorkouts() + batch.invalid);
+            job.setSkippedExercises(job.getSkippedExercises() + batch.skippedExercises);
+            job.setUnknownExercises(unknownNames.isEmpty() ? null : truncate(String.join(", ", unknownNames), 1000));
+            job.setProcessedWorkouts(position);
+            job.setUpdatedAt(LocalDateTime.now());
+            return importJobRepository.save(job);
+        });
+        batch.clear();
+        return saved;
+    }
+
+    private WorkoutSaveRequest toRequest(User user, String importKey, ImportWorkout workout,
+            Map<String, Exercise> exercisesByName, Batch batch, Set<String> unknownNames) {
+        if (workout == null || workout.getStartTime() == null) {
+            return null;
+        }
+
+        String sourceId = workout.getId() != null && !workout.getId().isBlank() ? workout.getId()
+                : workout.getStartTime().toString();
+        if (sourceId.length() > MAX_SOURCE_ID_LENGTH) {
+            sourceId = UUID.nameUUIDFromBytes(sourceId.getBytes(StandardCharsets.UTF_8)).toString();
+        }
+
+        WorkoutSaveRequest request = new WorkoutSaveRequest();
+        request.setUserId(user.getId());
+        request.setIdempotencyKey(importKey + ":" + sourceId);
+        request.setName(workout.getName());
+        request.setStartTime(workout.getStartTime());
+        request.setEndTime(workout.getEndTime());
+        request.setExercises(new ArrayList<>());
+
+        int orderIndex = 0;
+        for (ImportWorkout.ExerciseData data : workout.getExercises()) {
+            orderIndex++;
+            Exercise exercise = data.getExercise() != null ? exercisesByName.get(normalize(data.getExercise())) : null;
+            if (exercise == null) {
+                batch.skippedExercises++;
+                if (data.getExercise() != null && unknownNames.size() < MAX_UNKNOWN_NAMES) {
+                    unknownNames.add(data.getExercise().trim());
+                }
+                continue;
+            }
+
+            WorkoutSaveRequest.ExerciseData exerciseData = new WorkoutSaveRequest.ExerciseData();
+            exerciseData.setExerciseId(exercise.getId());
+            exerciseData.setOrderIndex(data.getOrderIndex() != null ? data.getOrderIndex() : orderIndex);
+            exerciseData.setComment(data.getComment());
+
+            // Fehlende Satznummern fortlaufend vergeben
+            List<WorkoutSaveRequest.SetData> sets = data.getSets() != null ? data.getSets() : List.of();
+            for (int i = 0; i < sets.size(); i++) {
+                if (sets.get(i).getSetNumber() == null) {
+                    sets.get(i).setSetNumber(i + 1);
+                }
+            }
+            exerciseData.setSets(sets);
+            request.getExercises().add(exerciseData);
+        }
+        return request;
+    }
+
+    private static MappingIterator<Map<String, String>> csvRows(InputStream in) throws IOException {
+        return new CsvMapper().readerFor(Map.class).with(CsvSchema.emptySchema().withHeader()).readValues(in);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+
+    // Zähler des aktuellen, noch nicht gespeicherten Batches
+    private static class Batch {
+
+        private final List<WorkoutSaveRequest> requests = new ArrayList<>();
+        private int invalid;
+        private int skippedExercises;
+
+        private void clear() {
+            requests.clear();
+            invalid = 0;
+            skippedExercises = 0;
+        }
+    }
+
+    // Unlesbarer Wert in der Datei, die Meldung geht unverändert an den Client
+    private static class InvalidFileException extends IllegalArgumentException {
+
+        private InvalidFileException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Fasst aufeinanderfolgende CSV-Zeilen (ein Satz pro Zeile) zu Workouts
+     * zusammen. Gruppiert wird nach workout_id bzw. start_time.
+     */
+    private static class CsvWorkoutIterator implements Iterator<ImportWorkout> {
+
+        private final MappingIterator<Map<String, String>> rows;
+        private Map<String, String> pending;
+
+        CsvWorkoutIterator(MappingIterator<Map<String, String>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pending != null || rows.hasNext();
+        }
+
+        @Override
+        public ImportWorkout next() {
+            Map<String, String> row = pending != null ? pending : rows.next();
+            pending = null;
+
+            String key = workoutKey(row);
+            ImportWorkout workout = new ImportWorkout();
+            workout.setId(text(row, "workout_id"));
+            workout.setName(text(row, "workout_name"));
+            workout.setStartTime(dateTime(row, "start_time"));
+            workout.setEndTime(dateTime(row, "end_time"));
+            addRow(workout, row);
+
+            while (rows.hasNext()) {
+                Map<String, String> next = rows.next();
+                if (!key.equals(workoutKey(next))) {
+                    pending = next;
+                    break;
+                }
+                addRow(workout, next);
+            }
+            return workout;
+        }
+
+        private void addRow(ImportWorkout workout, Map<String, String> row) {
+            String name = text(row, "exercise");
+            if (name == null) {
+                return; // Workout ohne Übungen
+            }
+
+            Integer orderIndex = integer(row, "exercise_order");
+            List<ImportWorkout.ExerciseData> exercises = workout.getExercises();
+            ImportWorkout.ExerciseData exercise = exercises.isEmpty() ? null : exercises.get(exercises.size() - 1);
+            if (exercise == null || !name.equals(exercise.getExercise())
+                    || !Objects.equals(orderIndex, exercise.getOrderIndex())) {
+                exercise = new ImportWorkout.ExerciseData();
+                exercise.setExercise(name);
+                exercise.setOrderIndex(orderIndex);
+                exercise.setComment(text(row, "comment"));
+                exercises.add(exercise);
+            }
+
+            WorkoutSaveRequest.SetData set = new WorkoutSaveRequest.SetData();
+            set.setSetNumber(integer(row, "set_number"));
+            set.setWeight(decimal(row, "weight_kg"));
+            set.setReps(integer(row, "reps"));
+            set.setDurationSeconds(integer(row, "duration_seconds"));
+            set.setDistanceKm(decimal(row, "distance_km"));
+            if (set.getSetNumber() != null || set.getWeight() != null || set.getReps() != null
+                    || set.getDurationSeconds() != null || set.getDistanceKm() != null) {
+                exercise.getSets().add(set);
+            }
+        }
+
+        private String workoutKey(Map<String, String> row) {
+            String id = text(row, "workout_id");
+            return id != null ? id : String.valueOf(text(row, "start_time"));
+        }
+
+        private String text(Map<String, String> row, String column) {
+            String value = row.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+
+        private LocalDateTime dateTime(Map<String, String> row, String column) {
+            String value = text(row, column);
+            try {
+                return value != null ? LocalDateTime.parse(value) : null;
+            } catch (RuntimeException e) {
+                throw invalid(column, value);
+            }
+        }
+
+        private Integer integer(Map<String, String> row, String column) {
+            String value = text(row, column);
+            try {
+                return value != null ? Integer.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw invalid(column, value);
+            }
+        }
+
+        private Double decimal(Map<String, String> row, String column) {
+            String value = text(row, column);
+            try {
+                return value != null ? Double.valueOf(value) : null;
+            } catch (NumberFormatException e) {
+                throw invalid(column, value);
+            }
+        }
+
+        private InvalidFileException invalid(String column, String value) {
+            return new InvalidFileException("Invalid " + column + " '" + value + "' in CSV line "
+                    + rows.getCurrentLocation().getLineNr());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.ExerciseSetView;
+import de.fitness.tracker.dto.WorkoutExerciseView;
+import de.fitness.tracker.dto.WorkoutHistoryPage;
+import de.fitness.tracker.dto.WorkoutView;
+import de.fitness.tracker.repository.ExerciseSetRepository;
+import de.fitness.tracker.repository.WorkoutExerciseRepository;
+import de.fitness.tracker.repository.WorkoutRepository;
+import de.fitness.tracker.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Lese-Modell für Workouts: baut unveränderliche DTOs aus drei Projektions-Queries
+ * (Workouts, Übungen, Sätze) – unabhängig von der Anzahl der Workouts und ohne
+ * Lazy-Loading während der Serialisierung. Archivierte Jahre kommen aus dem
+ * {@link WorkoutArchiveService} dazu.
+ */
+@Service
+@Transactional(readOnly = true)
+public class WorkoutReadService {
+
+    private static final Comparator<WorkoutView> NEWEST_FIRST = Comparator.comparing(WorkoutView::getStartTime)
+            .thenComparing(WorkoutView::getId).reversed();
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutExerciseRepository workoutExerciseRepository;
+
+    @Autowired
+    private ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    private WorkoutArchiveService archiveService;
+
+    public List<WorkoutView> findByUser(Long userId) {
+        List<WorkoutView> workouts = workoutRepository.findViewsByUserId(userId);
+        if (!workouts.isEmpty()) {
+            workouts = assemble(workouts, workoutExerciseRepository.findViewsByUserId(userId),
+                    exerciseSetRepository.findViewsByUserId(userId));
+        }
+        List<WorkoutView> archived = archiveService.findAllViews(userId);
+        return archived.isEmpty() ? workouts : merge(workouts, archived);
+    }
+
+    public Optional<WorkoutView> findById(Long id) {
+        return workoutRepository.findViewById(id).map(w -> withDetails(List.of(w)).get(0));
+    }
+
+    // Eine Seite der Historie, neueste zuerst, direkt hinter (beforeTime, beforeId)
+    public WorkoutHistoryPage findHistoryPage(Long userId, LocalDateTime from, LocalDateTime beforeTime,
+            Long beforeId, int limit) {
+        // Eine Zeile mehr laden, um zu wissen ob es weitergeht
+        List<WorkoutView> page = workoutRepository.findHistoryPage(userId, from, beforeTime, beforeId,
+                Limit.of(limit + 1));
+
+        // Aus dem Archiv reichen ebenfalls limit + 1 Workouts hinter dem Cursor, ältere Jahre bleiben gepackt
+        List<WorkoutView> archived = archiveService.findHistoryViews(userId, from, beforeTime, beforeId, limit + 1);
+        if (!archived.isEmpty()) {
+            page = merge(page, archived);
+        }
+
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            WorkoutView last = page.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getStartTime(), last.getId()).encode();
+        }
+
+        return new WorkoutHistoryPage(archived.isEmpty() ? withDetails(page) : withDetails(page, archived),
+                nextCursor);
+    }
+
+    private List<WorkoutView> withDetails(List<WorkoutView> workouts) {
+        if (workouts.isEmpty()) {
+            return workouts;
+        }
+        List<Long> ids = workouts.stream().map(WorkoutView::getId).toList();
+        return assemble(workouts, workoutExerciseRepository.findViewsByWorkoutIdIn(ids),
+                exerciseSetRepository.findViewsByWorkoutIdIn(ids));
+    }
+
+    // Archivierte Views sind schon vollständig, nur die heißen nachladen (Reihenfolge der Seite bleibt)
+    private List<WorkoutView> withDetails(List<WorkoutView> page, List<WorkoutView> archived) {
+        Set<Long> archivedIds = archived.stream().map(WorkoutView::getId).collect(Collectors.toSet());
+        Map<Long, WorkoutView> hot = withDetails(page.stream().filter(w -> !archivedIds.contains(w.getId())).toList())
+                .stream().collect(Collectors.toMap(WorkoutView::getId, Function.identity()));
+        return page.stream().map(w -> hot.getOrDefault(w.getId(), w)).toList();
+    }
+
+    // Heiße und archivierte Workouts, neueste zuerst; eine ID kommt nur einmal vor (heiße Version gewinnt)
+    private static List<WorkoutView> merge(List<WorkoutView> hot, List<WorkoutView> archived) {
+        Set<Long> hotIds = hot.stream().map(WorkoutView::getId).collect(Collectors.toSet());
+        return Stream.concat(hot.stream(), archived.stream().filter(w -> !hotIds.contains(w.getId())))
+                .sorted(NEWEST_FIRST).toList();
+    }
+
+    // Übungen und Sätze den Workouts zuordnen (Reihenfolge kommt sortiert aus den Queries)
+    private List<WorkoutView> assemble(List<WorkoutView> workouts, List<WorkoutExerciseView> exercises,
+            List<ExerciseSetView> sets) {
+        Map<Long, List<ExerciseSetView>> setsByExercise = sets.stream()
+                .collect(Collectors.groupingBy(ExerciseSetView::getWorkoutExerciseId));
+        Map<Long, List<WorkoutExerciseView>> exercisesByWorkout = exercises.stream()
+                .map(we -> we.withSets(setsByExercise.getOrDefault(we.getId(), List.of())))
+                .collect(Collectors.groupingBy(WorkoutExerciseView::getWorkoutId));
+
+        return workouts.stream().map(w -> w.withExercises(exercisesByWorkout.getOrDefault(w.getId(), List.of())))
+                .toList();
+    }
+}
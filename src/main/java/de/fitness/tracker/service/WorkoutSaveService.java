@@ -0,0 +1,280 @@
+package de.fitness.tracker.service;
+
+import de.fitness.tracker.dto.SyncItemResult;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.ExerciseSet;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.UserCollection;
+import de.fitness.tracker.model.Workout;
+import de.fitness.tracker.model.WorkoutExercise;
+import de.fitness.tracker.repository.ExerciseRepository;
+import de.fitness.tracker.repository.WorkoutRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Speichert ein komplettes Workout (Übungen + Sätze) in einer Transaktion.
+ * Übungen werden in einer Query aufgelöst, die Inserts laufen per JDBC-Batch.
+ */
+@Service
+public class WorkoutSaveService {
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private LastPerformanceService lastPerformanceService;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private VolumeRollupService volumeRollupService;
+
+    @Autowired
+    private CollectionVersionService versionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Ohne @Transactional: ein parallel mit demselben Key gespeichertes Workout fällt erst beim Flush bzw. Commit
+    // am Unique-Key auf. Dann gewinnt das andere Workout und wird wie bei einem wiederholten Request zurückgegeben
+    public Workout saveComplete(User user, WorkoutSaveRequest request) {
+        try {
+            return transactionTemplate.execute(tx -> saveCompleteInTransaction(user, request));
+        } catch (DataIntegrityViolationException e) {
+            if (request.getIdempotencyKey() == null) {
+                throw e;
+            }
+            return workoutRepository.findByUserIdAndClientKey(user.getId(), request.getIdempotencyKey())
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Workout saveCompleteInTransaction(User user, WorkoutSaveRequest request) {
+        // Wiederholter Request mit gleichem Key: vorhandenes Workout zurückgeben
+        if (request.getIdempotencyKey() != null) {
+            Optional<Workout> existing = workoutRepository.findByUserIdAndClientKey(user.getId(),
+                    request.getIdempotencyKey());
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+
+        Workout workout = buildWorkout(user, request, resolveExercises(List.of(request)));
+        workoutRepository.save(workout);
+        versionService.bump(user.getId(), UserCollection.WORKOUTS);
+
+        recordSets(user.getId(), workout.getStartTime(), workout.getExercises());
+        countSaved("complete", List.of(workout));
+        return workout;
+    }
+
+    // Fehlermeldung für einen Request, der nicht gespeichert werden kann (null = gültig). Sync und Import prüfen
+    // damit vorab, damit eine Zeile nicht den ganzen Batch scheitern lässt
+    public String validate(User user, WorkoutSaveRequest request) {
+        if (request == null) {
+            return "Empty item";
+        }
+        if (request.getUserId() != null && !request.getUserId().equals(user.getId())) {
+            return "userId does not match";
+        }
+        if (request.getStartTime() == null) {
+            return "startTime is required";
+        }
+        if (request.getIdempotencyKey() != null && request.getIdempotencyKey().length() > 100) {
+            return "idempotencyKey too long";
+        }
+        if (request.getName() != null && request.getName().length() > 255) {
+            return "name too long";
+        }
+        if (request.getExercises() == null) {
+            return null;
+        }
+
+        // Pflichtfelder und Spaltenlängen der Übungen und Sätze
+        for (WorkoutSaveRequest.ExerciseData exercise : request.getExercises()) {
+            if (exercise == null || exercise.getExerciseId() == null) {
+                return "exerciseId is required";
+            }
+            if (exercise.getOrderIndex() == null) {
+                return "orderIndex is required";
+            }
+            if (exercise.getComment() != null && exercise.getComment().length() > 500) {
+                return "comment too long";
+            }
+            if (exercise.getSets() == null) {
+                continue;
+            }
+            for (WorkoutSaveRequest.SetData set : exercise.getSets()) {
+                if (set == null || set.getSetNumber() == null) {
+                    return "setNumber is required";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Speichert mehrere Workouts eines Users in einer Transaktion. Bereits
+     * bekannte Idempotency-Keys (auch doppelte innerhalb des Batches) werden als
+     * DUPLICATE gemeldet. Der Index im Ergebnis ist die Position im Batch.
+     */
+    @Transactional
+    public List<SyncItemResult> saveBatch(User user, List<WorkoutSaveRequest> requests) {
+        return saveBatch(user, requests, resolveExercises(requests), true);
+    }
+
+    // Bulk-Import: Übungen sind schon aufgelöst, abgeleitete Daten werden danach einmal komplett neu berechnet
+    @Transactional
+    public List<SyncItemResult> saveBatch(User user, List<WorkoutSaveRequest> requests, Map<Long, Exercise> exercises,
+            boolean recordDerived) {
+        List<String> keys = requests.stream().map(WorkoutSaveRequest::getIdempotencyKey).filter(Objects::nonNull)
+                .distinct().toList();
+        Map<String, Long> knownKeys = new HashMap<>();
+        if (!keys.isEmpty()) {
+            workoutRepository.findByUserIdAndClientKeyIn(user.getId(), keys)
+                    .forEach(w -> knownKeys.put(w.getClientKey(), w.getId()));
+        }
+
+        List<SyncItemResult> results = new ArrayList<>();
+        List<Workout> created = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            WorkoutSaveRequest request = requests.get(i);
+            String key = request.getIdempotencyKey();
+            if (key != null && knownKeys.containsKey(key)) {
+                results.add(new SyncItemResult(i, key, SyncItemResult.Status.DUPLICATE, knownKeys.get(key),
+                        "Workout already saved"));
+                continue;
+            }
+
+            Workout workout = buildWorkout(user, request, exercises);
+            workoutRepository.save(workout);
+            created.add(workout);
+            if (key != null) {
+                knownKeys.put(key, workout.getId());
+            }
+            results.add(new SyncItemResult(i, key, SyncItemResult.Status.CREATED, workout.getId(),
+                    "Workout saved successfully"));
+        }
+
+        if (!created.isEmpty()) {
+            versionService.bump(user.getId(), UserCollection.WORKOUTS);
+            countSaved(recordDerived ? "sync" : "import", created);
+        }
+        if (recordDerived) {
+            created.forEach(w -> recordSets(user.getId(), w.getStartTime(), w.getExercises()));
+        }
+        return results;
+    }
+
+    // Abgeleitete Daten ("Letztes Mal", Bestwerte, Volumen) nach neu gespeicherten Workouts fortschreiben
+    @Transactional
+    public void recordSets(Long userId, LocalDateTime workoutStartTime, Collection<WorkoutExercise> workoutExercises) {
+        lastPerformanceService.record(userId, workoutStartTime, workoutExercises);
+        personalRecordService.record(userId, workoutStartTime, workoutExercises);
+        volumeRollupService.record(userId, workoutStartTime, workoutExercises.stream()
+                .collect(Collectors.groupingBy(WorkoutExercise::getExercise,
+                        Collectors.flatMapping(we -> we.getSets().stream(), Collectors.toList()))));
+    }
+
+    // Einzelner nachgetragener Satz: Rollups nur um diesen Satz erhöhen
+    @Transactional
+    public void recordAddedSet(Long userId, LocalDateTime workoutStartTime, WorkoutExercise workoutExercise,
+            ExerciseSet set) {
+        lastPerformanceService.record(userId, workoutStartTime, List.of(workoutExercise));
+        personalRecordService.record(userId, workoutStartTime, List.of(workoutExercise));
+        volumeRollupService.record(userId, workoutStartTime, Map.of(workoutExercise.getExercise(), List.of(set)));
+        meterRegistry.counter("fitness.sets.logged", "source", "live").increment();
+    }
+
+    // Fachliche Zähler (fitness.workouts.saved, fitness.sets.logged) je Speicherweg
+    private void countSaved(String source, List<Workout> workouts) {
+        meterRegistry.counter("fitness.workouts.saved", "source", source).increment(workouts.size());
+        meterRegistry.counter("fitness.sets.logged", "source", source).increment(workouts.stream()
+                .flatMap(w -> w.getExercises().stream()).mapToInt(we -> we.getSets().size()).sum());
+    }
+
+    // Alle referenzierten Übungen in einer Query laden
+    public Map<Long, Exercise> resolveExercises(Collection<WorkoutSaveRequest> requests) {
+        List<Long> exerciseIds = requests.stream()
+                .filter(r -> r.getExercises() != null).flatMap(r -> r.getExercises().stream())
+                .map(WorkoutSaveRequest.ExerciseData::getExerciseId).filter(Objects::nonNull).distinct().toList();
+        if (exerciseIds.isEmpty()) {
+            return Map.of();
+        }
+        return exerciseRepository.findAllById(exerciseIds).stream()
+                .collect(Collectors.toMap(Exercise::getId, Function.identity()));
+    }
+
+    // Request -> Entity-Graph, unbekannte Übungen werden übersprungen
+    public Workout buildWorkout(User user, WorkoutSaveRequest request, Map<Long, Exercise> exercises) {
+        Workout workout = new Workout();
+        workout.setUser(user);
+        workout.setName(request.getName());
+        workout.setStartTime(request.getStartTime());
+        workout.setEndTime(request.getEndTime());
+        workout.setClientKey(request.getIdempotencyKey());
+
+        if (request.getExercises() == null) {
+            return workout;
+        }
+
+        for (WorkoutSaveRequest.ExerciseData exerciseData : request.getExercises()) {
+            Exercise exercise = exercises.get(exerciseData.getExerciseId());
+            if (exercise == null)
+                continue;
+
+            WorkoutExercise workoutExercise = new WorkoutExercise();
+            workoutExercise.setWorkout(workout);
+            workoutExercise.setExercise(exercise);
+            workoutExercise.setOrderIndex(exerciseData.getOrderIndex());
+            workoutExercise.setComment(exerciseData.getComment());
+
+            if (exerciseData.getSets() != null) {
+                for (WorkoutSaveRequest.SetData setData : exerciseData.getSets()) {
+                    ExerciseSet set = new ExerciseSet();
+                    set.setWorkoutExercise(workoutExercise);
+                    set.setSetNumber(setData.getSetNumber());
+
+                    // STRENGTH Felder
+                    set.setWeight(setData.getWeight());
+                    set.setReps(setData.getReps());
+
+                    // CARDIO Felder
+                    set.setDurationSeconds(setData.getDurationSeconds());
+                    set.setDistanceKm(setData.getDistanceKm());
+
+                    workoutExercise.getSets().add(set);
+                }
+            }
+
+            workout.getExercises().add(workoutExercise);
+        }
+
+        return workout;
+    }
+}
@@ -0,0 +1,106 @@
+package de.fitness.tracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.dto.SyncItemResult;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Offline-Sync: liest NDJSON (ein WorkoutSaveRequest pro Zeile) inkrementell
+ * aus dem Request-Body und speichert in Batches, ohne den Body zu puffern.
+ */
+@Service
+public class WorkoutSyncService {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private WorkoutSaveService workoutSaveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public List<SyncItemResult> sync(User user, InputStream body) throws IOException {
+        List<SyncItemResult> results = new ArrayList<>();
+        List<WorkoutSaveRequest> batch = new ArrayList<>();
+        List<Integer> batchIndexes = new ArrayList<>();
+        int index = 0;
+
+        try (MappingIterator<WorkoutSaveRequest> items = objectMapper.readerFor(WorkoutSaveRequest.class)
+                .readValues(body)) {
+            while (true) {
+                WorkoutSaveRequest request;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    request = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Nach einem Syntaxfehler ist die Position im Stream unklar: hier abbrechen
+                    results.add(new SyncItemResult(index, null, SyncItemResult.Status.INVALID, null,
+                            "Malformed JSON, remaining lines were not processed"));
+                    break;
+                }
+
+                String error = workoutSaveService.validate(user, request);
+                if (error != null) {
+                    results.add(new SyncItemResult(index, request.getIdempotencyKey(), SyncItemResult.Status.INVALID,
+                            null, error));
+                } else {
+                    batch.add(request);
+                    batchIndexes.add(index);
+                    if (batch.size() == BATCH_SIZE) {
+                        results.addAll(flush(user, batch, batchIndexes));
+                    }
+                }
+                index++;
+            }
+        }
+
+        results.addAll(flush(user, batch, batchIndexes));
+        // Ungültige Zeilen stehen sofort fest, gespeicherte erst nach dem Batch: wieder in Zeilenreihenfolge bringen
+        results.sort(Comparator.comparingInt(SyncItemResult::getIndex));
+        return results;
+    }
+
+    private List<SyncItemResult> flush(User user, List<WorkoutSaveRequest> batch, List<Integer> batchIndexes) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+
+        List<SyncItemResult> saved;
+        try {
+            saved = workoutSaveService.saveBatch(user, batch);
+        } catch (DataIntegrityViolationException e) {
+            // Parallel gespeicherter Key: einzeln wiederholen, damit nur das Duplikat betroffen ist
+            // Ein Fehler betrifft dann nur diese Zeile, die übrigen werden trotzdem gespeichert
+            saved = new ArrayList<>();
+            for (WorkoutSaveRequest request : batch) {
+                try {
+                    saved.addAll(workoutSaveService.saveBatch(user, List.of(request)));
+                } catch (DataIntegrityViolationException itemError) {
+                    saved.add(new SyncItemResult(0, request.getIdempotencyKey(), SyncItemResult.Status.INVALID,
+                            null, "Rejected by database constraints"));
+                }
+            }
+        }
+
+        for (int i = 0; i < saved.size(); i++) {
+            saved.get(i).setIndex(batchIndexes.get(i));
+        }
+        batch.clear();
+        batchIndexes.clear();
+        return saved;
+    }
+}
@@ -0,0 +1,20 @@
+package de.fitness.tracker.util;
+
+/**
+ * Abgeleitete Körperwerte, die beim Speichern einer Messung berechnet werden.
+ */
+public final class BodyMetrics {
+
+    private BodyMetrics() {
+    }
+
+    // BMI auf eine Nachkommastelle gerundet, null ohne Gewicht oder Körpergröße
+    public static Double bmi(Double weightKg, Integer heightCm) {
+        if (weightKg == null || heightCm == null) {
+            return null;
+        }
+        double heightInMeters = heightCm / 100.0;
+        double bmi = weightKg / (heightInMeters * heightInMeters);
+        return Math.round(bmi * 10.0) / 10.0;
+    }
+}
@@ -0,0 +1,66 @@
+package de.fitness.tracker.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Largest-Triangle-Three-Buckets: reduziert eine Zeitreihe auf eine feste
+ * Punktzahl und behält dabei die visuelle Form (Spitzen, Täler) bei.
+ */
+public final class Downsampling {
+
+    private Downsampling() {
+    }
+
+    public static <T> List<T> lttb(List<T> data, int threshold, ToDoubleFunction<T> x, ToDoubleFunction<T> y) {
+        // Unter drei Punkten gibt es kein Dreieck – dann unverändert zurückgeben
+        if (threshold >= data.size() || threshold < 3) {
+            return data;
+        }
+
+        List<T> sampled = new ArrayList<>(threshold);
+        double bucketSize = (double) (data.size() - 2) / (threshold - 2);
+
+        int a = 0;
+        sampled.add(data.get(a));
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Durchschnitt des nächsten Buckets als dritter Dreieckspunkt
+            int avgStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, data.size());
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x.applyAsDouble(data.get(j));
+                avgY += y.applyAsDouble(data.get(j));
+            }
+            int avgCount = avgEnd - avgStart;
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            // Punkt im aktuellen Bucket mit der größten Dreiecksfläche wählen
+            int rangeStart = (int) Math.floor(i * bucketSize) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double pointAX = x.applyAsDouble(data.get(a));
+            double pointAY = y.applyAsDouble(data.get(a));
+
+            double maxArea = -1;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((pointAX - avgX) * (y.applyAsDouble(data.get(j)) - pointAY)
+                        - (pointAX - x.applyAsDouble(data.get(j))) * (avgY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+
+            sampled.add(data.get(next));
+            a = next;
+        }
+
+        sampled.add(data.get(data.size() - 1));
+        return sampled;
+    }
+}
@@ -1,14 +1,23 @@
 package de.fitness.tracker.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
@@ -20,9 +29,28 @@ public class JwtUtil {
     // Token gültig für 7 Tage
     private final long EXPIRATION_TIME = 1000 * 60 * 60 * 24 * 7;
 
-    public String generateToken(String username, Long userId) {
+    // Max. Anzahl verifizierter Tokens im Cache; beim Überlauf wird auf 90 % zurückgeschnitten
+    private static final int CACHE_SIZE = 10_000;
+
+    // Parser ist thread-safe und wird für alle Tokens wiederverwendet
+    private final JwtParser parser = Jwts.parser().verifyWith(key).build();
+
+    // Schlüssel ist der SHA-256 des Tokens, damit keine gültigen Tokens im Speicher liegen. Ohne globale Sperre:
+    // jeder Request liest hier, ein gemeinsamer Lock würde alle Requests hintereinander einreihen
+    private final Map<String, VerifiedToken> cache = new ConcurrentHashMap<>();
+
+    // Inhalt eines geprüften Tokens; role ist null bei Tokens von vor der Umstellung
+    public record VerifiedToken(Long userId, String username, String role, long expiresAtMillis) {
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+
+    public String generateToken(String username, Long userId, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
+        claims.put("role", role);
         
         return Jwts.builder()
                 .claims(claims)
@@ -33,28 +61,74 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Prüft Signatur und Ablauf. Jeder Token wird nur einmal geparst, danach
+     * kommt er aus dem Cache, bis er abläuft.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        String hash = hash(token);
+        VerifiedToken cached = cache.get(hash);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return Optional.of(cached);
+            }
+            cache.remove(hash, cached);
+            return Optional.empty();
+        }
+
+        Claims claims;
+        try {
+            claims = extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        VerifiedToken verified = new VerifiedToken(claims.get("userId", Long.class), claims.getSubject(),
+                claims.get("role", String.class), claims.getExpiration().getTime());
+        if (cache.size() >= CACHE_SIZE) {
+            evict();
+        }
+        cache.put(hash, verified);
+        return Optional.of(verified);
+    }
+
+    // Erst abgelaufene Tokens entfernen; reicht das nicht, beliebige (sie werden beim nächsten Request neu geprüft)
+    private void evict() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(t -> t.expiresAtMillis() <= now);
+        Iterator<String> keys = cache.keySet().iterator();
+        while (cache.size() > CACHE_SIZE * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+        return verify(token).map(VerifiedToken::username).orElseThrow(() -> new JwtException("Invalid token"));
     }
 
     public Long extractUserId(String token) {
-        return extractClaims(token).get("userId", Long.class);
+        return verify(token).map(VerifiedToken::userId).orElseThrow(() -> new JwtException("Invalid token"));
     }
 
     public boolean isTokenValid(String token) {
+        return verify(token).isPresent();
+    }
+
+    private static String hash(String token) {
         try {
-            extractClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package de.fitness.tracker.util;
+
+import java.time.LocalDateTime;
+
+/**
+ * Offene Grenzen für optionale from/to-Parameter. Bewusst innerhalb des
+ * PostgreSQL-Timestamp-Bereichs, damit sie als Query-Parameter taugen.
+ */
+public final class TimeBounds {
+
+    public static final LocalDateTime MIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime MAX = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private TimeBounds() {
+    }
+
+    // from oder offene Untergrenze
+    public static LocalDateTime from(LocalDateTime from) {
+        return from != null ? from : MIN;
+    }
+
+    // to oder offene Obergrenze
+    public static LocalDateTime to(LocalDateTime to) {
+        return to != null ? to : MAX;
+    }
+}
@@ -0,0 +1,14 @@
+-- "Letztes Mal"-Projektion: pro User und Übung die letzte Ausführung mit Sätzen (Altbestand füllt V5)
+create sequence last_exercise_performances_seq start with 1 increment by 50;
+
+create table last_exercise_performances (
+    id bigint not null,
+    user_id bigint not null,
+    exercise_id bigint not null,
+    workout_exercise_id bigint not null,
+    workout_start_time timestamp(6) not null,
+    primary key (id),
+    constraint uk_last_exercise_performances_user_exercise unique (user_id, exercise_id)
+);
+
+alter table last_exercise_performances add constraint FKaluhn47ykxc3b8u6lq9qyqeqp foreign key (workout_exercise_id) references workout_exercises;
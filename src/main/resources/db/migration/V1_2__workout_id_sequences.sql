@@ -0,0 +1,6 @@
+-- Workouts, Übungen und Sätze bekommen ihre IDs aus Sequenzen, damit Hibernate Inserts batchen kann. Die
+-- IDENTITY-Spalten bleiben (generated by default akzeptiert vorgegebene IDs); auf PostgreSQL setzt V3 die
+-- Sequenzen hinter die höchste vorhandene ID
+create sequence workouts_seq start with 1 increment by 50;
+create sequence workout_exercises_seq start with 1 increment by 50;
+create sequence exercise_sets_seq start with 1 increment by 50;
@@ -0,0 +1,3 @@
+-- Idempotency-Key vom Client (Offline-Sync), eindeutig pro User; Workouts ohne Key bleiben unbeschränkt
+alter table workouts add column client_key varchar(100);
+alter table workouts add constraint uk_workouts_user_client_key unique (user_id, client_key);
@@ -0,0 +1,20 @@
+-- Bestwerte pro User und Übung mit Datum des ersten Erreichens
+create sequence personal_records_seq start with 1 increment by 50;
+
+create table personal_records (
+    id bigint not null,
+    user_id bigint not null,
+    exercise_id bigint not null,
+    max_weight float(53),
+    max_weight_at timestamp(6),
+    estimated_one_rep_max float(53),
+    estimated_one_rep_max_at timestamp(6),
+    best_set_volume float(53),
+    best_set_volume_at timestamp(6),
+    longest_duration_seconds integer,
+    longest_duration_at timestamp(6),
+    farthest_distance_km float(53),
+    farthest_distance_at timestamp(6),
+    primary key (id),
+    constraint uk_personal_records_user_exercise unique (user_id, exercise_id)
+);
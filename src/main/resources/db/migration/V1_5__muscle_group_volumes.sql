@@ -0,0 +1,16 @@
+-- Volumen-Rollups pro User, Woche/Monat und Muskelgruppe
+create sequence muscle_group_volumes_seq start with 1 increment by 50;
+
+create table muscle_group_volumes (
+    id bigint not null,
+    user_id bigint not null,
+    period varchar(255) not null check (period in ('WEEK','MONTH')),
+    period_start date not null,
+    muscle_group varchar(20) not null,
+    sets integer not null,
+    reps integer not null,
+    tonnage float(53) not null,
+    cardio_duration_seconds integer not null,
+    primary key (id),
+    constraint uk_muscle_group_volumes_user_period unique (user_id, period, period_start, muscle_group)
+);
@@ -0,0 +1,19 @@
+-- Fortschritt großer Importe, fortsetzbar über (user_id, import_key)
+create table import_jobs (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    import_key varchar(60) not null,
+    status varchar(255) not null check (status in ('RUNNING','COMPLETED','FAILED')),
+    processed_workouts integer not null,
+    created_workouts integer not null,
+    duplicate_workouts integer not null,
+    invalid_workouts integer not null,
+    skipped_exercises integer not null,
+    unknown_exercises varchar(1000),
+    error varchar(500),
+    started_at timestamp(6),
+    updated_at timestamp(6),
+    finished_at timestamp(6),
+    primary key (id),
+    constraint uk_import_jobs_user_key unique (user_id, import_key)
+);
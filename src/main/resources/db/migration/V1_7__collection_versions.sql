@@ -0,0 +1,9 @@
+-- Versionszähler pro User und Liste für ETags
+create table collection_versions (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    collection varchar(20) not null check (collection in ('WORKOUTS','TEMPLATES','WEIGHTS')),
+    version bigint not null,
+    primary key (id),
+    constraint uk_collection_versions_user_collection unique (user_id, collection)
+);
@@ -0,0 +1,108 @@
+-- Ausgangsschema, wie es bis zur Einführung von Flyway per ddl-auto=update entstanden ist – unverändert lassen.
+-- Bestehende Datenbanken werden auf Version 1 gebaselined (spring.flyway.baseline-on-migrate) und überspringen
+-- dieses Skript; alles Neue gehört in spätere Migrationen (V1_x für Tabellen und Spalten, V2 ff.).
+-- Constraint-Namen wie von Hibernate erzeugt, damit neue und bestehende Datenbanken übereinstimmen.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    height integer not null,
+    role varchar(255),
+    created_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table user_preferences (
+    id bigint generated by default as identity,
+    user_id bigint not null unique,
+    default_rest_time integer,
+    theme varchar(255),
+    weight_unit varchar(255),
+    primary key (id)
+);
+
+create table exercises (
+    id bigint generated by default as identity,
+    name varchar(255) not null unique,
+    exercise_type varchar(255) check (exercise_type in ('STRENGTH','CARDIO')),
+    equipment_type varchar(255) check (equipment_type in ('BARBELL','DUMBBELL','MACHINE','CABLE','PLATE_LOADED','BODYWEIGHT','OTHER')),
+    primary_muscle_group varchar(255) check (primary_muscle_group in ('CHEST','BACK','SHOULDERS','BICEPS','TRICEPS','LEGS','ABS','GLUTES','CALVES','FOREARMS')),
+    weight_per_side boolean,
+    primary key (id)
+);
+
+create table workouts (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    name varchar(255),
+    start_time timestamp(6) not null,
+    end_time timestamp(6),
+    primary key (id)
+);
+
+create table workout_exercises (
+    id bigint generated by default as identity,
+    workout_id bigint not null,
+    exercise_id bigint not null,
+    order_index integer not null,
+    comment varchar(500),
+    primary key (id)
+);
+
+create table exercise_sets (
+    id bigint generated by default as identity,
+    workout_exercise_id bigint not null,
+    set_number integer not null,
+    weight float(53),
+    reps integer,
+    duration_seconds integer,
+    distance_km float(53),
+    primary key (id)
+);
+
+create table workout_templates (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    name varchar(255) not null,
+    created_at timestamp(6),
+    primary key (id)
+);
+
+create table template_exercises (
+    id bigint generated by default as identity,
+    template_id bigint not null,
+    exercise_id bigint not null,
+    order_index integer not null,
+    sets_count integer,
+    target_reps integer,
+    target_weight float(53),
+    target_duration_seconds integer,
+    target_distance_km float(53),
+    primary key (id)
+);
+
+create table weight_measurements (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    date timestamp(6) not null,
+    weight float(53) not null,
+    bmi float(53),
+    body_fat float(53),
+    muscle_mass float(53),
+    bone_mass float(53),
+    water_percentage float(53),
+    visceral_fat integer,
+    metabolic_age integer,
+    primary key (id)
+);
+
+alter table user_preferences add constraint FKepakpib0qnm82vmaiismkqf88 foreign key (user_id) references users;
+alter table workouts add constraint FKpf8ql3wbw2drijbk1ugfvki3d foreign key (user_id) references users;
+alter table workout_exercises add constraint FKd2ychryarm8gp13672lojwr78 foreign key (workout_id) references workouts;
+alter table workout_exercises add constraint FK3bn8puhdk29j682es5643p60c foreign key (exercise_id) references exercises;
+alter table exercise_sets add constraint FK8vmxlwj8qlov72fwgs77hgkal foreign key (workout_exercise_id) references workout_exercises;
+alter table workout_templates add constraint FKb8o20st3g0wrlaipy25esyey8 foreign key (user_id) references users;
+alter table template_exercises add constraint FKc0lrxdxcihb76rwj3toaelgvu foreign key (template_id) references workout_templates;
+alter table template_exercises add constraint FK4bja8ofvfmdyf7oc369s0tj9 foreign key (exercise_id) references exercises;
+alter table weight_measurements add constraint FKeymxciexh5uxvklicnbm0uvg3 foreign key (user_id) references users;
@@ -0,0 +1,18 @@
+-- Zusammengesetzte Indizes für die häufigsten Zugriffe. PostgreSQL legt für Fremdschlüssel keine Indizes an,
+-- ohne diese laufen Historie, "Letztes Mal", Sätze pro Übung, Gewichtsverlauf und Vorlagen als Seq-Scan + Sort.
+-- IF NOT EXISTS, falls auf bestehenden Datenbanken schon von Hand angelegt.
+
+-- Workout-Liste und Keyset-Historie: WHERE user_id = ? ORDER BY start_time DESC, id DESC
+create index if not exists idx_workouts_user_start on workouts (user_id, start_time desc, id desc);
+
+-- Übungsverlauf/"Letztes Mal": WHERE exercise_id = ? JOIN workouts
+create index if not exists idx_workout_exercises_exercise_workout on workout_exercises (exercise_id, workout_id);
+
+-- Sätze einer Übungsausführung in Reihenfolge
+create index if not exists idx_exercise_sets_workout_exercise_set on exercise_sets (workout_exercise_id, set_number);
+
+-- Gewichtsverlauf: WHERE user_id = ? ORDER BY date DESC bzw. Zeitraum
+create index if not exists idx_weight_measurements_user_date on weight_measurements (user_id, date desc);
+
+-- Vorlagen eines Users, neueste zuerst
+create index if not exists idx_workout_templates_user_created on workout_templates (user_id, created_at desc);
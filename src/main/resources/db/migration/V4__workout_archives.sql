@@ -0,0 +1,16 @@
+-- Kalte Historie: pro User und Jahr ein komprimierter Block (Smile + Deflate) mit Workouts, Übungen und Sätzen.
+-- Die Kennzahlen daneben reichen, um zu entscheiden, welche Jahre eine Abfrage überhaupt betrifft.
+create table workout_archives (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    archive_year integer not null,
+    format_version integer not null,
+    workout_count integer not null,
+    set_count integer not null,
+    first_start_time timestamp(6) not null,
+    last_start_time timestamp(6) not null,
+    payload bytea not null,
+    updated_at timestamp(6) not null,
+    primary key (id),
+    unique (user_id, archive_year)
+);
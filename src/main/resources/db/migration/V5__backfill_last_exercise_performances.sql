@@ -0,0 +1,14 @@
+-- "Letztes Mal"-Projektion für Bestandsdaten füllen: pro User und Übung die letzte Ausführung mit Sätzen
+-- (gleiche Startzeit -> höhere ID). Vorhandene Zeilen bleiben, der Lesezugriff schreibt danach nicht mehr nach.
+insert into last_exercise_performances (id, user_id, exercise_id, workout_exercise_id, workout_start_time)
+select nextval('last_exercise_performances_seq'), w.user_id, we.exercise_id, we.id, w.start_time
+from workout_exercises we
+join workouts w on w.id = we.workout_id
+where exists (select 1 from exercise_sets s where s.workout_exercise_id = we.id)
+  and not exists (
+    select 1 from workout_exercises we2
+    join workouts w2 on w2.id = we2.workout_id
+    where w2.user_id = w.user_id and we2.exercise_id = we.exercise_id
+      and exists (select 1 from exercise_sets s2 where s2.workout_exercise_id = we2.id)
+      and (w2.start_time > w.start_time or (w2.start_time = w.start_time and we2.id > we.id)))
+on conflict do nothing;
@@ -0,0 +1,64 @@
+package de.fitness.tracker.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sammelt Latenzen pro Endpunkt aus vielen Client-Threads und wertet sie als
+ * Durchsatz und Perzentile aus.
+ */
+class LatencyRecorder {
+
+    record Summary(long requests, double throughput, double p50Ms, double p95Ms, double p99Ms, long errors) {
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long latency, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+            if (error) {
+                errors++;
+            }
+        }
+    }
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long latencyNanos, boolean error) {
+        samples.computeIfAbsent(endpoint, e -> new Samples()).add(latencyNanos, error);
+    }
+
+    // Auswertung in Einfügereihenfolge der Endpunkte ist nicht garantiert – sortiert nach Name
+    Map<String, Summary> summarize(Duration duration) {
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        samples.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            Samples s = entry.getValue();
+            long[] sorted;
+            long errors;
+            synchronized (s) {
+                sorted = Arrays.copyOf(s.nanos, s.count);
+                errors = s.errors;
+            }
+            Arrays.sort(sorted);
+            summaries.put(entry.getKey(), new Summary(sorted.length, sorted.length / (duration.toMillis() / 1000.0),
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), errors));
+        });
+        return summaries;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1_000_000.0;
+    }
+}
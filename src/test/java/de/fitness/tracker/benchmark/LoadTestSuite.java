@@ -0,0 +1,264 @@
+package de.fitness.tracker.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.FitnessTrackerApplication;
+import de.fitness.tracker.dto.TemplateSaveRequest;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.support.SyntheticDataGenerator;
+import de.fitness.tracker.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end-Lasttest: startet die App pro Datenmenge neu, erzeugt mit dem
+ * {@link SyntheticDataGenerator} N User mit mehreren Jahren Historie und treibt
+ * einen realistischen Mix (Login, Historie blättern, "Letztes Mal",
+ * save-complete, Vorlagen bearbeiten). Ausgabe pro Datenmenge und Endpunkt:
+ * Durchsatz und p50/p95/p99, zusätzlich als CSV in target/load-test-results.csv.
+ * Läuft nicht im normalen Build:
+ * {@code mvn test -Dtest=LoadTestSuite [-Dload.users=20 -Dload.years=1,3,5]}
+ *
+ * Standard ist H2 in-memory; gegen eine leere lokale PostgreSQL-Datenbank mit
+ * {@code -Dspring.datasource.url=...} usw. (Schema per Flyway), jeder Lauf
+ * erzeugt eigene User und Daten.
+ */
+class LoadTestSuite {
+
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 64);
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmupSeconds", 5));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("load.seconds", 20));
+    private static final List<Integer> YEARS = Arrays.stream(System.getProperty("load.years", "1,3").split(","))
+            .map(String::trim).map(Integer::valueOf).toList();
+
+    // Anteil der Aktionen am Mix in Prozent
+    private static final Map<String, Integer> MIX = new LinkedHashMap<>();
+    static {
+        MIX.put("login", 5);
+        MIX.put("history", 35);
+        MIX.put("last", 35);
+        MIX.put("save-complete", 15);
+        MIX.put("template-edit", 10);
+    }
+
+    private final HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void runLoadMixPerDatasetSize() throws Exception {
+        StringBuilder csv = new StringBuilder("years,workouts_per_user,endpoint,requests,throughput,p50_ms,p95_ms,"
+                + "p99_ms,errors\n");
+        System.out.printf("%-6s %-10s %-44s %9s %10s %9s %9s %9s %7s%n", "years", "wo/user", "endpoint", "requests",
+                "req/s", "p50 ms", "p95 ms", "p99 ms", "errors");
+
+        for (int years : YEARS) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FitnessTrackerApplication.class)
+                    .properties("server.port=0", "spring.jpa.show-sql=false").run()) {
+                SyntheticDataGenerator generator = context.getAutowireCapableBeanFactory()
+                        .createBean(SyntheticDataGenerator.class);
+                SyntheticDataGenerator.Dataset dataset = generator.generate(USERS, years, SEED);
+                long workoutsPerUser = dataset.workouts() / Math.max(1, dataset.users().size());
+                System.out.printf("dataset: %d users, %d years, %d workouts, %d sets, %d measurements%n", USERS, years,
+                        dataset.workouts(), dataset.sets(), dataset.measurements());
+
+                Session session = new Session(context, dataset);
+                run(session, WARMUP);
+                Map<String, LatencyRecorder.Summary> results = run(session, MEASURE).summarize(MEASURE);
+
+                results.forEach((endpoint, r) -> {
+                    System.out.printf("%-6d %-10d %-44s %9d %10.1f %9.2f %9.2f %9.2f %7d%n", years, workoutsPerUser,
+                            endpoint, r.requests(), r.throughput(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.errors());
+                    csv.append(String.format(Locale.ROOT, "%d,%d,%s,%d,%.1f,%.3f,%.3f,%.3f,%d%n", years,
+                            workoutsPerUser, endpoint, r.requests(), r.throughput(), r.p50Ms(), r.p95Ms(), r.p99Ms(),
+                            r.errors()));
+                    assertTrue(r.requests() > 0, "every endpoint should answer under load");
+                });
+            }
+        }
+
+        Path report = Path.of("target", "load-test-results.csv");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, csv);
+    }
+
+    private LatencyRecorder run(Session session, Duration duration) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        session.next(recorder);
+                    }
+                    return null;
+                });
+            }
+        }
+        return recorder;
+    }
+
+    // App-Zustand eines Laufs: Basis-URL, Tokens und die erzeugten User
+    private final class Session {
+
+        private final String base;
+        private final ObjectMapper objectMapper;
+        private final SyntheticDataGenerator.Dataset dataset;
+        private final List<String> tokens = new ArrayList<>();
+
+        Session(ConfigurableApplicationContext context, SyntheticDataGenerator.Dataset dataset) {
+            this.base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            this.objectMapper = context.getBean(ObjectMapper.class);
+            this.dataset = dataset;
+            JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+            dataset.users().forEach(u -> tokens.add("Bearer "
+                    + jwtUtil.generateToken(u.user().getUsername(), u.user().getId(), u.user().getRole())));
+        }
+
+        // Zufälliger User, Aktion nach MIX
+        void next(LatencyRecorder recorder) throws IOException, InterruptedException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int index = random.nextInt(dataset.users().size());
+            SyntheticDataGenerator.GeneratedUser user = dataset.users().get(index);
+            String token = tokens.get(index);
+
+            int roll = random.nextInt(100);
+            String action = null;
+            for (Map.Entry<String, Integer> entry : MIX.entrySet()) {
+                roll -= entry.getValue();
+                if (roll < 0) {
+                    action = entry.getKey();
+                    break;
+                }
+            }
+
+            switch (action) {
+                case "login" -> send(recorder, "POST /api/auth/login", post("/api/auth/login", null,
+                        Map.of("username", user.user().getUsername(), "password", SyntheticDataGenerator.PASSWORD)));
+                case "history" -> {
+                    // Erste Seite, in der Hälfte der Fälle eine Seite weiter
+                    String history = "/api/workouts/user/" + user.user().getId() + "/history?limit=20";
+                    JsonNode page = send(recorder, "GET /api/workouts/user/{id}/history", get(history, token));
+                    if (page != null && page.hasNonNull("nextCursor") && random.nextBoolean()) {
+                        send(recorder, "GET /api/workouts/user/{id}/history (next)", get(history + "&cursor="
+                                + URLEncoder.encode(page.get("nextCursor").asText(), StandardCharsets.UTF_8), token));
+                    }
+                }
+                case "last" -> {
+                    Long exerciseId = user.exerciseIds().get(random.nextInt(user.exerciseIds().size()));
+                    String last = "/api/workouts/exercises/" + exerciseId + "/last?userId=" + user.user().getId();
+                    send(recorder, "GET /api/workouts/exercises/{id}/last", get(last, token));
+                }
+                case "save-complete" -> send(recorder, "POST /api/workouts/save-complete",
+                        post("/api/workouts/save-complete", token, saveRequest(user, random)));
+                case "template-edit" -> {
+                    Long templateId = user.templateIds().get(random.nextInt(user.templateIds().size()));
+                    send(recorder, "PUT /api/templates/{id}",
+                            put("/api/templates/" + templateId, token, templateRequest(user, random)));
+                }
+                default -> throw new IllegalStateException(action);
+            }
+        }
+
+        private WorkoutSaveRequest saveRequest(SyntheticDataGenerator.GeneratedUser user, ThreadLocalRandom random) {
+            WorkoutSaveRequest request = new WorkoutSaveRequest();
+            request.setUserId(user.user().getId());
+            request.setName("Load Test");
+            request.setStartTime(LocalDateTime.now().minusMinutes(60 + random.nextInt(600)));
+            request.setEndTime(request.getStartTime().plusMinutes(60));
+
+            List<WorkoutSaveRequest.ExerciseData> exercises = new ArrayList<>();
+            for (int e = 0; e < 5; e++) {
+                WorkoutSaveRequest.ExerciseData data = new WorkoutSaveRequest.ExerciseData();
+                data.setExerciseId(user.exerciseIds().get(random.nextInt(user.exerciseIds().size())));
+                data.setOrderIndex(e + 1);
+                List<WorkoutSaveRequest.SetData> sets = new ArrayList<>();
+                for (int s = 1; s <= 4; s++) {
+                    WorkoutSaveRequest.SetData set = new WorkoutSaveRequest.SetData();
+                    set.setSetNumber(s);
+                    set.setWeight(40.0 + random.nextInt(20) * 2.5);
+                    set.setReps(6 + random.nextInt(7));
+                    sets.add(set);
+                }
+                data.setSets(sets);
+                exercises.add(data);
+            }
+            request.setExercises(exercises);
+            return request;
+        }
+
+        private TemplateSaveRequest templateRequest(SyntheticDataGenerator.GeneratedUser user,
+                ThreadLocalRandom random) {
+            TemplateSaveRequest request = new TemplateSaveRequest();
+            request.setUserId(user.user().getId());
+            request.setName("Vorlage " + random.nextInt(1000));
+            List<TemplateSaveRequest.TemplateExerciseData> exercises = new ArrayList<>();
+            for (int e = 0; e < 6; e++) {
+                TemplateSaveRequest.TemplateExerciseData data = new TemplateSaveRequest.TemplateExerciseData();
+                data.setExerciseId(user.exerciseIds().get(random.nextInt(user.exerciseIds().size())));
+                data.setOrderIndex(e + 1);
+                data.setSetsCount(3);
+                data.setTargetWeight(40.0 + random.nextInt(20) * 2.5);
+                data.setTargetReps(10);
+                exercises.add(data);
+            }
+            request.setExercises(exercises);
+            return request;
+        }
+
+        private JsonNode send(LatencyRecorder recorder, String endpoint, HttpRequest request)
+                throws IOException, InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(endpoint, System.nanoTime() - start, response.statusCode() >= 400);
+            if (response.statusCode() >= 400 || response.body().length == 0) {
+                return null;
+            }
+            return objectMapper.readTree(response.body());
+        }
+
+        private HttpRequest get(String path, String token) {
+            return HttpRequest.newBuilder(URI.create(base + path)).header("Authorization", token).GET().build();
+        }
+
+        private HttpRequest post(String path, String token, Object body) throws IOException {
+            return withBody(HttpRequest.newBuilder(URI.create(base + path)), token)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        }
+
+        private HttpRequest put(String path, String token, Object body) throws IOException {
+            return withBody(HttpRequest.newBuilder(URI.create(base + path)), token)
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        }
+
+        private HttpRequest.Builder withBody(HttpRequest.Builder builder, String token) {
+            builder.header("Content-Type", "application/json");
+            return token != null ? builder.header("Authorization", token) : builder;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package de.fitness.tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.fitness.tracker.dto.ExerciseSetView;
+import de.fitness.tracker.dto.ExerciseView;
+import de.fitness.tracker.dto.WorkoutExerciseView;
+import de.fitness.tracker.dto.WorkoutView;
+import de.fitness.tracker.model.EquipmentType;
+import de.fitness.tracker.model.ExerciseType;
+import de.fitness.tracker.model.MuscleGroup;
+import de.fitness.tracker.model.WeightMeasurement;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Payload-Größe und (De-)Serialisierungszeit JSON vs. CBOR vs. Smile für eine
+ * realistische Historie: 3 Jahre, 4 Workouts pro Woche (6 Übungen x 4 Sätze)
+ * und tägliche Körpermessungen. Läuft nicht im normalen Build:
+ * {@code mvn test -Dtest=PayloadFormatBenchmark}
+ */
+@JsonTest
+class PayloadFormatBenchmark {
+
+    private static final int WORKOUTS = 3 * 52 * 4;
+    private static final int EXERCISES = 6;
+    private static final int SETS = 4;
+    private static final int MEASUREMENTS = 3 * 365;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compareFormats() throws Exception {
+        List<WorkoutView> workouts = workouts();
+        List<WeightMeasurement> measurements = measurements();
+
+        // Gleiche Konfiguration wie die Message-Converter in WebConfig
+        Map<String, ObjectMapper> mappers = Map.of("json", objectMapper, "cbor",
+                objectMapper.copyWith(new CBORFactory()), "smile", objectMapper.copyWith(new SmileFactory()));
+
+        for (String payload : List.of("workouts", "weights")) {
+            Object value = payload.equals("workouts") ? workouts : measurements;
+            int jsonSize = 0;
+            for (String format : List.of("json", "cbor", "smile")) {
+                Result result = measure(mappers.get(format), value);
+                if (format.equals("json")) {
+                    jsonSize = result.bytes;
+                }
+                System.out.printf("%-8s %-5s %9d bytes (%3d%%)  write %7.3f ms  read %7.3f ms%n", payload, format,
+                        result.bytes, result.bytes * 100 / jsonSize, result.writeMs, result.readMs);
+                assertTrue(result.bytes <= jsonSize, format + " should not be larger than JSON");
+            }
+        }
+    }
+
+    private static Result measure(ObjectMapper mapper, Object value) throws Exception {
+        byte[] bytes = mapper.writeValueAsBytes(value);
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.readTree(mapper.writeValueAsBytes(value));
+        }
+
+        long[] write = new long[ITERATIONS];
+        long[] read = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            bytes = mapper.writeValueAsBytes(value);
+            write[i] = System.nanoTime() - start;
+
+            // readTree: Parse-Aufwand wie beim Client, unabhängig von Zielklassen
+            start = System.nanoTime();
+            mapper.readTree(bytes);
+            read[i] = System.nanoTime() - start;
+        }
+        return new Result(bytes.length, median(write), median(read));
+    }
+
+    private static double median(long[] nanos) {
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2] / 1_000_000.0;
+    }
+
+    private static List<WorkoutView> workouts() {
+        List<ExerciseView> catalog = new ArrayList<>();
+        for (int e = 0; e < EXERCISES * 3; e++) {
+            catalog.add(new ExerciseView((long) e + 1, "Exercise " + (e + 1), ExerciseType.STRENGTH, e % 4 == 0,
+                    EquipmentType.values()[e % EquipmentType.values().length],
+                    MuscleGroup.values()[e % MuscleGroup.values().length]));
+        }
+
+        List<WorkoutView> workouts = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2022, 1, 3, 18, 0);
+        long id = 1;
+        for (int w = 0; w < WORKOUTS; w++) {
+            LocalDateTime time = start.plusDays(w * 7L / 4).plusMinutes(w % 45);
+            List<WorkoutExerciseView> exercises = new ArrayList<>();
+            for (int e = 0; e < EXERCISES; e++) {
+                List<ExerciseSetView> sets = new ArrayList<>();
+                for (int s = 1; s <= SETS; s++) {
+                    sets.add(new ExerciseSetView(id++, null, s, 40.0 + (w % 30) * 2.5 + e * 5, 12 - s, null, null));
+                }
+                exercises.add(new WorkoutExerciseView(id++, (long) w + 1, catalog.get((w + e) % catalog.size()), e + 1,
+                        e == 0 ? "Gute Form, nächstes Mal steigern" : null, sets));
+            }
+            workouts.add(new WorkoutView((long) w + 1, 1L, "Push/Pull/Legs " + (w % 3 + 1), time,
+                    time.plusMinutes(70), exercises));
+        }
+        return workouts;
+    }
+
+    private static List<WeightMeasurement> measurements() {
+        List<WeightMeasurement> measurements = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 7, 30);
+        for (int d = 0; d < MEASUREMENTS; d++) {
+            double weight = 85.0 - d * 0.005 + (d % 7) * 0.1;
+            measurements.add(new WeightMeasurement((long) d + 1, null, start.plusDays(d), weight, 18.0 - d * 0.002,
+                    40.0 + d * 0.001, 3.2, Math.round(weight / 3.24 * 10.0) / 10.0, 30, 55.0, 8));
+        }
+        return measurements;
+    }
+
+    private record Result(int bytes, double writeMs, double readMs) {
+    }
+}
@@ -0,0 +1,173 @@
+package de.fitness.tracker.benchmark;
+
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.*;
+import de.fitness.tracker.repository.*;
+import de.fitness.tracker.service.WorkoutSaveService;
+import de.fitness.tracker.support.QueryCounter;
+import de.fitness.tracker.support.QueryCountingDataSourceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vergleicht den alten save-complete-Pfad (findById + save pro Zeile) mit dem
+ * gebatchten WorkoutSaveService: Round-Trips und Latenz pro Workout
+ * (6 Übungen x 5 Sätze). Läuft nicht im normalen Build:
+ * {@code mvn test -Dtest=SaveCompleteBenchmark}
+ *
+ * Gegen H2 in-memory ist die Latenz nur relativ aussagekräftig; gegen
+ * PostgreSQL kostet jeder Round-Trip zusätzlich Netzwerk-Latenz.
+ */
+@SpringBootTest
+@Import(QueryCountingDataSourceConfig.class)
+class SaveCompleteBenchmark {
+
+    private static final int EXERCISES = 6;
+    private static final int SETS = 5;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private WorkoutExerciseRepository workoutExerciseRepository;
+
+    @Autowired
+    private ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    private WorkoutSaveService workoutSaveService;
+
+    @Test
+    void compareSavePaths() {
+        User user = new User();
+        user.setUsername("bench-" + System.nanoTime());
+        user.setPassword("x");
+        user.setHeight(180);
+        user = userRepository.save(user);
+
+        List<Long> exerciseIds = new ArrayList<>();
+        for (int i = 0; i < EXERCISES; i++) {
+            Exercise exercise = new Exercise();
+            exercise.setName("Bench Exercise " + System.nanoTime() + "-" + i);
+            exerciseIds.add(exerciseRepository.save(exercise).getId());
+        }
+
+        WorkoutSaveRequest request = buildRequest(user.getId(), exerciseIds);
+        User owner = user;
+
+        Result before = measure(r -> saveLegacy(r), request);
+        Result after = measure(r -> workoutSaveService.saveComplete(userRepository.findById(r.getUserId()).get(), r),
+                request);
+
+        System.out.printf("save-complete (%d x %d): before %d round-trips, %.3f ms mean, %.3f ms p50%n", EXERCISES,
+                SETS, before.roundTrips, before.meanMs, before.p50Ms);
+        System.out.printf("save-complete (%d x %d): after  %d round-trips, %.3f ms mean, %.3f ms p50%n", EXERCISES,
+                SETS, after.roundTrips, after.meanMs, after.p50Ms);
+
+        assertTrue(after.roundTrips < before.roundTrips, "batched save should need fewer round-trips");
+        assertTrue(workoutRepository.findViewsByUserId(owner.getId()).size() > 0);
+    }
+
+    // Nachbau des bisherigen Controller-Pfads ohne Transaktion
+    private void saveLegacy(WorkoutSaveRequest request) {
+        User user = userRepository.findById(request.getUserId()).get();
+
+        Workout workout = new Workout();
+        workout.setUser(user);
+        workout.setName(request.getName());
+        workout.setStartTime(request.getStartTime());
+        workout.setEndTime(request.getEndTime());
+        Workout savedWorkout = workoutRepository.save(workout);
+
+        for (WorkoutSaveRequest.ExerciseData exerciseData : request.getExercises()) {
+            Optional<Exercise> exercise = exerciseRepository.findById(exerciseData.getExerciseId());
+            if (exercise.isEmpty())
+                continue;
+
+            WorkoutExercise workoutExercise = new WorkoutExercise();
+            workoutExercise.setWorkout(savedWorkout);
+            workoutExercise.setExercise(exercise.get());
+            workoutExercise.setOrderIndex(exerciseData.getOrderIndex());
+            WorkoutExercise savedWE = workoutExerciseRepository.save(workoutExercise);
+
+            for (WorkoutSaveRequest.SetData setData : exerciseData.getSets()) {
+                ExerciseSet set = new ExerciseSet();
+                set.setWorkoutExercise(savedWE);
+                set.setSetNumber(setData.getSetNumber());
+                set.setWeight(setData.getWeight());
+                set.setReps(setData.getReps());
+                exerciseSetRepository.save(set);
+            }
+        }
+    }
+
+    private Result measure(Consumer<WorkoutSaveRequest> save, WorkoutSaveRequest request) {
+        for (int i = 0; i < WARMUP; i++) {
+            save.accept(request);
+        }
+
+        QueryCounter.reset();
+        save.accept(request);
+        long roundTrips = QueryCounter.total();
+
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            save.accept(request);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double mean = Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+        return new Result(roundTrips, mean, nanos[ITERATIONS / 2] / 1_000_000.0);
+    }
+
+    private static WorkoutSaveRequest buildRequest(Long userId, List<Long> exerciseIds) {
+        WorkoutSaveRequest request = new WorkoutSaveRequest();
+        request.setUserId(userId);
+        request.setName("Benchmark");
+        request.setStartTime(LocalDateTime.now().minusHours(1));
+        request.setEndTime(LocalDateTime.now());
+
+        List<WorkoutSaveRequest.ExerciseData> exercises = new ArrayList<>();
+        for (int e = 0; e < exerciseIds.size(); e++) {
+            WorkoutSaveRequest.ExerciseData data = new WorkoutSaveRequest.ExerciseData();
+            data.setExerciseId(exerciseIds.get(e));
+            data.setOrderIndex(e + 1);
+
+            List<WorkoutSaveRequest.SetData> sets = new ArrayList<>();
+            for (int s = 1; s <= SETS; s++) {
+                WorkoutSaveRequest.SetData set = new WorkoutSaveRequest.SetData();
+                set.setSetNumber(s);
+                set.setWeight(60.0 + s * 2.5);
+                set.setReps(10 - s);
+                sets.add(set);
+            }
+            data.setSets(sets);
+            exercises.add(data);
+        }
+        request.setExercises(exercises);
+        return request;
+    }
+
+    private record Result(long roundTrips, double meanMs, double p50Ms) {
+    }
+}
@@ -0,0 +1,132 @@
+package de.fitness.tracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.FitnessTrackerApplication;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import de.fitness.tracker.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lasttest der wichtigsten Endpunkte mit Plattform-Threads und mit virtuellen
+ * Threads (Profil "virtual-threads"): Durchsatz und p99-Latenz bei mehr
+ * gleichzeitigen Clients als Tomcat-Threads. Läuft nicht im normalen Build:
+ * {@code mvn test -Dtest=ThreadModeLoadBenchmark}
+ *
+ * Gegen H2 in-memory wartet kein Thread auf die Datenbank, der Unterschied ist
+ * dort klein. Aussagekräftig gegen PostgreSQL, z.B. mit
+ * {@code -Dspring.datasource.url=jdbc:postgresql://localhost:5432/fitness_bench}
+ * (plus username/password/driver-class-name; das Schema legt Flyway an).
+ */
+class ThreadModeLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmupSeconds", 3));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("benchmark.seconds", 10));
+
+    private final HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Map<String, Map<String, LatencyRecorder.Summary>> results = new LinkedHashMap<>();
+        results.put("platform", run(false));
+        results.put("virtual", run(true));
+
+        System.out.printf("%-10s %-36s %12s %10s %10s %8s%n", "mode", "endpoint", "requests/s", "p50 ms", "p99 ms",
+                "errors");
+        results.forEach((mode, byEndpoint) -> byEndpoint.forEach((endpoint, r) -> System.out.printf(
+                "%-10s %-36s %12.1f %10.2f %10.2f %8d%n", mode, endpoint, r.throughput(), r.p50Ms(), r.p99Ms(),
+                r.errors())));
+
+        results.values().forEach(byEndpoint -> byEndpoint.values()
+                .forEach(r -> assertTrue(r.requests() > 0, "every endpoint should answer under load")));
+    }
+
+    private Map<String, LatencyRecorder.Summary> run(boolean virtualThreads) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(FitnessTrackerApplication.class)
+                .properties("server.port=0", "spring.jpa.show-sql=false");
+        if (virtualThreads) {
+            builder.profiles("virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext context = builder.run()) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            TestFixtures fixtures = context.getAutowireCapableBeanFactory().createBean(TestFixtures.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            User user = fixtures.user();
+            List<Exercise> exercises = fixtures.exercises(6);
+            fixtures.workouts(user, exercises, 50, 4);
+            String token = "Bearer " + context.getBean(JwtUtil.class).generateToken(user.getUsername(), user.getId(),
+                    user.getRole());
+            AtomicLong day = new AtomicLong();
+
+            Map<String, Supplier<HttpRequest>> endpoints = new LinkedHashMap<>();
+            endpoints.put("GET /api/workouts/user/{id}", () -> get(base + "/api/workouts/user/" + user.getId(), token));
+            endpoints.put("GET /api/workouts/user/{id}/history",
+                    () -> get(base + "/api/workouts/user/" + user.getId() + "/history?limit=20", token));
+            endpoints.put("GET /api/records/user/{id}", () -> get(base + "/api/records/user/" + user.getId(), token));
+            endpoints.put("POST /api/workouts/save-complete", () -> {
+                try {
+                    String body = objectMapper.writeValueAsString(fixtures.saveRequest(user, exercises, 4,
+                            LocalDateTime.of(2025, 1, 1, 18, 0).plusMinutes(day.incrementAndGet())));
+                    return HttpRequest.newBuilder(URI.create(base + "/api/workouts/save-complete"))
+                            .header("Authorization", token).header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            Map<String, LatencyRecorder.Summary> results = new LinkedHashMap<>();
+            for (Map.Entry<String, Supplier<HttpRequest>> endpoint : endpoints.entrySet()) {
+                load(endpoint.getValue(), WARMUP);
+                results.put(endpoint.getKey(), load(endpoint.getValue(), MEASURE));
+            }
+            return results;
+        }
+    }
+
+    // CLIENTS gleichzeitige Clients (je ein virtueller Thread) senden so schnell wie möglich Requests
+    private LatencyRecorder.Summary load(Supplier<HttpRequest> request, Duration duration) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = http.send(request.get(), HttpResponse.BodyHandlers.discarding());
+                        recorder.record("request", System.nanoTime() - start, response.statusCode() >= 400);
+                    }
+                    return null;
+                });
+            }
+        }
+        return recorder.summarize(duration).get("request");
+    }
+
+    private static HttpRequest get(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Authorization", token).GET().build();
+    }
+}
@@ -0,0 +1,227 @@
+package de.fitness.tracker.controller;
+
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.Workout;
+import de.fitness.tracker.model.WorkoutTemplate;
+import de.fitness.tracker.repository.UserRepository;
+import de.fitness.tracker.support.TestFixtures;
+import de.fitness.tracker.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * API nur mit gültigem Bearer-Token; Admin-Endpunkte nur mit Rolle ADMIN
+ * (aus der Datenbank, nicht aus dem Token), fremde userIds und fremde
+ * Ressourcen werden abgelehnt. Login mit Rehash veralteter Hashes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class AuthenticationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void apiRequiresToken() throws Exception {
+        User user = fixtures.user();
+
+        mockMvc.perform(get("/api/workouts/user/{userId}", user.getId())).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/workouts/user/{userId}", user.getId()).header("Authorization", "Bearer invalid"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/workouts/user/{userId}", user.getId()).with(fixtures.auth(user)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void adminEndpointsRequireAdminRole() throws Exception {
+        User user = fixtures.user();
+        User admin = fixtures.admin();
+
+        mockMvc.perform(get("/api/admin/users").with(fixtures.auth(user))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/users").with(fixtures.auth(admin))).andExpect(status().isOk());
+    }
+
+    // Login läuft asynchron auf dem Hash-Pool; Hashes mit kleinerem Work-Factor werden dabei ersetzt
+    @Test
+    void loginRehashesWeakPasswordHash() throws Exception {
+        User user = fixtures.user();
+        userRepository.updatePassword(user.getId(), new BCryptPasswordEncoder(4).encode("secret"));
+
+        MvcResult wrong = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + user.getUsername() + "\",\"password\":\"wrong\"}"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(wrong)).andExpect(status().isUnauthorized());
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + user.getUsername() + "\",\"password\":\"secret\"}"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(login)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(user.getId()));
+
+        String rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertThat(rehashed).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches("secret", rehashed)).isTrue();
+    }
+
+    // Registrieren und Zurücksetzen: Hash auf dem Hash-Pool, Speichern danach auf dem applicationTaskExecutor
+    @Test
+    void registerAndPasswordResetStoreHashes() throws Exception {
+        String username = "registered-" + System.nanoTime();
+        MvcResult register = mockMvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"secret\",\"height\":180}"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(register)).andExpect(status().isCreated())
+                .andExpect(jsonPath("$.username").value(username)).andExpect(jsonPath("$.role").value("USER"));
+
+        User user = userRepository.findByUsername(username).orElseThrow();
+        assertThat(passwordEncoder.matches("secret", user.getPassword())).isTrue();
+
+        MvcResult reset = mockMvc.perform(put("/api/admin/users/{userId}/reset-password", user.getId())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"newPassword\":\"changed\"}")
+                .with(fixtures.auth(fixtures.admin()))).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(reset)).andExpect(status().isOk());
+
+        String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertThat(passwordEncoder.matches("changed", stored)).isTrue();
+    }
+
+    @Test
+    void writesRejectForeignUserId() throws Exception {
+        User user = fixtures.user();
+        User other = fixtures.user();
+
+        mockMvc.perform(post("/api/weight").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":" + other.getId() + ",\"date\":\"2024-01-01T07:00:00\",\"weight\":80}")
+                .with(fixtures.auth(user))).andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/weight").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":" + user.getId() + ",\"date\":\"2024-01-01T07:00:00\",\"weight\":80}")
+                .with(fixtures.auth(user))).andExpect(status().isOk());
+    }
+
+    // Fremde Workouts, Vorlagen und Einstellungen: 403, eigene Einstellungen ohne User-Daten
+    @Test
+    void foreignResourcesAreForbidden() throws Exception {
+        User user = fixtures.user();
+        User other = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+        Workout workout = fixtures.workouts(other, exercises, 1, 1).get(0);
+        WorkoutTemplate template = fixtures.template(other, exercises);
+
+        mockMvc.perform(post("/api/workouts/{workoutId}/exercises", workout.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"exercise\":{\"id\":" + exercises.get(0).getId() + "},\"orderIndex\":2}")
+                .with(fixtures.auth(user))).andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/workouts/exercises/{workoutExerciseId}/sets",
+                workout.getExercises().get(0).getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"setNumber\":2,\"weight\":60,\"reps\":8}").with(fixtures.auth(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/templates/{id}", template.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Fremd\",\"exercises\":[]}").with(fixtures.auth(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/templates/{id}", template.getId()).with(fixtures.auth(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/preferences/user/{userId}", other.getId()).with(fixtures.auth(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/preferences/user/{userId}", other.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"theme\":\"dark\"}").with(fixtures.auth(user))).andExpect(status().isForbidden());
+
+        mockMvc.perform(delete("/api/templates/{id}", template.getId()).with(fixtures.auth(other)))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/preferences/user/{userId}", user.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"theme\":\"dark\"}").with(fixtures.auth(user))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/preferences/user/{userId}", user.getId()).with(fixtures.auth(user)))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.userId").value(user.getId()))
+                .andExpect(jsonPath("$.theme").value("dark")).andExpect(jsonPath("$.user").doesNotExist());
+    }
+
+    // Lesen fremder Daten nur als Admin
+    @Test
+    void foreignReadsAreForbidden() throws Exception {
+        User user = fixtures.user();
+        User other = fixtures.user();
+        User admin = fixtures.admin();
+        List<Exercise> exercises = fixtures.exercises(1);
+        Workout workout = fixtures.workouts(other, exercises, 1, 1).get(0);
+        Long exerciseId = exercises.get(0).getId();
+
+        List<MockHttpServletRequestBuilder> reads = List.of(
+                get("/api/workouts/user/{userId}", other.getId()),
+                get("/api/workouts/user/{userId}/history", other.getId()),
+                get("/api/workouts/{id}", workout.getId()),
+                get("/api/workouts/exercises/{exerciseId}/last", exerciseId).param("userId", other.getId().toString()),
+                get("/api/weight/user/{userId}", other.getId()),
+                get("/api/weight/user/{userId}/statistics", other.getId()),
+                get("/api/records/user/{userId}", other.getId()),
+                get("/api/records/user/{userId}/exercises/{exerciseId}", other.getId(), exerciseId),
+                get("/api/progress/user/{userId}/exercises/{exerciseId}", other.getId(), exerciseId),
+                get("/api/volume/user/{userId}", other.getId()),
+                get("/api/export/user/{userId}/workouts", other.getId()),
+                get("/api/export/user/{userId}/weights", other.getId()),
+                get("/api/import/user/{userId}/jobs/{importKey}", other.getId(), "fremd"));
+
+        for (MockHttpServletRequestBuilder read : reads) {
+            mockMvc.perform(read.with(fixtures.auth(user))).andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/api/workouts/{id}", workout.getId()).with(fixtures.auth(other)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/workouts/{id}", workout.getId()).with(fixtures.auth(admin)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/records/user/{userId}", other.getId()).with(fixtures.auth(admin)))
+                .andExpect(status().isOk());
+    }
+
+    // Rolle kommt aus der Datenbank: ein ADMIN-Claim allein reicht nicht, Rollenwechsel gelten sofort
+    @Test
+    void roleIsCheckedAgainstDatabase() throws Exception {
+        User user = fixtures.user();
+        User admin = fixtures.admin();
+        String forged = jwtUtil.generateToken(user.getUsername(), user.getId(), "ADMIN");
+
+        mockMvc.perform(get("/api/admin/users").header("Authorization", "Bearer " + forged))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put("/api/admin/users/{userId}/role", user.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"role\":\"ADMIN\"}").with(fixtures.auth(admin))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/users").with(fixtures.auth(user))).andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/admin/users/{userId}/role", user.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"role\":\"USER\"}").with(fixtures.auth(admin))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/users").header("Authorization", "Bearer " + forged))
+                .andExpect(status().isForbidden());
+    }
+}
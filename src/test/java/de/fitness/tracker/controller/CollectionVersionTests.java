@@ -0,0 +1,132 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.dto.TemplateSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.UserCollection;
+import de.fitness.tracker.service.CollectionVersionService;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETags der drei Benutzer-Listen: ein Write in einem Bereich macht genau
+ * dessen ETag ungültig, die anderen bleiben 304. Gleichzeitige erste Writes
+ * zählen alle und scheitern nicht am Unique-Key des Zählers.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class CollectionVersionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CollectionVersionService versionService;
+
+    @Test
+    void writeInvalidatesOnlyItsOwnCollection() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+
+        Map<String, RequestBuilder> writes = new LinkedHashMap<>();
+        writes.put("/api/workouts/user/{userId}", post("/api/workouts/save-complete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        fixtures.saveRequest(user, exercises, 1, LocalDateTime.of(2024, 7, 1, 18, 0))))
+                .with(fixtures.auth(user)));
+        writes.put("/api/templates/user/{userId}", post("/api/templates").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(template(exercises.get(0)))).with(fixtures.auth(user)));
+        writes.put("/api/weight/user/{userId}", post("/api/weight").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("date", "2024-07-01T07:00:00", "weight", 80.0)))
+                .with(fixtures.auth(user)));
+
+        for (Map.Entry<String, RequestBuilder> write : writes.entrySet()) {
+            Map<String, String> etags = new LinkedHashMap<>();
+            for (String path : writes.keySet()) {
+                etags.put(path, etag(user, path));
+            }
+
+            int status = mockMvc.perform(write.getValue()).andReturn().getResponse().getStatus();
+            assertThat(status).as("write for %s", write.getKey()).isBetween(200, 201);
+
+            for (String path : writes.keySet()) {
+                int expected = path.equals(write.getKey()) ? 200 : 304;
+                mockMvc.perform(get(path, user.getId()).header("If-None-Match", etags.get(path))
+                        .with(fixtures.auth(user))).andExpect(status().is(expected));
+            }
+            assertThat(etag(user, write.getKey())).isNotEqualTo(etags.get(write.getKey()));
+        }
+    }
+
+    @Test
+    void concurrentFirstWritesAreAllCounted() throws Exception {
+        User user = fixtures.user();
+        int writes = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(writes);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < writes; i++) {
+                String date = LocalDateTime.of(2024, 7, 1, 7, 0).plusDays(i).toString();
+                tasks.add(() -> mockMvc.perform(post("/api/weight").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("date", date, "weight", 80.0)))
+                        .with(fixtures.auth(user))).andReturn().getResponse().getStatus());
+            }
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                assertThat(result.get()).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(versionService.current(user.getId(), UserCollection.WEIGHTS)).isEqualTo(writes);
+    }
+
+    private String etag(User user, String path) throws Exception {
+        String etag = mockMvc.perform(get(path, user.getId()).with(fixtures.auth(user))).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+
+    private TemplateSaveRequest template(Exercise exercise) {
+        TemplateSaveRequest.TemplateExerciseData data = new TemplateSaveRequest.TemplateExerciseData();
+        data.setExerciseId(exercise.getId());
+        data.setOrderIndex(1);
+        data.setSetsCount(3);
+        TemplateSaveRequest request = new TemplateSaveRequest();
+        request.setName("Push");
+        request.setExercises(List.of(data));
+        return request;
+    }
+}
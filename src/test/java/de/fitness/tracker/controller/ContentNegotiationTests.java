@@ -0,0 +1,68 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JSON bleibt Standard; CBOR und Smile nur mit passendem Accept-Header und mit
+ * demselben Inhalt wie JSON.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ContentNegotiationTests {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void binaryFormatsAreNegotiatedAndMatchJson() throws Exception {
+        User user = fixtures.user();
+        fixtures.workouts(user, fixtures.exercises(2), 3, 2);
+        fixtures.weightMeasurements(user, 5);
+        RequestPostProcessor auth = fixtures.auth(user);
+
+        for (String path : new String[] { "/api/workouts/user/{userId}", "/api/weight/user/{userId}" }) {
+            byte[] json = mockMvc.perform(get(path, user.getId()).with(auth).accept(MediaType.ALL))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)).andReturn()
+                    .getResponse().getContentAsByteArray();
+            JsonNode expected = objectMapper.readTree(json);
+
+            byte[] cbor = mockMvc.perform(get(path, user.getId()).with(auth).accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk()).andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertThat(objectMapper.copyWith(new CBORFactory()).readTree(cbor)).isEqualTo(expected);
+
+            byte[] smile = mockMvc.perform(get(path, user.getId()).with(auth).accept(SMILE))
+                    .andExpect(status().isOk()).andExpect(content().contentType(SMILE)).andReturn().getResponse()
+                    .getContentAsByteArray();
+            assertThat(objectMapper.copyWith(new SmileFactory()).readTree(smile)).isEqualTo(expected);
+        }
+    }
+}
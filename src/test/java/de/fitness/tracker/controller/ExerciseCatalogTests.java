@@ -0,0 +1,88 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Übungskatalog aus dem Snapshot: createExercise tauscht den Snapshot aus,
+ * das alte ETag liefert danach wieder 200 mit der neuen Übung. Abgelehnte
+ * Anlagen lassen das ETag unverändert.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ExerciseCatalogTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void createExerciseRefreshesCatalogAndEtag() throws Exception {
+        User user = fixtures.user();
+        User admin = fixtures.admin();
+        String name = "Katalog-Übung " + System.nanoTime();
+        String etag = etag(user);
+
+        // Ohne TRUSTED_USER/ADMIN abgelehnt, Katalog unverändert
+        mockMvc.perform(post("/api/exercises").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", name))).with(fixtures.auth(user)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/exercises").header("If-None-Match", etag).with(fixtures.auth(user)))
+                .andExpect(status().isNotModified());
+
+        JsonNode created = objectMapper.readTree(mockMvc.perform(post("/api/exercises")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", name, "primaryMuscleGroup",
+                        "CHEST", "equipmentType", "BARBELL"))).with(fixtures.auth(admin)))
+                .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString());
+        long id = created.get("id").asLong();
+
+        // Altes ETag passt nicht mehr, die neue Übung steht in Liste und Einzelabruf
+        MvcResult list = mockMvc.perform(get("/api/exercises").header("If-None-Match", etag)
+                .with(fixtures.auth(user))).andExpect(status().isOk()).andReturn();
+        String refreshed = list.getResponse().getHeader("ETag");
+        assertThat(refreshed).isNotNull().isNotEqualTo(etag);
+        JsonNode exercises = objectMapper.readTree(list.getResponse().getContentAsString());
+        assertThat(exercises.findValuesAsText("name")).contains(name);
+        mockMvc.perform(get("/api/exercises/{id}", id).with(fixtures.auth(user))).andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value(name)).andExpect(jsonPath("$.primaryMuscleGroup").value("CHEST"));
+
+        // Doppelter Name: 400, kein neuer Snapshot
+        mockMvc.perform(post("/api/exercises").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", name))).with(fixtures.auth(admin)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/exercises").header("If-None-Match", refreshed).with(fixtures.auth(user)))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etag(User user) throws Exception {
+        String etag = mockMvc.perform(get("/api/exercises").with(fixtures.auth(user))).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+}
@@ -0,0 +1,132 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CSV-Export: Felder mit Komma, Anführungszeichen und Zeilenumbruch nach
+ * RFC 4180 quoten, archivierte und heiße Workouts chronologisch gemischt.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void csvQuotesSpecialCharactersAndMergesArchivedWorkouts() throws Exception {
+        User user = fixtures.user();
+        User admin = fixtures.admin();
+        List<Exercise> exercises = fixtures.exercises(1);
+
+        // Zwei alte Workouts (werden archiviert) und ein aktuelles mit Sonderzeichen
+        saveComplete(user, fixtures.saveRequest(user, exercises, 2, LocalDateTime.of(2023, 3, 1, 18, 0)));
+        saveComplete(user, fixtures.saveRequest(user, exercises, 1, LocalDateTime.of(2023, 11, 1, 18, 0)));
+        WorkoutSaveRequest special = fixtures.saveRequest(user, exercises, 2, LocalDateTime.now().minusDays(1)
+                .withNano(0));
+        special.setName("Push, \"schwer\"");
+        special.getExercises().get(0).setComment("erste Zeile\nzweite Zeile");
+        saveComplete(user, special);
+
+        mockMvc.perform(post("/api/admin/archive/run").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("userId", user.getId(), "minAgeDays", 30)))
+                .with(fixtures.auth(admin))).andExpect(status().isOk()).andExpect(jsonPath("$.workouts").value(2));
+
+        MvcResult started = mockMvc.perform(get("/api/export/user/{userId}/workouts", user.getId())
+                .param("format", "CSV").with(fixtures.auth(user))).andReturn();
+        String csv = mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString();
+
+        assertThat(csv).contains(",\"Push, \"\"schwer\"\"\",").contains(",\"erste Zeile\nzweite Zeile\",");
+
+        List<List<String>> records = parse(csv);
+        assertThat(records.get(0)).containsExactly("workout_id", "workout_name", "start_time", "end_time",
+                "exercise_order", "exercise", "comment", "set_number", "weight_kg", "reps", "duration_seconds",
+                "distance_km");
+        assertThat(records).hasSize(1 + 2 + 1 + 2).allSatisfy(r -> assertThat(r).hasSize(12));
+
+        // Archivierte Jahre vor den heißen Workouts, innerhalb eines Workouts nach Satznummer
+        List<String> startTimes = records.subList(1, records.size()).stream().map(r -> r.get(2)).toList();
+        assertThat(startTimes).isSorted();
+        assertThat(startTimes.get(0)).startsWith("2023-03-01T18:00");
+        assertThat(startTimes.get(2)).startsWith("2023-11-01T18:00");
+
+        List<String> last = records.get(records.size() - 1);
+        assertThat(last.get(1)).isEqualTo("Push, \"schwer\"");
+        assertThat(last.get(6)).isEqualTo("erste Zeile\nzweite Zeile");
+        assertThat(last.get(7)).isEqualTo("2");
+        assertThat(last.get(8)).isEqualTo("55.0");
+        assertThat(last.get(9)).isEqualTo("10");
+    }
+
+    private void saveComplete(User user, WorkoutSaveRequest request) throws Exception {
+        mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)).with(fixtures.auth(user)))
+                .andExpect(status().isCreated());
+    }
+
+    // Minimaler RFC-4180-Leser: Quotes, verdoppelte Quotes und Zeilenumbrüche in Feldern
+    private static List<List<String>> parse(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,115 @@
+package de.fitness.tracker.controller;
+
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Export eines Users wieder importieren: gleiche Workouts, und ein erneuter
+ * Upload mit demselben importKey legt nichts doppelt an. Ungültige Workouts
+ * werden gezählt und übersprungen, statt den Import anzuhalten.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ImportExportRoundTripTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "CSV", "JSON" })
+    void exportedHistoryCanBeImportedAndResumed(String format) throws Exception {
+        User source = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(3);
+        fixtures.workouts(source, exercises, 7, 2);
+
+        MvcResult export = mockMvc.perform(get("/api/export/user/{userId}/workouts", source.getId())
+                .param("format", format).with(fixtures.auth(source))).andReturn();
+        byte[] file = mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsByteArray();
+
+        User target = fixtures.user();
+        for (int run = 0; run < 2; run++) {
+            mockMvc.perform(post("/api/import/user/{userId}/workouts", target.getId()).param("importKey", "backup")
+                    .param("format", format).content(file).with(fixtures.auth(target)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.processedWorkouts").value(7))
+                    .andExpect(jsonPath("$.createdWorkouts").value(7))
+                    .andExpect(jsonPath("$.skippedExercises").value(0));
+        }
+
+        mockMvc.perform(get("/api/workouts/user/{userId}", target.getId()).with(fixtures.auth(target)))
+                .andExpect(jsonPath("$.length()").value(7))
+                .andExpect(jsonPath("$[0].exercises.length()").value(3))
+                .andExpect(jsonPath("$[0].exercises[0].sets.length()").value(2));
+        mockMvc.perform(get("/api/records/user/{userId}", target.getId()).with(fixtures.auth(target)))
+                .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    // Zu lange Texte würden den Batch an der Datenbank scheitern lassen: vorab als ungültig zählen
+    @Test
+    void invalidWorkoutsAreCountedAndSkipped() throws Exception {
+        User user = fixtures.user();
+        String exercise = fixtures.exercises(1).get(0).getName();
+        String json = "[" + workoutJson("ok", "Push", exercise, "leicht") + ","
+                + workoutJson("long-comment", "Pull", exercise, "x".repeat(501)) + ","
+                + workoutJson("long-name", "y".repeat(256), exercise, null) + "]";
+
+        for (int run = 0; run < 2; run++) {
+            mockMvc.perform(post("/api/import/user/{userId}/workouts", user.getId()).param("importKey", "mixed")
+                    .param("format", "JSON").contentType(MediaType.APPLICATION_JSON).content(json)
+                    .with(fixtures.auth(user)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.processedWorkouts").value(3))
+                    .andExpect(jsonPath("$.createdWorkouts").value(1))
+                    .andExpect(jsonPath("$.invalidWorkouts").value(2))
+                    .andExpect(jsonPath("$.error").doesNotExist());
+        }
+
+        // Unlesbare Datei: eigene Meldung mit Zeile statt Parser- oder Datenbankdetails
+        String csv = "workout_id,start_time,exercise,set_number,weight_kg\n"
+                + "a,2024-01-01T10:00:00," + exercise + ",1,schwer\n";
+        mockMvc.perform(post("/api/import/user/{userId}/workouts", user.getId()).param("importKey", "broken")
+                .content(csv).with(fixtures.auth(user)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").value(startsWith("Import stopped after 0 workouts: Invalid weight_kg "
+                        + "'schwer' in CSV line")));
+        mockMvc.perform(post("/api/import/user/{userId}/workouts", user.getId()).param("importKey", "truncated")
+                .param("format", "JSON").contentType(MediaType.APPLICATION_JSON).content("[{\"name\":")
+                .with(fixtures.auth(user)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Import stopped after 0 workouts: file could not be parsed"));
+    }
+
+    private static String workoutJson(String id, String name, String exercise, String comment) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"startTime\":\"2024-02-01T18:00:00\","
+                + "\"exercises\":[{\"exercise\":\"" + exercise + "\",\"comment\":"
+                + (comment != null ? "\"" + comment + "\"" : "null") + ",\"sets\":[{\"weight\":50,\"reps\":8}]}]}";
+    }
+}
@@ -0,0 +1,148 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.service.LastPerformanceService;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * "Letztes Mal"-Projektion: zeigt nach jedem Speicherweg auf die neueste
+ * Ausführung mit Sätzen, nachgetragene ältere Workouts überschreiben nichts,
+ * der Lesezugriff schreibt nicht und der Rebuild entspricht der Historie.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class LastPerformanceTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LastPerformanceService lastPerformanceService;
+
+    @Test
+    void newestWorkoutWinsAndBackdatedSavesDoNotOverwrite() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(2);
+
+        Long march10 = saveComplete(user, exercises, 2, LocalDateTime.of(2024, 3, 10, 18, 0));
+        Long march20 = saveComplete(user, exercises.subList(0, 1), 3, LocalDateTime.of(2024, 3, 20, 18, 0));
+        saveComplete(user, exercises, 4, LocalDateTime.of(2024, 3, 1, 18, 0));
+
+        JsonNode first = last(user, exercises.get(0));
+        assertThat(first.get("workoutId").asLong()).isEqualTo(march20);
+        assertThat(first.get("sets")).hasSize(3);
+        assertThat(first.get("sets").get(2).get("weight").asDouble()).isEqualTo(57.5);
+        assertThat(first.get("sets").get(2).get("reps").asInt()).isEqualTo(9);
+
+        JsonNode second = last(user, exercises.get(1));
+        assertThat(second.get("workoutId").asLong()).isEqualTo(march10);
+        assertThat(second.get("sets")).hasSize(2);
+    }
+
+    @Test
+    void setAddedToNewExerciseUpdatesProjection() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(2);
+        fixtures.workouts(user, exercises, 2, 2);
+        Long workoutId = saveComplete(user, exercises.subList(0, 1), 1, LocalDateTime.of(2024, 6, 1, 18, 0));
+
+        String added = mockMvc.perform(post("/api/workouts/{workoutId}/exercises", workoutId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        Map.of("exercise", Map.of("id", exercises.get(1).getId()), "orderIndex", 2)))
+                .with(fixtures.auth(user))).andExpect(status().isCreated()).andReturn().getResponse()
+                .getContentAsString();
+        Long workoutExerciseId = objectMapper.readTree(added).get("id").asLong();
+
+        mockMvc.perform(post("/api/workouts/exercises/{workoutExerciseId}/sets", workoutExerciseId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("setNumber", 1, "weight", 100.0, "reps", 5)))
+                .with(fixtures.auth(user))).andExpect(status().isCreated());
+
+        JsonNode last = last(user, exercises.get(1));
+        assertThat(last.get("id").asLong()).isEqualTo(workoutExerciseId);
+        assertThat(last.get("workoutId").asLong()).isEqualTo(workoutId);
+        assertThat(last.get("sets")).hasSize(1);
+        assertThat(last.get("sets").get(0).get("weight").asDouble()).isEqualTo(100.0);
+    }
+
+    @Test
+    void readDoesNotWriteAndRebuildMatchesHistory() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(2);
+        fixtures.workouts(user, exercises, 3, 2);
+        // Gleiche Startzeit wie das letzte Workout: die später gespeicherte Ausführung gewinnt
+        saveComplete(user, exercises.subList(0, 1), 1, LocalDateTime.of(2024, 1, 3, 18, 0));
+
+        jdbcTemplate.update("DELETE FROM last_exercise_performances WHERE user_id = ?", user.getId());
+        mockMvc.perform(get("/api/workouts/exercises/{exerciseId}/last", exercises.get(0).getId())
+                .param("userId", user.getId().toString()).with(fixtures.auth(user))).andExpect(status().isOk())
+                .andExpect(content().string(""));
+        assertThat(rows(user)).isZero();
+
+        assertThat(lastPerformanceService.rebuild(user.getId())).isEqualTo(2);
+        for (Exercise exercise : exercises) {
+            assertThat(last(user, exercise).get("id").asLong()).isEqualTo(latestFromHistory(user, exercise));
+        }
+        assertThat(last(user, exercises.get(0)).get("sets")).hasSize(1);
+    }
+
+    // Gegenprobe direkt aus der Historie: letzte Ausführung mit Sätzen (gleiche Startzeit -> höhere ID)
+    private Long latestFromHistory(User user, Exercise exercise) {
+        return jdbcTemplate.queryForObject("SELECT we.id FROM workout_exercises we "
+                + "JOIN workouts w ON w.id = we.workout_id WHERE w.user_id = ? AND we.exercise_id = ? "
+                + "AND EXISTS (SELECT 1 FROM exercise_sets s WHERE s.workout_exercise_id = we.id) "
+                + "ORDER BY w.start_time DESC, we.id DESC LIMIT 1", Long.class, user.getId(), exercise.getId());
+    }
+
+    private JsonNode last(User user, Exercise exercise) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/workouts/exercises/{exerciseId}/last",
+                exercise.getId()).param("userId", user.getId().toString()).with(fixtures.auth(user)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+    }
+
+    private Long saveComplete(User user, List<Exercise> exercises, int sets, LocalDateTime startTime)
+            throws Exception {
+        String response = mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(fixtures.saveRequest(user, exercises, sets, startTime)))
+                .with(fixtures.auth(user))).andExpect(status().isCreated()).andReturn().getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
+    private long rows(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM last_exercise_performances WHERE user_id = ?",
+                Long.class, user.getId());
+    }
+}
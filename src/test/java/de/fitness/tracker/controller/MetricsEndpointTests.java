@@ -0,0 +1,96 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prometheus-Scrape enthält Latenz-Histogramme und Statement-Zähler je
+ * Endpunkt, Hibernate-, Hikari- und JVM-Metriken sowie die fachlichen Zähler.
+ * Die SQL-Statistik ordnet Statements ihrem Endpunkt zu.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Import(TestFixtures.class)
+class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void prometheusScrapeCoversEndpointsJpaPoolAndDomainCounters() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(2);
+
+        mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        fixtures.saveRequest(user, exercises, 3, LocalDateTime.of(2025, 3, 1, 18, 0))))
+                .with(fixtures.auth(user))).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/workouts/exercises/{exerciseId}/last", exercises.get(0).getId())
+                .param("userId", user.getId().toString()).with(fixtures.auth(user))).andExpect(status().isOk());
+
+        // jvm.gc.pause entsteht erst mit der ersten GC-Benachrichtigung: eine GC auslösen und auf den Timer warten
+        System.gc();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (meterRegistry.find("jvm.gc.pause").timer() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk()).andReturn()
+                .getResponse().getContentAsString();
+
+        assertThat(scrape).contains("http_server_requests_seconds_bucket{",
+                "uri=\"/api/workouts/save-complete\"", "uri=\"/api/workouts/exercises/{exerciseId}/last\"",
+                "http_server_requests_statements_bucket{", "hibernate_entities_loads_total",
+                "hikaricp_connections_active", "hikaricp_connections_acquire_seconds_bucket",
+                "jvm_gc_pause_seconds", "jvm_gc_memory_allocated_bytes_total", "password_hashing_seconds_count");
+        assertThat(scrape).containsPattern("fitness_workouts_saved_total\\{[^}]*source=\"complete\"[^}]*} [1-9]");
+        assertThat(scrape).containsPattern("fitness_sets_logged_total\\{[^}]*source=\"complete\"[^}]*} [1-9]");
+    }
+
+    @Test
+    void sqlStatsAttributeStatementsToEndpoints() throws Exception {
+        User user = fixtures.user();
+        fixtures.workouts(user, fixtures.exercises(2), 2, 2);
+        User admin = fixtures.admin();
+
+        mockMvc.perform(delete("/api/admin/sql-stats").with(fixtures.auth(admin))).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/workouts/user/{userId}/history", user.getId()).with(fixtures.auth(user)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/sql-stats").with(fixtures.auth(admin))).andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.endpoints[0] == 'GET /api/workouts/user/{userId}/history')]").exists())
+                .andExpect(jsonPath("$[0].count").isNumber())
+                .andExpect(jsonPath("$[?(@.params =~ /.*Long.*/)]").exists());
+    }
+}
@@ -0,0 +1,139 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bestwerte: Maximalgewicht, geschätztes 1RM (Epley) und bestes Satzvolumen
+ * mit Datum des ersten Erreichens; nur echte Verbesserungen zählen. Der
+ * Rebuild für alle User läuft im Hintergrund.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class PersonalRecordTests {
+
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 2, 1, 18, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recordsTrackBestValuesAndOnlyMoveOnImprovement() throws Exception {
+        User user = fixtures.user();
+        Exercise exercise = fixtures.exercises(1).get(0);
+
+        // 52,5 x 11, 55 x 10, 57,5 x 9
+        saveComplete(user, fixtures.saveRequest(user, List.of(exercise), 3, FIRST));
+        JsonNode record = record(user, exercise);
+        assertThat(record.get("maxWeight").asDouble()).isEqualTo(57.5);
+        assertThat(record.get("estimatedOneRepMax").asDouble()).isEqualTo(74.8);
+        assertThat(record.get("bestSetVolume").asDouble()).isEqualTo(577.5);
+        assertThat(record.get("maxWeightAt").asText()).startsWith("2024-02-01T18:00");
+
+        // Schwerer, aber kein besseres 1RM und weniger Volumen: nur das Maximalgewicht wandert
+        saveComplete(user, set(user, exercise, FIRST.plusDays(7), 60.0, 3));
+        record = record(user, exercise);
+        assertThat(record.get("maxWeight").asDouble()).isEqualTo(60.0);
+        assertThat(record.get("maxWeightAt").asText()).startsWith("2024-02-08T18:00");
+        assertThat(record.get("estimatedOneRepMax").asDouble()).isEqualTo(74.8);
+        assertThat(record.get("estimatedOneRepMaxAt").asText()).startsWith("2024-02-01T18:00");
+        assertThat(record.get("bestSetVolume").asDouble()).isEqualTo(577.5);
+
+        // Gleichstand ist keine Verbesserung, das Datum bleibt beim ersten Erreichen
+        saveComplete(user, set(user, exercise, FIRST.plusDays(14), 60.0, 1));
+        assertThat(record(user, exercise).get("maxWeightAt").asText()).startsWith("2024-02-08T18:00");
+
+        // Alles geschlagen: 80 x 10 -> 1RM 106,7, Volumen 800
+        saveComplete(user, set(user, exercise, FIRST.plusDays(21), 80.0, 10));
+        record = record(user, exercise);
+        assertThat(record.get("maxWeight").asDouble()).isEqualTo(80.0);
+        assertThat(record.get("estimatedOneRepMax").asDouble()).isEqualTo(106.7);
+        assertThat(record.get("bestSetVolume").asDouble()).isEqualTo(800.0);
+        assertThat(record.get("estimatedOneRepMaxAt").asText()).startsWith("2024-02-22T18:00");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM personal_records WHERE user_id = ?",
+                Long.class, user.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildForAllUsersRunsInBackground() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(2);
+        fixtures.workouts(user, exercises, 2, 2);
+        User admin = fixtures.admin();
+        jdbcTemplate.update("DELETE FROM personal_records WHERE user_id = ?", user.getId());
+
+        mockMvc.perform(post("/api/admin/records/rebuild").with(fixtures.auth(admin)))
+                .andExpect(status().isAccepted()).andExpect(jsonPath("$.running").value(true));
+
+        JsonNode status;
+        long deadline = System.currentTimeMillis() + 30_000;
+        do {
+            Thread.sleep(50);
+            status = objectMapper.readTree(mockMvc.perform(get("/api/admin/records/rebuild")
+                    .with(fixtures.auth(admin))).andExpect(status().isOk()).andReturn().getResponse()
+                    .getContentAsString());
+        } while (status.get("running").asBoolean() && System.currentTimeMillis() < deadline);
+
+        assertThat(status.get("running").asBoolean()).isFalse();
+        assertThat(status.get("failed").asInt()).isZero();
+        assertThat(status.get("users").asInt()).isGreaterThanOrEqualTo(2);
+        assertThat(record(user, exercises.get(1)).get("maxWeight").asDouble()).isEqualTo(55.0);
+
+        // Einzelner User bleibt synchron
+        mockMvc.perform(post("/api/admin/records/rebuild").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("userId", user.getId()))).with(fixtures.auth(admin)))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.records").value(2));
+    }
+
+    private WorkoutSaveRequest set(User user, Exercise exercise, LocalDateTime startTime, double weight, int reps) {
+        WorkoutSaveRequest request = fixtures.saveRequest(user, List.of(exercise), 1, startTime);
+        request.getExercises().get(0).getSets().get(0).setWeight(weight);
+        request.getExercises().get(0).getSets().get(0).setReps(reps);
+        return request;
+    }
+
+    private void saveComplete(User user, WorkoutSaveRequest request) throws Exception {
+        mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)).with(fixtures.auth(user)))
+                .andExpect(status().isCreated());
+    }
+
+    private JsonNode record(User user, Exercise exercise) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/records/user/{userId}/exercises/{exerciseId}",
+                user.getId(), exercise.getId()).with(fixtures.auth(user))).andExpect(status().isOk()).andReturn()
+                .getResponse().getContentAsString());
+    }
+}
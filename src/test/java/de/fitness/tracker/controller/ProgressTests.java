@@ -0,0 +1,117 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fortschritt einer Übung: Sessions werden pro Tag/Woche/Monat gebündelt
+ * (Maximum für 1RM und Top-Satz, Summe für Volumen) und per LTTB reduziert,
+ * ohne Spitzen zu verlieren.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ProgressTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void sessionsAreBucketedPerDayWeekAndMonth() throws Exception {
+        User user = fixtures.user();
+        Exercise exercise = fixtures.exercises(1).get(0);
+
+        // Montag 52,5 x 11, 55 x 10, 57,5 x 9; Mittwoch 52,5 x 11; Montag danach 52,5 x 11, 55 x 10
+        saveComplete(user, fixtures.saveRequest(user, List.of(exercise), 3, LocalDateTime.of(2024, 3, 4, 18, 0)));
+        saveComplete(user, fixtures.saveRequest(user, List.of(exercise), 1, LocalDateTime.of(2024, 3, 6, 18, 0)));
+        saveComplete(user, fixtures.saveRequest(user, List.of(exercise), 2, LocalDateTime.of(2024, 3, 11, 18, 0)));
+
+        JsonNode days = progress(user, exercise, "DAY", "ONE_REP_MAX", 200);
+        assertThat(days.get("totalPoints").asInt()).isEqualTo(3);
+        assertPoint(days.get("points").get(1), "2024-03-06", 71.8, 52.5, 577.5, 1);
+
+        JsonNode weeks = progress(user, exercise, "WEEK", "ONE_REP_MAX", 200);
+        assertThat(weeks.get("bucket").asText()).isEqualTo("WEEK");
+        assertThat(weeks.get("points")).hasSize(2);
+        assertPoint(weeks.get("points").get(0), "2024-03-04", 74.8, 57.5, 2222.5, 2);
+        assertPoint(weeks.get("points").get(1), "2024-03-11", 73.3, 55.0, 1127.5, 1);
+
+        JsonNode months = progress(user, exercise, "MONTH", "VOLUME", 200);
+        assertThat(months.get("points")).hasSize(1);
+        assertPoint(months.get("points").get(0), "2024-03-01", 74.8, 57.5, 3350.0, 3);
+    }
+
+    @Test
+    void downsamplingKeepsEndpointsAndPeaks() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+        // 1. bis 10. Januar je 52,5 x 11, am 5. zusätzlich ein schweres Training (100 x 5 -> 1RM 116,7)
+        fixtures.workouts(user, exercises, 10, 1);
+        WorkoutSaveRequest heavy = fixtures.saveRequest(user, exercises, 1, LocalDateTime.of(2024, 1, 5, 20, 0));
+        heavy.getExercises().get(0).getSets().get(0).setWeight(100.0);
+        heavy.getExercises().get(0).getSets().get(0).setReps(5);
+        saveComplete(user, heavy);
+
+        JsonNode progress = progress(user, exercises.get(0), "DAY", "ONE_REP_MAX", 4);
+        assertThat(progress.get("totalPoints").asInt()).isEqualTo(10);
+        JsonNode points = progress.get("points");
+        assertThat(points).hasSize(4);
+        assertThat(points.get(0).get("date").asText()).isEqualTo("2024-01-01");
+        assertThat(points.get(1).get("date").asText()).isEqualTo("2024-01-05");
+        assertThat(points.get(1).get("estimatedOneRepMax").asDouble()).isEqualTo(116.7);
+        assertThat(points.get(1).get("sessions").asInt()).isEqualTo(2);
+        assertThat(points.get(3).get("date").asText()).isEqualTo("2024-01-10");
+
+        mockMvc.perform(get("/api/progress/user/{userId}/exercises/{exerciseId}", user.getId(),
+                exercises.get(0).getId()).param("points", "2").with(fixtures.auth(user)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void assertPoint(JsonNode point, String date, double oneRepMax, double topSet, double volume,
+            int sessions) {
+        assertThat(point.get("date").asText()).isEqualTo(date);
+        assertThat(point.get("estimatedOneRepMax").asDouble()).isEqualTo(oneRepMax);
+        assertThat(point.get("topSetWeight").asDouble()).isEqualTo(topSet);
+        assertThat(point.get("totalVolume").asDouble()).isEqualTo(volume);
+        assertThat(point.get("sessions").asInt()).isEqualTo(sessions);
+    }
+
+    private JsonNode progress(User user, Exercise exercise, String bucket, String metric, int points)
+            throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/progress/user/{userId}/exercises/{exerciseId}",
+                user.getId(), exercise.getId()).param("bucket", bucket).param("metric", metric)
+                .param("points", String.valueOf(points)).with(fixtures.auth(user))).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private void saveComplete(User user, WorkoutSaveRequest request) throws Exception {
+        mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)).with(fixtures.auth(user)))
+                .andExpect(status().isCreated());
+    }
+}
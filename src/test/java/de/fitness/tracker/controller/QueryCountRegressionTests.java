@@ -0,0 +1,221 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.Workout;
+import de.fitness.tracker.model.WorkoutTemplate;
+import de.fitness.tracker.support.QueryCounter;
+import de.fitness.tracker.support.QueryCountingDataSourceConfig;
+import de.fitness.tracker.support.TestFixtures;
+import de.fitness.tracker.util.JwtUtil;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Obergrenzen für die Anzahl SQL-Statements pro Endpunkt. Die Grenzen gelten
+ * für jede Fixture-Größe (N Workouts x M Übungen x K Sätze) – wer pro Zeile
+ * nachlädt, fällt hier sofort auf.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import({ QueryCountingDataSourceConfig.class, TestFixtures.class })
+class QueryCountRegressionTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @ParameterizedTest(name = "{0} workouts x {1} exercises x {2} sets")
+    @CsvSource({ "1, 1, 1", "5, 3, 3", "25, 6, 5" })
+    void workoutReadsUseConstantQueries(int workouts, int exercisesPerWorkout, int setsPerExercise) throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(exercisesPerWorkout);
+        List<Workout> saved = fixtures.workouts(user, exercises, workouts, setsPerExercise);
+
+        // Listen und Auswertungen lesen zusätzlich die Archiv-Jahre des Users (eine Query, auch wenn leer)
+        assertQueries(get("/api/workouts/user/{userId}", user.getId()).with(fixtures.auth(user)), 5);
+        assertQueries(get("/api/workouts/user/{userId}/history", user.getId()).param("limit", "10")
+                .with(fixtures.auth(user)), 5);
+        assertQueries(get("/api/workouts/{id}", saved.get(0).getId()).with(fixtures.auth(user)), 3);
+        assertQueries(get("/api/workouts/exercises/{exerciseId}/last", exercises.get(0).getId()).param("userId",
+                user.getId().toString()).with(fixtures.auth(user)), 1);
+        assertQueries(get("/api/records/user/{userId}", user.getId()).with(fixtures.auth(user)), 1);
+        assertQueries(get("/api/progress/user/{userId}/exercises/{exerciseId}", user.getId(), exercises.get(0).getId())
+                .param("bucket", "WEEK").param("points", "10").with(fixtures.auth(user)), 2);
+        assertQueries(get("/api/volume/user/{userId}", user.getId()).param("period", "MONTH")
+                .with(fixtures.auth(user)), 1);
+    }
+
+    @ParameterizedTest(name = "{0} templates x {1} exercises")
+    @CsvSource({ "1, 1", "10, 8" })
+    void templateReadsUseConstantQueries(int templates, int exercisesPerTemplate) throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(exercisesPerTemplate);
+        WorkoutTemplate first = null;
+        for (int i = 0; i < templates; i++) {
+            WorkoutTemplate template = fixtures.template(user, exercises);
+            first = first == null ? template : first;
+        }
+
+        assertQueries(get("/api/templates/user/{userId}", user.getId()).with(fixtures.auth(user)), 3);
+        assertQueries(get("/api/templates/{id}", first.getId()).with(fixtures.auth(user)), 2);
+    }
+
+    @ParameterizedTest(name = "{0} measurements")
+    @CsvSource({ "1", "50" })
+    void weightReadsUseConstantQueries(int measurements) throws Exception {
+        User user = fixtures.user();
+        fixtures.weightMeasurements(user, measurements);
+
+        assertQueries(get("/api/weight/user/{userId}", user.getId()).with(fixtures.auth(user)), 2);
+        assertQueries(get("/api/weight/user/{userId}/statistics", user.getId()).param("metrics", "WEIGHT,BMI,BODY_FAT")
+                .param("points", "10").with(fixtures.auth(user)), 1);
+    }
+
+    // Rolle kommt aus dem UserRoleCache, nicht aus dem Token: höchstens eine Query pro TTL, ein gefälschter
+    // ADMIN-Claim bleibt wirkungslos
+    @ParameterizedTest(name = "stored role {0}")
+    @CsvSource({ "USER", "ADMIN" })
+    void validateTokenLooksUpRoleOncePerTtl(String role) throws Exception {
+        User user = "ADMIN".equals(role) ? fixtures.admin() : fixtures.user();
+        String token = jwtUtil.generateToken(user.getUsername(), user.getId(), "ADMIN");
+
+        QueryCounter.reset();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/auth/validate").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$.userId").value(user.getId()))
+                    .andExpect(jsonPath("$.role").value(role));
+        }
+        assertThat(QueryCounter.total()).as("statements for /api/auth/validate").isLessThanOrEqualTo(1);
+
+        // Signatur verändert -> nicht aus dem Cache, sondern abgelehnt
+        int i = token.length() - 10;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+        mockMvc.perform(get("/api/auth/validate").header("Authorization", "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+    }
+
+    // Katalog kommt aus dem Snapshot: keine Query, und mit ETag nur noch 304
+    @ParameterizedTest(name = "{0} exercises")
+    @CsvSource({ "1", "40" })
+    void exerciseCatalogIsServedFromMemory(int exerciseCount) throws Exception {
+        User user = fixtures.user();
+        fixtures.exercises(exerciseCount);
+
+        QueryCounter.reset();
+        String etag = mockMvc.perform(get("/api/exercises").with(fixtures.auth(user))).andExpect(status().isOk())
+                .andExpect(header().exists("ETag")).andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/exercises").header("If-None-Match", etag).with(fixtures.auth(user)))
+                .andExpect(status().isNotModified());
+        assertThat(QueryCounter.total()).as("statements for exercise catalog").isZero();
+    }
+
+    // Unveränderte Listen: nur der Versionszähler wird gelesen, Antwort 304
+    @ParameterizedTest(name = "{0} workouts")
+    @CsvSource({ "1", "25" })
+    void unchangedCollectionsAnswerNotModified(int workouts) throws Exception {
+        User user = fixtures.user();
+        fixtures.workouts(user, fixtures.exercises(3), workouts, 3);
+        fixtures.template(user, fixtures.exercises(2));
+        fixtures.weightMeasurements(user, workouts);
+
+        for (String path : List.of("/api/workouts/user/{userId}", "/api/templates/user/{userId}",
+                "/api/weight/user/{userId}")) {
+            String etag = mockMvc.perform(get(path, user.getId()).with(fixtures.auth(user)))
+                    .andExpect(status().isOk()).andReturn().getResponse().getHeader("ETag");
+
+            QueryCounter.reset();
+            mockMvc.perform(get(path, user.getId()).header("If-None-Match", etag).with(fixtures.auth(user)))
+                    .andExpect(status().isNotModified());
+            assertThat(QueryCounter.total()).as("statements for conditional GET %s", path).isEqualTo(1);
+        }
+
+        // Neues Workout -> neue Version -> wieder 200
+        String etag = mockMvc.perform(get("/api/workouts/user/{userId}", user.getId()).with(fixtures.auth(user)))
+                .andReturn().getResponse().getHeader("ETag");
+        fixtures.workouts(user, fixtures.exercises(1), 1, 1);
+        mockMvc.perform(get("/api/workouts/user/{userId}", user.getId()).header("If-None-Match", etag)
+                .with(fixtures.auth(user))).andExpect(status().isOk());
+    }
+
+    // Export liest über einen einzigen Cursor (plus die Archiv-Jahre), egal wie groß die Historie ist
+    @ParameterizedTest(name = "{0} workouts x {1} exercises x {2} sets")
+    @CsvSource({ "1, 1, 1", "25, 6, 5" })
+    void exportStreamsFromSingleQuery(int workouts, int exercisesPerWorkout, int setsPerExercise) throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(exercisesPerWorkout);
+        fixtures.workouts(user, exercises, workouts, setsPerExercise);
+
+        QueryCounter.reset();
+        MvcResult result = mockMvc.perform(get("/api/export/user/{userId}/workouts", user.getId())
+                .param("format", "JSON").with(fixtures.auth(user))).andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(workouts))
+                .andExpect(jsonPath("$[0].exercises.length()").value(exercisesPerWorkout))
+                .andExpect(jsonPath("$[0].exercises[0].sets.length()").value(setsPerExercise));
+
+        // Der Body wird auf einem Executor-Thread geschrieben: über alle Threads zählen (mindestens der Cursor)
+        assertThat(QueryCounter.allThreadsTotal()).as("statements for workout export").isBetween(1L, 2L);
+    }
+
+    // Übungen, "Letztes Mal", Bestwerte und Volumen lesen (User kommt aus dem Token), Versionszähler hochzählen und höchstens
+    // ein Sequence-Aufruf und ein Insert-Batch pro Tabelle – unabhängig von M x K. Projektion und Bestwerte legen fehlende
+    // Zeilen per INSERT ... ON CONFLICT an und schreiben die gesperrten Zeilen danach fort
+    @ParameterizedTest(name = "{0} exercises x {1} sets")
+    @CsvSource({ "1, 1", "6, 5" })
+    void saveCompleteUsesBatchedWrites(int exerciseCount, int setsPerExercise) throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(exerciseCount);
+        String body = objectMapper.writeValueAsString(
+                fixtures.saveRequest(user, exercises, setsPerExercise, LocalDateTime.of(2024, 6, 1, 18, 0)));
+
+        QueryCounter.reset();
+        mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON).content(body)
+                .with(fixtures.auth(user)))
+                .andExpect(status().isCreated());
+
+        assertThat(QueryCounter.total()).as("statements for save-complete").isLessThanOrEqualTo(16);
+    }
+
+    private void assertQueries(RequestBuilder request, int maxStatements) throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertThat(QueryCounter.total()).as("statements for %s", describe(request)).isLessThanOrEqualTo(maxStatements);
+    }
+
+    private static String describe(RequestBuilder request) {
+        MockHttpServletRequest built = request.buildRequest(new MockServletContext());
+        return built.getMethod() + " " + built.getRequestURI();
+    }
+}
@@ -0,0 +1,147 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Volumen-Rollups: Sätze, Wiederholungen und Tonnage pro Woche/Monat und
+ * Muskelgruppe werden beim Speichern aufaddiert, gleichzeitige Saves gehen
+ * nicht verloren und der Rebuild kommt auf dieselben Werte.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class VolumeRollupTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void savesAddUpPerWeekMonthAndMuscleGroup() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(2);
+
+        // Mittwoch und Sonntag derselben Woche, dann der Montag danach
+        saveComplete(user, exercises, 3, LocalDateTime.of(2024, 3, 6, 18, 0));
+        saveComplete(user, exercises.subList(0, 1), 1, LocalDateTime.of(2024, 3, 10, 18, 0));
+        saveComplete(user, exercises.subList(0, 1), 2, LocalDateTime.of(2024, 3, 11, 18, 0));
+
+        String first = exercises.get(0).getPrimaryMuscleGroup().name();
+        String second = exercises.get(1).getPrimaryMuscleGroup().name();
+        JsonNode weeks = volume(user, "WEEK");
+        // 3 Sätze (52,5 x 11, 55 x 10, 57,5 x 9) + 1 Satz (52,5 x 11)
+        assertRow(row(weeks, "2024-03-04", first), 4, 41, 2222.5);
+        assertRow(row(weeks, "2024-03-04", second), 3, 30, 1645.0);
+        assertRow(row(weeks, "2024-03-11", first), 2, 21, 1127.5);
+        assertThat(weeks).hasSize(3);
+
+        JsonNode months = volume(user, "MONTH");
+        assertRow(row(months, "2024-03-01", first), 6, 62, 3350.0);
+        assertRow(row(months, "2024-03-01", second), 3, 30, 1645.0);
+        assertThat(months).hasSize(2);
+
+        // Rebuild aus der Historie ergibt dieselben Werte
+        User admin = fixtures.admin();
+        mockMvc.perform(post("/api/admin/rollups/rebuild").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("userId", user.getId()))).with(fixtures.auth(admin)))
+                .andExpect(status().isOk());
+        assertThat(withoutIds(volume(user, "WEEK"))).isEqualTo(withoutIds(weeks));
+        assertThat(withoutIds(volume(user, "MONTH"))).isEqualTo(withoutIds(months));
+    }
+
+    @Test
+    void concurrentSavesAreAllCounted() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+        int saves = 8;
+        // Vorab ein Workout in einem anderen Monat, damit die Woche unten von allen Threads gleichzeitig neu angelegt wird
+        saveComplete(user, exercises, 1, LocalDateTime.of(2024, 4, 1, 18, 0));
+
+        ExecutorService executor = Executors.newFixedThreadPool(saves);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < saves; i++) {
+                LocalDateTime startTime = LocalDateTime.of(2024, 5, 6, 8 + i, 0);
+                tasks.add(() -> {
+                    saveComplete(user, exercises, 1, startTime);
+                    return null;
+                });
+            }
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        JsonNode weeks = volume(user, "WEEK");
+        assertThat(weeks).hasSize(2);
+        assertRow(row(weeks, "2024-05-06", exercises.get(0).getPrimaryMuscleGroup().name()), saves, 11 * saves,
+                577.5 * saves);
+    }
+
+    private void assertRow(JsonNode row, int sets, int reps, double tonnage) {
+        assertThat(row.get("sets").asInt()).isEqualTo(sets);
+        assertThat(row.get("reps").asInt()).isEqualTo(reps);
+        assertThat(row.get("tonnage").asDouble()).isEqualTo(tonnage);
+    }
+
+    private JsonNode row(JsonNode rows, String periodStart, String muscleGroup) {
+        for (JsonNode row : rows) {
+            if (row.get("periodStart").asText().equals(periodStart) && row.get("muscleGroup").asText().equals(muscleGroup)) {
+                return row;
+            }
+        }
+        throw new AssertionError("No row for " + periodStart + " / " + muscleGroup + " in " + rows);
+    }
+
+    private JsonNode withoutIds(JsonNode rows) {
+        rows.forEach(r -> ((ObjectNode) r).remove("id"));
+        return rows;
+    }
+
+    private JsonNode volume(User user, String period) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/volume/user/{userId}", user.getId())
+                .param("period", period).param("from", "2024-01-01").param("to", "2024-12-31")
+                .with(fixtures.auth(user))).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString());
+    }
+
+    private void saveComplete(User user, List<Exercise> exercises, int sets, LocalDateTime startTime)
+            throws Exception {
+        mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(fixtures.saveRequest(user, exercises, sets, startTime)))
+                .with(fixtures.auth(user))).andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,111 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.WeightMeasurement;
+import de.fitness.tracker.repository.WeightMeasurementRepository;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Gewichtsstatistik: gleitende 7- und 30-Tage-Durchschnitte (mit Vorlauf vor
+ * dem Zeitraum), Min/Max/Delta nur über den Zeitraum, Metriken ohne Wert
+ * werden pro Metrik übersprungen.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class WeightStatisticsTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 7, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private WeightMeasurementRepository weightRepository;
+
+    @Test
+    void movingAveragesAndRangeOverPeriod() throws Exception {
+        User user = fixtures.user();
+        // 40 Tage: Gewicht 70 + 0,2 pro Tag, Körperfett nur an geraden Tagen (20 - 0,1 pro Tag)
+        for (int i = 0; i < 40; i++) {
+            WeightMeasurement measurement = new WeightMeasurement();
+            measurement.setUser(user);
+            measurement.setDate(START.plusDays(i));
+            measurement.setWeight(70 + 0.2 * i);
+            measurement.setBodyFat(i % 2 == 0 ? 20 - 0.1 * i : null);
+            weightRepository.save(measurement);
+        }
+
+        // Zeitraum ab Tag 30, davor liegen genau die 30 Tage Vorlauf
+        JsonNode result = statistics(user, 200);
+        JsonNode weight = result.get(0);
+        assertThat(weight.get("metric").asText()).isEqualTo("WEIGHT");
+        assertThat(weight.get("count").asInt()).isEqualTo(10);
+        assertThat(weight.get("min").asDouble()).isEqualTo(76.0);
+        assertThat(weight.get("max").asDouble()).isEqualTo(77.8);
+        assertThat(weight.get("first").asDouble()).isEqualTo(76.0);
+        assertThat(weight.get("last").asDouble()).isEqualTo(77.8);
+        assertThat(weight.get("delta").asDouble()).isEqualTo(1.8);
+
+        // Tag 30: 7 Tage = Tage 24..30, 30 Tage = Tage 1..30
+        JsonNode first = weight.get("points").get(0);
+        assertThat(first.get("date").asText()).startsWith("2024-01-31T07:00");
+        assertThat(first.get("average7Days").asDouble()).isEqualTo(75.4);
+        assertThat(first.get("average30Days").asDouble()).isEqualTo(73.1);
+        JsonNode last = weight.get("points").get(9);
+        assertThat(last.get("average7Days").asDouble()).isEqualTo(77.2);
+        assertThat(last.get("average30Days").asDouble()).isEqualTo(74.9);
+
+        // Nur Tage mit Wert: im 7-Tage-Fenster von Tag 38 liegen die Tage 32, 34, 36, 38
+        JsonNode bodyFat = result.get(1);
+        assertThat(bodyFat.get("metric").asText()).isEqualTo("BODY_FAT");
+        assertThat(bodyFat.get("count").asInt()).isEqualTo(5);
+        assertThat(bodyFat.get("min").asDouble()).isEqualTo(16.2);
+        assertThat(bodyFat.get("max").asDouble()).isEqualTo(17.0);
+        assertThat(bodyFat.get("delta").asDouble()).isEqualTo(-0.8);
+        assertThat(bodyFat.get("points").get(4).get("average7Days").asDouble()).isEqualTo(16.5);
+
+        // Downsampling ändert nur die Punkte, nicht die Kennzahlen
+        JsonNode sampled = statistics(user, 3).get(0);
+        assertThat(sampled.get("points")).hasSize(3);
+        assertThat(sampled.get("count").asInt()).isEqualTo(10);
+        assertThat(sampled.get("delta").asDouble()).isEqualTo(1.8);
+    }
+
+    @Test
+    void emptyPeriodHasNoValues() throws Exception {
+        User user = fixtures.user();
+
+        JsonNode weight = statistics(user, 200).get(0);
+        assertThat(weight.get("count").asInt()).isZero();
+        assertThat(weight.get("min").isNull()).isTrue();
+        assertThat(weight.get("points")).isEmpty();
+    }
+
+    private JsonNode statistics(User user, int points) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/weight/user/{userId}/statistics", user.getId())
+                .param("metrics", "WEIGHT,BODY_FAT").param("from", START.plusDays(30).toLocalDate().atStartOfDay()
+                        .toString()).param("to", "2024-02-29T23:59:59").param("points", String.valueOf(points))
+                .with(fixtures.auth(user))).andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,166 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Alte Workouts wandern in die Jahres-Archive: die heißen Tabellen schrumpfen,
+ * Liste, Historie (seitenweise), Export, Fortschritt und Bestwert-Rebuild
+ * liefern danach exakt dasselbe wie vorher.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class WorkoutArchiveTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archivedYearsAreReadTransparently() throws Exception {
+        User user = fixtures.user();
+        User admin = fixtures.admin();
+        List<Exercise> exercises = fixtures.exercises(2);
+
+        // Zwei Jahre Altbestand, dazu ein aktuelles Workout, auf das "Letztes Mal" zeigt
+        fixtures.workouts(user, exercises, 5, 3);
+        saveComplete(user, exercises, LocalDateTime.of(2023, 12, 30, 18, 0));
+        saveComplete(user, exercises, LocalDateTime.now().minusDays(2));
+
+        // Bestwerte chronologisch aufbauen (das 2023er Workout kam nachträglich), damit der Vergleich unten passt
+        rebuildRecords(user, admin);
+        Snapshot before = snapshot(user, exercises.get(0));
+        assertThat(before.history()).hasSize(7);
+
+        mockMvc.perform(post("/api/admin/archive/run").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("userId", user.getId(), "minAgeDays", 30)))
+                .with(fixtures.auth(admin))).andExpect(status().isOk())
+                .andExpect(jsonPath("$.workouts").value(6));
+
+        assertThat(count("SELECT COUNT(*) FROM workouts WHERE user_id = ?", user.getId())).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM workout_archives WHERE user_id = ?", user.getId())).isEqualTo(2);
+
+        assertThat(snapshot(user, exercises.get(0))).isEqualTo(before);
+
+        // Erneuter Lauf findet nichts mehr, der Bestwert-Rebuild sieht die archivierten Sätze weiterhin
+        mockMvc.perform(post("/api/admin/archive/run").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("userId", user.getId(), "minAgeDays", 30)))
+                .with(fixtures.auth(admin))).andExpect(jsonPath("$.workouts").value(0));
+        rebuildRecords(user, admin);
+        // Neu aufgebaute Zeilen haben neue IDs, die Werte müssen gleich bleiben
+        JsonNode rebuilt = json(get("/api/records/user/{userId}", user.getId()).with(fixtures.auth(user)));
+        rebuilt.forEach(r -> ((ObjectNode) r).remove("id"));
+        before.records().forEach(r -> ((ObjectNode) r).remove("id"));
+        assertThat(rebuilt).isEqualTo(before.records());
+    }
+
+    @Test
+    void archiveForAllUsersRunsInBackground() throws Exception {
+        User user = fixtures.user();
+        User admin = fixtures.admin();
+        fixtures.workouts(user, fixtures.exercises(1), 2, 1);
+
+        mockMvc.perform(post("/api/admin/archive/run").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("minAgeDays", 30))).with(fixtures.auth(admin)))
+                .andExpect(status().isAccepted()).andExpect(jsonPath("$.running").value(true));
+
+        JsonNode status;
+        long deadline = System.currentTimeMillis() + 30_000;
+        do {
+            Thread.sleep(50);
+            status = json(get("/api/admin/archive/run").with(fixtures.auth(admin)));
+        } while (status.get("running").asBoolean() && System.currentTimeMillis() < deadline);
+
+        assertThat(status.get("running").asBoolean()).isFalse();
+        assertThat(status.get("failed").asInt()).isZero();
+        assertThat(status.get("users").asInt()).isGreaterThanOrEqualTo(2);
+        // Das jüngere Workout bleibt heiß, "Letztes Mal" zeigt darauf
+        assertThat(count("SELECT COUNT(*) FROM workouts WHERE user_id = ?", user.getId())).isEqualTo(1);
+        assertThat(count("SELECT COUNT(*) FROM workout_archives WHERE user_id = ?", user.getId())).isEqualTo(1);
+    }
+
+    private record Snapshot(JsonNode list, List<JsonNode> history, String export, JsonNode progress,
+            JsonNode records) {
+    }
+
+    private Snapshot snapshot(User user, Exercise exercise) throws Exception {
+        // Historie in Zweierseiten, damit Cursor über die Grenze heiß/archiviert laufen
+        List<JsonNode> history = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/workouts/user/{userId}/history", user.getId())
+                    .param("limit", "2").with(fixtures.auth(user));
+            JsonNode page = json(cursor != null ? request.param("cursor", cursor) : request);
+            page.get("workouts").forEach(history::add);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        MvcResult export = mockMvc.perform(get("/api/export/user/{userId}/workouts", user.getId())
+                .param("format", "CSV").with(fixtures.auth(user))).andReturn();
+        String csv = mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString();
+
+        return new Snapshot(json(get("/api/workouts/user/{userId}", user.getId()).with(fixtures.auth(user))),
+                history, csv,
+                json(get("/api/progress/user/{userId}/exercises/{exerciseId}", user.getId(), exercise.getId())
+                        .param("bucket", "DAY").with(fixtures.auth(user))),
+                json(get("/api/records/user/{userId}", user.getId()).with(fixtures.auth(user))));
+    }
+
+    private void rebuildRecords(User user, User admin) throws Exception {
+        mockMvc.perform(post("/api/admin/records/rebuild").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("userId", user.getId()))).with(fixtures.auth(admin)))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.records").value(2));
+    }
+
+    private void saveComplete(User user, List<Exercise> exercises, LocalDateTime startTime) throws Exception {
+        mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(fixtures.saveRequest(user, exercises, 3, startTime)))
+                .with(fixtures.auth(user))).andExpect(status().isCreated());
+    }
+
+    private JsonNode json(RequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse()
+                .getContentAsString());
+    }
+
+    private long count(String sql, Long userId) {
+        return jdbcTemplate.queryForObject(sql, Long.class, userId);
+    }
+}
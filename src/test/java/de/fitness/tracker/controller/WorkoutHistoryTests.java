@@ -0,0 +1,140 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.Workout;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset-Pagination der Historie: jede Zeile genau einmal, auch bei gleicher
+ * Startzeit über eine Seitengrenze, from/to inklusive, letzte Seite ohne
+ * Cursor, kaputter Cursor -> 400.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class WorkoutHistoryTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void equalStartTimesAreSplitByIdAcrossPages() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+        LocalDateTime same = LocalDateTime.of(2024, 5, 1, 18, 0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(saveComplete(user, exercises, same));
+        }
+        ids.add(saveComplete(user, exercises, same.plusDays(1)));
+        ids.add(saveComplete(user, exercises, same.minusDays(1)));
+
+        List<JsonNode> pages = pages(user, null, null, 2);
+        assertThat(pages).hasSize(4);
+        assertThat(pages.get(3).get("nextCursor").isNull()).isTrue();
+
+        List<Long> seen = new ArrayList<>();
+        List<LocalDateTime> times = new ArrayList<>();
+        pages.forEach(p -> p.get("workouts").forEach(w -> {
+            seen.add(w.get("id").asLong());
+            times.add(LocalDateTime.parse(w.get("startTime").asText()));
+        }));
+
+        // Neueste zuerst, bei gleicher Zeit nach ID absteigend – ohne Lücken oder Doppelte
+        assertThat(seen).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(ids);
+        assertThat(times).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(seen.subList(1, 6)).isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    void fromAndToAreInclusiveBounds() throws Exception {
+        User user = fixtures.user();
+        List<Workout> workouts = fixtures.workouts(user, fixtures.exercises(1), 10, 1);
+        LocalDateTime from = workouts.get(2).getStartTime();
+        LocalDateTime to = workouts.get(5).getStartTime();
+
+        List<JsonNode> pages = pages(user, from, to, 3);
+        List<Long> seen = new ArrayList<>();
+        pages.forEach(p -> p.get("workouts").forEach(w -> seen.add(w.get("id").asLong())));
+
+        assertThat(seen).containsExactly(workouts.get(5).getId(), workouts.get(4).getId(), workouts.get(3).getId(),
+                workouts.get(2).getId());
+        assertThat(pages).hasSize(2);
+        assertThat(pages.get(1).get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void singlePageHasNoCursorAndInvalidInputIsRejected() throws Exception {
+        User user = fixtures.user();
+        fixtures.workouts(user, fixtures.exercises(1), 3, 1);
+
+        mockMvc.perform(get("/api/workouts/user/{userId}/history", user.getId()).param("limit", "3")
+                .with(fixtures.auth(user))).andExpect(status().isOk())
+                .andExpect(jsonPath("$.workouts.length()").value(3)).andExpect(jsonPath("$.nextCursor").isEmpty());
+
+        mockMvc.perform(get("/api/workouts/user/{userId}/history", user.getId()).param("cursor", "not-a-cursor")
+                .with(fixtures.auth(user))).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/workouts/user/{userId}/history", user.getId()).param("limit", "0")
+                .with(fixtures.auth(user))).andExpect(status().isBadRequest());
+    }
+
+    // Alle Seiten ab der ersten abholen, bis kein Cursor mehr kommt
+    private List<JsonNode> pages(User user, LocalDateTime from, LocalDateTime to, int limit) throws Exception {
+        List<JsonNode> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/workouts/user/{userId}/history", user.getId())
+                    .param("limit", String.valueOf(limit)).with(fixtures.auth(user));
+            if (from != null) {
+                request.param("from", from.toString());
+            }
+            if (to != null) {
+                request.param("to", to.toString());
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request).andExpect(status().isOk()).andReturn()
+                    .getResponse().getContentAsString());
+            pages.add(page);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private Long saveComplete(User user, List<Exercise> exercises, LocalDateTime startTime) throws Exception {
+        String response = mockMvc.perform(post("/api/workouts/save-complete").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(fixtures.saveRequest(user, exercises, 1, startTime)))
+                .with(fixtures.auth(user))).andExpect(status().isCreated()).andReturn().getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,181 @@
+package de.fitness.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * NDJSON-Sync: wiederholte Idempotency-Keys werden DUPLICATE, ungültige Zeilen
+ * INVALID ohne die übrigen zu blockieren, nach einer kaputten Zeile wird
+ * abgebrochen. Ergebnisse kommen in Zeilenreihenfolge. save-complete liefert
+ * auch bei gleichzeitigen Requests mit demselben Key nur ein Workout.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class WorkoutSyncTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 4, 1, 18, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void replayedIdempotencyKeysAreReportedAsDuplicates() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+        String body = lines(request(user, exercises, "a", 0), request(user, exercises, "b", 1),
+                request(user, exercises, "a", 2));
+
+        JsonNode first = sync(user, body);
+        assertThat(statuses(first)).containsExactly("CREATED", "CREATED", "DUPLICATE");
+        assertThat(first.get(2).get("workoutId")).isEqualTo(first.get(0).get("workoutId"));
+
+        // Erneutes Senden nach verlorener Antwort: nichts Neues, dieselben IDs
+        JsonNode replay = sync(user, body);
+        assertThat(statuses(replay)).containsExactly("DUPLICATE", "DUPLICATE", "DUPLICATE");
+        assertThat(replay.get(1).get("workoutId")).isEqualTo(first.get(1).get("workoutId"));
+        assertThat(workouts(user)).isEqualTo(2);
+    }
+
+    @Test
+    void invalidLinesAreRejectedIndividually() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+
+        WorkoutSaveRequest noStart = request(user, exercises, "no-start", 1);
+        noStart.setStartTime(null);
+        WorkoutSaveRequest noOrder = request(user, exercises, "no-order", 2);
+        noOrder.getExercises().get(0).setOrderIndex(null);
+        WorkoutSaveRequest noSetNumber = request(user, exercises, "no-set-number", 3);
+        noSetNumber.getExercises().get(0).getSets().get(0).setSetNumber(null);
+        // Zu langer Name: schon die Vorprüfung lehnt die Zeile ab, nicht erst die Datenbank
+        WorkoutSaveRequest longName = request(user, exercises, "long-name", 4);
+        longName.setName("x".repeat(300));
+
+        JsonNode results = sync(user, lines(request(user, exercises, "ok-1", 0), noStart, noOrder, noSetNumber,
+                longName, request(user, exercises, "ok-2", 5)));
+
+        assertThat(statuses(results)).containsExactly("CREATED", "INVALID", "INVALID", "INVALID", "INVALID",
+                "CREATED");
+        List<Integer> indexes = new ArrayList<>();
+        results.forEach(r -> indexes.add(r.get("index").asInt()));
+        assertThat(indexes).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results.get(2).get("message").asText()).isEqualTo("orderIndex is required");
+        assertThat(results.get(3).get("message").asText()).isEqualTo("setNumber is required");
+        assertThat(results.get(4).get("message").asText()).isEqualTo("name too long");
+        assertThat(workouts(user)).isEqualTo(2);
+    }
+
+    @Test
+    void malformedLineStopsProcessing() throws Exception {
+        User user = fixtures.user();
+        List<Exercise> exercises = fixtures.exercises(1);
+        String body = lines(request(user, exercises, "before", 0)) + "{\"name\": \"broken\n"
+                + lines(request(user, exercises, "after", 2));
+
+        JsonNode results = sync(user, body);
+
+        assertThat(statuses(results)).containsExactly("CREATED", "INVALID");
+        assertThat(results.get(0).get("idempotencyKey").asText()).isEqualTo("before");
+        assertThat(results.get(1).get("index").asInt()).isEqualTo(1);
+        assertThat(workouts(user)).isEqualTo(1);
+    }
+
+    // Doppelt abgeschickt (z.B. Retry bei langsamer Verbindung): beide Requests bekommen dasselbe Workout
+    @Test
+    void concurrentSaveCompleteWithSameKeyCreatesOneWorkout() throws Exception {
+        User user = fixtures.user();
+        String body = objectMapper.writeValueAsString(request(user, fixtures.exercises(2), "double-tap", 0));
+        int requests = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<JsonNode>> responses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                responses.add(pool.submit(() -> {
+                    start.await();
+                    return objectMapper.readTree(mockMvc.perform(post("/api/workouts/save-complete")
+                            .contentType(MediaType.APPLICATION_JSON).content(body).with(fixtures.auth(user)))
+                            .andExpect(status().isCreated()).andReturn().getResponse().getContentAsString());
+                }));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<JsonNode> response : responses) {
+                ids.add(response.get(30, TimeUnit.SECONDS).get("id").asLong());
+            }
+            assertThat(ids).hasSize(1);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(workouts(user)).isEqualTo(1);
+    }
+
+    private WorkoutSaveRequest request(User user, List<Exercise> exercises, String key, int day) {
+        WorkoutSaveRequest request = fixtures.saveRequest(user, exercises, 2, START.plusDays(day));
+        request.setIdempotencyKey(key);
+        return request;
+    }
+
+    private String lines(WorkoutSaveRequest... requests) throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (WorkoutSaveRequest request : requests) {
+            body.append(objectMapper.writeValueAsString(request)).append('\n');
+        }
+        return body.toString();
+    }
+
+    private JsonNode sync(User user, String body) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/api/workouts/sync")
+                .contentType(MediaType.APPLICATION_NDJSON).content(body).with(fixtures.auth(user)))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString()).get("results");
+    }
+
+    private List<String> statuses(JsonNode results) {
+        List<String> statuses = new ArrayList<>();
+        results.forEach(r -> statuses.add(r.get("status").asText()));
+        return statuses;
+    }
+
+    private long workouts(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM workouts WHERE user_id = ?", Long.class,
+                user.getId());
+    }
+}
@@ -0,0 +1,133 @@
+package de.fitness.tracker.repository;
+
+import de.fitness.tracker.config.SqlTracer;
+import de.fitness.tracker.model.Exercise;
+import de.fitness.tracker.model.User;
+import de.fitness.tracker.model.Workout;
+import de.fitness.tracker.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Die Repository-Queries der heißen Pfade laufen über die Indizes aus
+ * V2__hot_query_indexes.sql. Das von Hibernate erzeugte SQL wird über den
+ * SqlTracer abgegriffen und per EXPLAIN geprüft (H2 zeigt den gewählten Index
+ * als Kommentar im Plan). Eigene H2-Datenbank ohne die Fremdschlüssel der
+ * heißen Tabellen (db/index-usage), damit H2 wie PostgreSQL nur die Indizes
+ * aus V2 zur Auswahl hat; alle anderen Tests laufen mit Fremdschlüsseln.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:index_usage;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/index-usage" })
+@Import(TestFixtures.class)
+class IndexUsageTests {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private SqlTracer sqlTracer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private LastExercisePerformanceRepository lastPerformanceRepository;
+
+    @Autowired
+    private ExerciseSetRepository exerciseSetRepository;
+
+    @Autowired
+    private WeightMeasurementRepository weightRepository;
+
+    @Autowired
+    private WorkoutTemplateRepository templateRepository;
+
+    private User user;
+
+    private List<Exercise> exercises;
+
+    private List<Workout> workouts;
+
+    @BeforeEach
+    void createData() {
+        user = fixtures.user();
+        exercises = fixtures.exercises(3);
+        workouts = fixtures.workouts(user, exercises, 10, 3);
+        fixtures.weightMeasurements(user, 10);
+        fixtures.template(user, exercises);
+    }
+
+    @Test
+    void workoutHistoryUsesUserStartIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(plan("workouts", () -> workoutRepository.findHistoryPage(user.getId(), now.minusYears(1), now,
+                Long.MAX_VALUE, Limit.of(20)))).contains("idx_workouts_user_start");
+
+        // Ohne Zeitbedingung ist für H2 der Unique-Index (user_id, client_key) gleichwertig, die Sortierung
+        // bewertet H2 nicht (PostgreSQL nimmt wegen ORDER BY start_time DESC den zusammengesetzten Index)
+        assertThat(plan("workouts", () -> workoutRepository.findViewsByUserId(user.getId())))
+                .doesNotContain("tableScan").contains("user_id = ?1");
+    }
+
+    // /exercises/{id}/last liest eine Zeile der Projektion über deren Unique-Key
+    @Test
+    void lastPerformanceUsesProjectionUniqueKey() {
+        assertThat(plan("last_exercise_performances", false, () -> lastPerformanceRepository
+                .findWithDetails(user.getId(), exercises.get(0).getId())))
+                .contains("uk_last_exercise_performances_user_exercise");
+    }
+
+    @Test
+    void setsOfWorkoutExerciseUseSetNumberIndex() {
+        Long workoutExerciseId = workouts.get(0).getExercises().get(0).getId();
+        assertThat(plan("exercise_sets",
+                () -> exerciseSetRepository.findByWorkoutExerciseIdOrderBySetNumber(workoutExerciseId)))
+                .contains("idx_exercise_sets_workout_exercise_set");
+    }
+
+    @Test
+    void weightHistoryUsesUserDateIndex() {
+        assertThat(plan("weight_measurements", () -> weightRepository.findByUserIdOrderByDateDesc(user.getId())))
+                .contains("idx_weight_measurements_user_date");
+    }
+
+    @Test
+    void templateListUsesUserCreatedIndex() {
+        assertThat(plan("workout_templates", () -> templateRepository.findViewsByUserId(user.getId())))
+                .contains("idx_workout_templates_user_created");
+    }
+
+    private String plan(String table, Runnable query) {
+        return plan(table, true, query);
+    }
+
+    // Die Haupt-Query auf der Tabelle abgreifen (bei Listen die sortierte, Nachladen per ID hat kein ORDER BY)
+    // und erklären
+    private String plan(String table, boolean ordered, Runnable query) {
+        sqlTracer.reset();
+        query.run();
+        List<String> statements = sqlTracer.stats(50).stream().map(SqlTracer.StatementStats::sql)
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from " + table + " ")
+                        && (!ordered || sql.contains(" order by ")))
+                .toList();
+        assertThat(statements).hasSize(1);
+
+        String plan = jdbcTemplate.query(con -> con.prepareStatement("EXPLAIN " + statements.get(0)),
+                rs -> rs.next() ? rs.getString(1) : "");
+        return plan;
+    }
+}
@@ -0,0 +1,90 @@
+package de.fitness.tracker.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrade einer Bestandsdatenbank: Das Schema des Stands vor Flyway (per
+ * ddl-auto=update entstanden, entspricht V1__baseline_schema.sql) wird ohne
+ * Flyway angelegt und befüllt, danach migriert Flyway wie in Produktion mit
+ * baseline-on-migrate. V1 wird übersprungen, alle späteren Migrationen
+ * müssen auf den Bestandsdaten laufen.
+ */
+class MigrationUpgradeTests {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void baselineDatabase() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:upgrade_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql"))
+                .execute(dataSource);
+
+        // Bestandsdaten mit IDENTITY-IDs, wie sie die alte Anwendung geschrieben hat
+        jdbc.update("insert into users (username, password, height, role, created_at) "
+                + "values ('bestand', 'x', 180, 'USER', timestamp '2024-01-01 10:00:00')");
+        jdbc.update("insert into exercises (name, exercise_type) values ('Bankdrücken', 'STRENGTH')");
+        Long userId = jdbc.queryForObject("select id from users", Long.class);
+        Long exerciseId = jdbc.queryForObject("select id from exercises", Long.class);
+        jdbc.update("insert into workouts (user_id, name, start_time) values (?, 'Alt', timestamp '2024-01-02 10:00:00')",
+                userId);
+        jdbc.update("insert into workouts (user_id, name, start_time) values (?, 'Neu', timestamp '2024-01-09 10:00:00')",
+                userId);
+        for (Long workoutId : jdbc.queryForList("select id from workouts order by id", Long.class)) {
+            jdbc.update("insert into workout_exercises (workout_id, exercise_id, order_index) values (?, ?, 0)",
+                    workoutId, exerciseId);
+        }
+        for (Long workoutExerciseId : jdbc.queryForList("select id from workout_exercises", Long.class)) {
+            jdbc.update("insert into exercise_sets (workout_exercise_id, set_number, weight, reps) values (?, 1, 80, 5)",
+                    workoutExerciseId);
+        }
+    }
+
+    @Test
+    void baselinedDatabaseMigratesToCurrentSchema() {
+        MigrateResult result = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.migrations).extracting(m -> m.version).doesNotContain("1").contains("1.1", "1.7", "5");
+        assertThat(jdbc.queryForList("select version from flyway_schema_history where type = 'BASELINE'",
+                String.class)).containsExactly("1");
+
+        // Neue Spalte und Tabellen sind da, Bestandszeilen bleiben unverändert
+        assertThat(jdbc.queryForObject("select count(*) from workouts where client_key is null", Integer.class))
+                .isEqualTo(2);
+        for (String table : new String[] { "personal_records", "muscle_group_volumes", "import_jobs",
+                "collection_versions", "workout_archives" }) {
+            assertThat(jdbc.queryForObject("select count(*) from " + table, Integer.class)).isZero();
+        }
+
+        // V5 hat die "Letztes Mal"-Projektion aus den Bestandsdaten gefüllt: die jüngere Ausführung gewinnt
+        Map<String, Object> last = jdbc.queryForMap(
+                "select l.workout_exercise_id, w.name from last_exercise_performances l "
+                        + "join workout_exercises we on we.id = l.workout_exercise_id "
+                        + "join workouts w on w.id = we.workout_id");
+        assertThat(last.get("name")).isEqualTo("Neu");
+
+        // Die Sequenzen der Entities sind nutzbar
+        assertThat(jdbc.queryForObject("select nextval('workouts_seq')", Long.class)).isNotNull();
+        assertThat(jdbc.queryForObject("select nextval('personal_records_seq')", Long.class)).isNotNull();
+    }
+}
@@ -0,0 +1,39 @@
+package de.fitness.tracker.support;
+
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+/**
+ * Zugriff auf die von {@link QueryCountingDataSourceConfig} gezählten Statements.
+ */
+public final class QueryCounter {
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        QueryCountHolder.clear();
+        QueryCountingDataSourceConfig.ALL_THREADS.clear();
+    }
+
+    public static QueryCount current() {
+        QueryCount count = QueryCountHolder.get(QueryCountingDataSourceConfig.DATA_SOURCE_NAME);
+        return count != null ? count : new QueryCount();
+    }
+
+    // Anzahl JDBC-Ausführungen (Batch = 1)
+    public static long total() {
+        return current().getTotal();
+    }
+
+    public static long selects() {
+        return current().getSelect();
+    }
+
+    // Alle Threads seit dem letzten reset(), z.B. inkl. asynchron geschriebener Responses
+    public static long allThreadsTotal() {
+        QueryCount count = QueryCountingDataSourceConfig.ALL_THREADS.getQueryCountMap()
+                .get(QueryCountingDataSourceConfig.DATA_SOURCE_NAME);
+        return count != null ? count.getTotal() : 0;
+    }
+}
@@ -0,0 +1,46 @@
+package de.fitness.tracker.support;
+
+import net.ttddyy.dsproxy.listener.DataSourceQueryCountListener;
+import net.ttddyy.dsproxy.listener.SingleQueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wickelt die DataSource in einen datasource-proxy, der jede JDBC-Ausführung
+ * zählt. Ein Batch zählt als eine Ausführung (= ein Round-Trip). Ist die
+ * DataSource schon für den SqlTracer gewickelt, kommt der Zähler außen herum.
+ * Gezählt wird pro Thread und zusätzlich über alle Threads (für Requests, die
+ * asynchron weiterlaufen, z.B. der Export).
+ */
+@TestConfiguration
+public class QueryCountingDataSourceConfig {
+
+    public static final String DATA_SOURCE_NAME = "counted";
+
+    // Über alle Threads, ohne den Thread-Zähler (QueryCountHolder) zu befüllen
+    static final SingleQueryCountHolder ALL_THREADS = new SingleQueryCountHolder();
+
+    static {
+        ALL_THREADS.setPopulateQueryCountHolder(false);
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    DataSourceQueryCountListener allThreads = new DataSourceQueryCountListener();
+                    allThreads.setQueryCountStrategy(ALL_THREADS);
+                    return ProxyDataSourceBuilder.create(dataSource).name(DATA_SOURCE_NAME).countQuery()
+                            .listener(allThreads).build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,287 @@
+package de.fitness.tracker.support;
+
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.*;
+import de.fitness.tracker.repository.ExerciseRepository;
+import de.fitness.tracker.repository.UserRepository;
+import de.fitness.tracker.repository.WeightMeasurementRepository;
+import de.fitness.tracker.repository.WorkoutTemplateRepository;
+import de.fitness.tracker.service.ExerciseCatalog;
+import de.fitness.tracker.service.LastPerformanceService;
+import de.fitness.tracker.service.PersonalRecordService;
+import de.fitness.tracker.service.VolumeRollupService;
+import de.fitness.tracker.service.WorkoutSaveService;
+import de.fitness.tracker.util.BodyMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Erzeugt reproduzierbar (fester Seed) N User mit mehreren Jahren Historie:
+ * Push/Pull/Legs-Vorlagen, 2–5 Trainings pro Woche mit Pausen und langsamer
+ * Steigerung der Gewichte, dazu Gewichtsmessungen alle 1–3 Tage mit Trend.
+ * Bestwerte, Volumen-Rollups und "Letztes Mal" werden wie nach einem Import
+ * einmal pro User neu aufgebaut.
+ */
+@TestComponent
+public class SyntheticDataGenerator {
+
+    public static final String PASSWORD = "load-test";
+
+    private static final int BATCH_SIZE = 50;
+
+    // Name, Gerät, Muskelgruppe, Startgewicht in kg (0 = Körpergewicht)
+    private record CatalogEntry(String name, EquipmentType equipment, MuscleGroup muscleGroup, double startWeight) {
+    }
+
+    private static final List<CatalogEntry> CATALOG = List.of(
+            new CatalogEntry("Bankdrücken", EquipmentType.BARBELL, MuscleGroup.CHEST, 50),
+            new CatalogEntry("Schrägbankdrücken Kurzhantel", EquipmentType.DUMBBELL, MuscleGroup.CHEST, 18),
+            new CatalogEntry("Butterfly", EquipmentType.MACHINE, MuscleGroup.CHEST, 35),
+            new CatalogEntry("Schulterdrücken", EquipmentType.DUMBBELL, MuscleGroup.SHOULDERS, 14),
+            new CatalogEntry("Seitheben", EquipmentType.DUMBBELL, MuscleGroup.SHOULDERS, 8),
+            new CatalogEntry("Trizepsdrücken Kabel", EquipmentType.CABLE, MuscleGroup.TRICEPS, 20),
+            new CatalogEntry("Dips", EquipmentType.BODYWEIGHT, MuscleGroup.TRICEPS, 0),
+            new CatalogEntry("Klimmzüge", EquipmentType.BODYWEIGHT, MuscleGroup.BACK, 0),
+            new CatalogEntry("Langhantelrudern", EquipmentType.BARBELL, MuscleGroup.BACK, 50),
+            new CatalogEntry("Latzug", EquipmentType.CABLE, MuscleGroup.BACK, 45),
+            new CatalogEntry("Kabelrudern", EquipmentType.CABLE, MuscleGroup.BACK, 40),
+            new CatalogEntry("Bizepscurls", EquipmentType.DUMBBELL, MuscleGroup.BICEPS, 10),
+            new CatalogEntry("Hammercurls", EquipmentType.DUMBBELL, MuscleGroup.FOREARMS, 10),
+            new CatalogEntry("Kniebeugen", EquipmentType.BARBELL, MuscleGroup.LEGS, 60),
+            new CatalogEntry("Kreuzheben", EquipmentType.BARBELL, MuscleGroup.BACK, 70),
+            new CatalogEntry("Beinpresse", EquipmentType.PLATE_LOADED, MuscleGroup.LEGS, 100),
+            new CatalogEntry("Hip Thrust", EquipmentType.BARBELL, MuscleGroup.GLUTES, 60),
+            new CatalogEntry("Wadenheben", EquipmentType.MACHINE, MuscleGroup.CALVES, 50),
+            new CatalogEntry("Crunches", EquipmentType.BODYWEIGHT, MuscleGroup.ABS, 0));
+
+    // Indizes in CATALOG pro Vorlage
+    private static final Map<String, int[]> SPLIT = Map.of(
+            "Push", new int[] { 0, 1, 2, 3, 4, 5, 6 },
+            "Pull", new int[] { 7, 8, 9, 10, 11, 12 },
+            "Legs", new int[] { 13, 14, 15, 16, 17, 18 });
+
+    private static final List<String> ROTATION = List.of("Push", "Pull", "Legs");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private WorkoutTemplateRepository templateRepository;
+
+    @Autowired
+    private WeightMeasurementRepository weightRepository;
+
+    @Autowired
+    private WorkoutSaveService workoutSaveService;
+
+    @Autowired
+    private PersonalRecordService personalRecordService;
+
+    @Autowired
+    private VolumeRollupService volumeRollupService;
+
+    @Autowired
+    private LastPerformanceService lastPerformanceService;
+
+    @Autowired
+    private ExerciseCatalog exerciseCatalog;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    public record GeneratedUser(User user, List<Long> templateIds, List<Long> exerciseIds, int workouts) {
+    }
+
+    public record Dataset(List<GeneratedUser> users, int years, long workouts, long sets, long measurements) {
+    }
+
+    public Dataset generate(int users, int years, long seed) {
+        Random random = new Random(seed);
+        List<Exercise> exercises = catalog();
+        Map<Long, Exercise> exercisesById = exercises.stream()
+                .collect(Collectors.toMap(Exercise::getId, Function.identity()));
+
+        // Ein Hash für alle: BCrypt pro User würde die Generierung dominieren
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minusYears(years);
+
+        List<GeneratedUser> generated = new ArrayList<>();
+        long workoutCount = 0;
+        long setCount = 0;
+        long measurementCount = 0;
+        for (int u = 0; u < users; u++) {
+            User user = new User();
+            user.setUsername("load-" + seed + "-" + u);
+            user.setPassword(passwordHash);
+            user.setHeight(160 + random.nextInt(36));
+            user = userRepository.save(user);
+
+            List<Long> templateIds = templates(user, exercises);
+
+            List<WorkoutSaveRequest> requests = workouts(user, exercises, start, today, random);
+            for (int i = 0; i < requests.size(); i += BATCH_SIZE) {
+                workoutSaveService.saveBatch(user, requests.subList(i, Math.min(i + BATCH_SIZE, requests.size())),
+                        exercisesById, false);
+            }
+            personalRecordService.rebuild(user.getId());
+            volumeRollupService.rebuild(user.getId());
+            lastPerformanceService.rebuild(user.getId());
+
+            measurementCount += measurements(user, start, today, random);
+            workoutCount += requests.size();
+            setCount += requests.stream().flatMap(r -> r.getExercises().stream()).mapToLong(e -> e.getSets().size())
+                    .sum();
+            generated.add(new GeneratedUser(user, templateIds, exercises.stream().map(Exercise::getId).toList(),
+                    requests.size()));
+        }
+        return new Dataset(generated, years, workoutCount, setCount, measurementCount);
+    }
+
+    // Katalog einmal pro Datenbank anlegen, bei weiteren Läufen wiederverwenden
+    private List<Exercise> catalog() {
+        List<Exercise> exercises = new ArrayList<>();
+        for (CatalogEntry entry : CATALOG) {
+            exercises.add(exerciseRepository.findByName(entry.name()).orElseGet(() -> {
+                Exercise exercise = new Exercise();
+                exercise.setName(entry.name());
+                exercise.setEquipmentType(entry.equipment());
+                exercise.setPrimaryMuscleGroup(entry.muscleGroup());
+                exercise.setWeightPerSide(entry.equipment() == EquipmentType.PLATE_LOADED);
+                return exerciseRepository.save(exercise);
+            }));
+        }
+        exerciseCatalog.refresh();
+        return exercises;
+    }
+
+    private List<Long> templates(User user, List<Exercise> exercises) {
+        List<Long> ids = new ArrayList<>();
+        for (String name : ROTATION) {
+            WorkoutTemplate template = new WorkoutTemplate();
+            template.setUser(user);
+            template.setName(name);
+            int order = 1;
+            for (int index : SPLIT.get(name)) {
+                TemplateExercise te = new TemplateExercise();
+                te.setTemplate(template);
+                te.setExercise(exercises.get(index));
+                te.setOrderIndex(order++);
+                te.setSetsCount(3);
+                te.setTargetWeight(CATALOG.get(index).startWeight());
+                te.setTargetReps(10);
+                template.getExercises().add(te);
+            }
+            ids.add(templateRepository.save(template).getId());
+        }
+        return ids;
+    }
+
+    private List<WorkoutSaveRequest> workouts(User user, List<Exercise> exercises, LocalDate start, LocalDate end,
+            Random random) {
+        // Pro User: Trainingshäufigkeit, Kraftniveau und Steigerung pro Jahr
+        int perWeek = 2 + random.nextInt(4);
+        double strength = 0.7 + random.nextDouble() * 0.8;
+        double yearlyGain = 0.05 + random.nextDouble() * 0.2;
+        long totalDays = Math.max(1, end.toEpochDay() - start.toEpochDay());
+
+        List<WorkoutSaveRequest> requests = new ArrayList<>();
+        int rotation = 0;
+        for (LocalDate week = start.with(DayOfWeek.MONDAY); week.isBefore(end); week = week.plusWeeks(1)) {
+            // Urlaub, Krankheit: etwa jede zehnte Woche ohne Training
+            if (random.nextInt(10) == 0) {
+                continue;
+            }
+            int sessions = Math.max(1, perWeek + random.nextInt(3) - 1);
+            for (int s = 0; s < sessions; s++) {
+                LocalDate day = week.plusDays(Math.min(6, s * 7L / sessions + random.nextInt(2)));
+                if (day.isBefore(start) || !day.isBefore(end)) {
+                    continue;
+                }
+                double progress = 1 + yearlyGain * (day.toEpochDay() - start.toEpochDay()) / 365.0
+                        * Math.min(1, totalDays / 365.0);
+                String split = ROTATION.get(rotation++ % ROTATION.size());
+                requests.add(workout(user, split, exercises, day, strength * progress, random));
+            }
+        }
+        return requests;
+    }
+
+    private WorkoutSaveRequest workout(User user, String split, List<Exercise> exercises, LocalDate day,
+            double factor, Random random) {
+        LocalDateTime startTime = day.atTime(6 + random.nextInt(15), random.nextInt(4) * 15);
+
+        WorkoutSaveRequest request = new WorkoutSaveRequest();
+        request.setUserId(user.getId());
+        request.setName(split);
+        request.setStartTime(startTime);
+        request.setEndTime(startTime.plusMinutes(45 + random.nextInt(45)));
+
+        List<WorkoutSaveRequest.ExerciseData> exerciseData = new ArrayList<>();
+        int order = 1;
+        for (int index : SPLIT.get(split)) {
+            // Gelegentlich wird eine Übung ausgelassen
+            if (random.nextInt(8) == 0) {
+                continue;
+            }
+            WorkoutSaveRequest.ExerciseData data = new WorkoutSaveRequest.ExerciseData();
+            data.setExerciseId(exercises.get(index).getId());
+            data.setOrderIndex(order++);
+
+            double startWeight = CATALOG.get(index).startWeight();
+            double working = startWeight == 0 ? 0 : Math.round(startWeight * factor / 2.5) * 2.5;
+            List<WorkoutSaveRequest.SetData> sets = new ArrayList<>();
+            int setCount = 3 + random.nextInt(2);
+            for (int s = 1; s <= setCount; s++) {
+                WorkoutSaveRequest.SetData set = new WorkoutSaveRequest.SetData();
+                set.setSetNumber(s);
+                set.setWeight(working == 0 ? null : working);
+                set.setReps(Math.max(3, 12 - s - random.nextInt(4)));
+                sets.add(set);
+            }
+            data.setSets(sets);
+            exerciseData.add(data);
+        }
+        request.setExercises(exerciseData);
+        return request;
+    }
+
+    private int measurements(User user, LocalDate start, LocalDate end, Random random) {
+        double weight = 60 + random.nextDouble() * 40;
+        double bodyFat = 12 + random.nextDouble() * 15;
+        // Langsamer Trend (Auf- oder Abbau) in kg pro Tag
+        double trend = (random.nextDouble() - 0.5) * 0.01;
+
+        List<WeightMeasurement> measurements = new ArrayList<>();
+        for (LocalDate day = start; day.isBefore(end); day = day.plusDays(1 + random.nextInt(3))) {
+            weight += trend + (random.nextGaussian() * 0.3);
+            bodyFat += trend * 0.5 + random.nextGaussian() * 0.1;
+
+            WeightMeasurement measurement = new WeightMeasurement();
+            measurement.setUser(user);
+            measurement.setDate(day.atTime(7, 0));
+            measurement.setWeight(Math.round(weight * 10) / 10.0);
+            if (random.nextBoolean()) {
+                measurement.setBodyFat(Math.round(bodyFat * 10) / 10.0);
+            }
+            measurement.setBmi(BodyMetrics.bmi(measurement.getWeight(), user.getHeight()));
+            measurements.add(measurement);
+        }
+        weightRepository.saveAll(measurements);
+        return measurements.size();
+    }
+}
@@ -0,0 +1,169 @@
+package de.fitness.tracker.support;
+
+import de.fitness.tracker.config.UserRoleCache;
+import de.fitness.tracker.dto.WorkoutSaveRequest;
+import de.fitness.tracker.model.*;
+import de.fitness.tracker.repository.ExerciseRepository;
+import de.fitness.tracker.repository.UserRepository;
+import de.fitness.tracker.repository.WeightMeasurementRepository;
+import de.fitness.tracker.repository.WorkoutTemplateRepository;
+import de.fitness.tracker.service.ExerciseCatalog;
+import de.fitness.tracker.service.WorkoutSaveService;
+import de.fitness.tracker.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Legt Testdaten an: User, Übungen, N Workouts x M Übungen x K Sätze,
+ * Vorlagen und Gewichtsmessungen.
+ */
+@TestComponent
+public class TestFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ExerciseRepository exerciseRepository;
+
+    @Autowired
+    private WorkoutTemplateRepository templateRepository;
+
+    @Autowired
+    private WeightMeasurementRepository weightRepository;
+
+    @Autowired
+    private WorkoutSaveService workoutSaveService;
+
+    @Autowired
+    private ExerciseCatalog exerciseCatalog;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRoleCache roleCache;
+
+    public User user() {
+        User user = new User();
+        user.setUsername("user-" + SEQUENCE.incrementAndGet());
+        user.setPassword("secret");
+        user.setHeight(180);
+        return cacheRole(userRepository.save(user));
+    }
+
+    // Rolle muss gespeichert sein, der JWT-Filter prüft sie gegen die Datenbank
+    public User admin() {
+        User admin = user();
+        admin.setRole("ADMIN");
+        userRepository.save(admin);
+        roleCache.evict(admin.getId());
+        return cacheRole(admin);
+    }
+
+    // Rolle vorab im Cache, damit die Rollen-Query nicht in die Statement-Zählung der Endpunkte fällt
+    // (im Betrieb höchstens eine pro TTL)
+    private User cacheRole(User user) {
+        roleCache.role(user.getId());
+        return user;
+    }
+
+    // Bearer-Token für MockMvc-Requests im Namen des Users
+    public RequestPostProcessor auth(User user) {
+        String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole());
+        return request -> {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            return request;
+        };
+    }
+
+    public List<Exercise> exercises(int count) {
+        List<Exercise> exercises = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Exercise exercise = new Exercise();
+            exercise.setName("Exercise " + SEQUENCE.incrementAndGet());
+            exercise.setEquipmentType(EquipmentType.BARBELL);
+            exercise.setPrimaryMuscleGroup(MuscleGroup.values()[i % MuscleGroup.values().length]);
+            exercises.add(exerciseRepository.save(exercise));
+        }
+        exerciseCatalog.refresh();
+        return exercises;
+    }
+
+    // N Workouts, je ein Tag auseinander, mit allen Übungen und K Sätzen
+    public List<Workout> workouts(User user, List<Exercise> exercises, int workouts, int setsPerExercise) {
+        List<Workout> saved = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 18, 0);
+        for (int w = 0; w < workouts; w++) {
+            saved.add(workoutSaveService.saveComplete(user,
+                    saveRequest(user, exercises, setsPerExercise, start.plusDays(w))));
+        }
+        return saved;
+    }
+
+    public WorkoutSaveRequest saveRequest(User user, List<Exercise> exercises, int setsPerExercise,
+            LocalDateTime startTime) {
+        WorkoutSaveRequest request = new WorkoutSaveRequest();
+        request.setUserId(user.getId());
+        request.setName("Training");
+        request.setStartTime(startTime);
+        request.setEndTime(startTime.plusHours(1));
+
+        List<WorkoutSaveRequest.ExerciseData> exerciseData = new ArrayList<>();
+        for (int e = 0; e < exercises.size(); e++) {
+            WorkoutSaveRequest.ExerciseData data = new WorkoutSaveRequest.ExerciseData();
+            data.setExerciseId(exercises.get(e).getId());
+            data.setOrderIndex(e + 1);
+
+            List<WorkoutSaveRequest.SetData> sets = new ArrayList<>();
+            for (int s = 1; s <= setsPerExercise; s++) {
+                WorkoutSaveRequest.SetData set = new WorkoutSaveRequest.SetData();
+                set.setSetNumber(s);
+                set.setWeight(50.0 + s * 2.5);
+                set.setReps(12 - s);
+                sets.add(set);
+            }
+            data.setSets(sets);
+            exerciseData.add(data);
+        }
+        request.setExercises(exerciseData);
+        return request;
+    }
+
+    public WorkoutTemplate template(User user, List<Exercise> exercises) {
+        WorkoutTemplate template = new WorkoutTemplate();
+        template.setUser(user);
+        template.setName("Vorlage " + SEQUENCE.incrementAndGet());
+        for (int i = 0; i < exercises.size(); i++) {
+            TemplateExercise te = new TemplateExercise();
+            te.setTemplate(template);
+            te.setExercise(exercises.get(i));
+            te.setOrderIndex(i + 1);
+            te.setSetsCount(3);
+            te.setTargetWeight(60.0);
+            te.setTargetReps(10);
+            template.getExercises().add(te);
+        }
+        return templateRepository.save(template);
+    }
+
+    public void weightMeasurements(User user, int count) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 7, 0);
+        for (int i = 0; i < count; i++) {
+            WeightMeasurement measurement = new WeightMeasurement();
+            measurement.setUser(user);
+            measurement.setDate(start.plusDays(i));
+            measurement.setWeight(80.0 - i * 0.1);
+            weightRepository.save(measurement);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package de.fitness.tracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LTTB: feste Punktzahl, erster und letzter Punkt bleiben, Spitzen und Täler
+ * werden gegenüber flachen Abschnitten bevorzugt.
+ */
+class DownsamplingTests {
+
+    private record Point(double x, double y) {
+    }
+
+    @Test
+    void keepsEndpointsPeaksAndValleys() {
+        List<Point> data = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            data.add(new Point(i, i == 30 ? 100 : i == 70 ? -100 : 0));
+        }
+
+        List<Point> sampled = Downsampling.lttb(data, 10, Point::x, Point::y);
+
+        assertThat(sampled).hasSize(10);
+        assertThat(sampled.get(0)).isSameAs(data.get(0));
+        assertThat(sampled.get(9)).isSameAs(data.get(99));
+        assertThat(sampled).contains(data.get(30), data.get(70));
+        assertThat(sampled).extracting(Point::x).isSorted();
+    }
+
+    @Test
+    void returnsInputWhenNothingToReduce() {
+        List<Point> data = List.of(new Point(0, 1), new Point(1, 5), new Point(2, 3));
+
+        assertThat(Downsampling.lttb(data, 3, Point::x, Point::y)).isSameAs(data);
+        assertThat(Downsampling.lttb(data, 10, Point::x, Point::y)).isSameAs(data);
+        assertThat(Downsampling.lttb(data, 2, Point::x, Point::y)).isSameAs(data);
+    }
+}
@@ -0,0 +1,10 @@
+-- Nur für IndexUsageTests (eigene H2-Datenbank, alle übrigen Tests behalten die Fremdschlüssel): H2 legt für
+-- jeden Fremdschlüssel zwingend einen eigenen einspaltigen Index an, PostgreSQL nicht. Bei gleicher
+-- Selektivität bevorzugt H2 den schmaleren FK-Index vor den zusammengesetzten Indizes aus V2, die Pläne hätten
+-- mit PostgreSQL nichts zu tun. Ohne diese Fremdschlüssel entspricht die Index-Landschaft der heißen Tabellen
+-- der von PostgreSQL; die übrigen Fremdschlüssel bleiben.
+alter table workouts drop constraint FKpf8ql3wbw2drijbk1ugfvki3d;
+alter table workout_exercises drop constraint FK3bn8puhdk29j682es5643p60c;
+alter table exercise_sets drop constraint FK8vmxlwj8qlov72fwgs77hgkal;
+alter table weight_measurements drop constraint FKeymxciexh5uxvklicnbm0uvg3;
+alter table workout_templates drop constraint FKb8o20st3g0wrlaipy25esyey8;